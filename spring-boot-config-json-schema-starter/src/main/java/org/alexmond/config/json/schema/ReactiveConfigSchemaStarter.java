@@ -0,0 +1,51 @@
+package org.alexmond.config.json.schema;
+
+import org.alexmond.config.json.schema.config.JsonConfigSchemaConfig;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.ReactiveSchemaService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Auto-configuration of the non-blocking schema API for reactive web applications. It is
+ * only active when Spring WebFlux, and with it Reactor, is on the classpath and the
+ * application runs as a reactive web application.
+ */
+@AutoConfiguration(after = { ConfigSchemaStarter.class, TaskExecutionAutoConfiguration.class })
+@ConditionalOnClass(name = "org.springframework.web.reactive.DispatcherHandler")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnBean(JsonSchemaService.class)
+public class ReactiveConfigSchemaStarter {
+
+	/**
+	 * Creates the reactive schema service. Builds run on the application task executor,
+	 * which is a bounded pool or uses virtual threads when
+	 * {@code spring.threads.virtual.enabled} is set, and on Reactor's bounded elastic
+	 * scheduler if there is none.
+	 * @param jsonSchemaService The service building and caching the schema
+	 * @param config Configuration settings for JSON Schema generation
+	 * @param applicationTaskExecutor The application task executor, if any
+	 * @return A new ReactiveSchemaService instance
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public ReactiveSchemaService reactiveSchemaService(JsonSchemaService jsonSchemaService,
+			JsonConfigSchemaConfig config,
+			@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) ObjectProvider<Executor> applicationTaskExecutor) {
+		Executor executor = applicationTaskExecutor.getIfAvailable();
+		Scheduler scheduler = (executor != null) ? Schedulers.fromExecutor(executor) : Schedulers.boundedElastic();
+		return new ReactiveSchemaService(jsonSchemaService, scheduler, config.getReactiveChunkSize());
+	}
+
+}
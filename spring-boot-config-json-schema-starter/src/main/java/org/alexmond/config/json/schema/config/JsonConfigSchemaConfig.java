@@ -96,6 +96,79 @@ public class JsonConfigSchemaConfig {
 	@Schema(description = "Enable JSON Schema definition references", defaultValue = "true")
 	private boolean enableDefinitionRefs = true;
 
+	/**
+	 * Controls whether large value lists are replaced by compact patterns. When true,
+	 * locales and charsets are described by a name pattern instead of listing every value
+	 * available in the JVM, and enums by a case-insensitive pattern instead of their
+	 * upper- and lowercase names. This noticeably reduces the schema size, at the cost of
+	 * value completion in IDEs.
+	 */
+	@Schema(description = "Replace locale, charset and enum value lists with patterns", defaultValue = "false")
+	private boolean compactDefinitions;
+
+	/**
+	 * Controls what is kept in memory after the schema has been generated. 'full' keeps
+	 * the schema tree, 'soft' keeps it only as long as memory allows and regenerates it
+	 * when needed, and 'bytes-only' keeps just the serialized JSON and YAML documents.
+	 */
+	@Schema(description = "What to keep in memory after the schema has been generated", defaultValue = "full")
+	private SchemaRetention schemaRetention = SchemaRetention.FULL;
+
+	/**
+	 * Controls whether the schema is written in canonical form. When true, definitions,
+	 * properties and other maps are sorted by key, value sets such as enums and required
+	 * properties are sorted, and numbers are normalized, so that the same configuration
+	 * metadata always produces byte-for-byte identical documents and hashes.
+	 */
+	@Schema(description = "Write the schema in canonical form with sorted keys, sorted value sets and normalized numbers",
+			defaultValue = "false")
+	private boolean canonicalOutput;
+
+	/**
+	 * Number of filtered schema views kept rendered per schema version. The least
+	 * recently used view is evicted when the limit is reached; 0 disables view caching.
+	 */
+	@Schema(description = "Number of filtered schema views kept in memory", defaultValue = "16")
+	private int viewCacheSize = 16;
+
+	/**
+	 * Directory the rendered schema documents are written to, so they can be served from
+	 * files with zero-copy transfer instead of from the heap. Files are named after the
+	 * process and their content and replaced atomically when the schema is rebuilt.
+	 * Processes on one host may share the directory, processes in different containers
+	 * may not. Unset to keep the documents in memory only.
+	 */
+	@Schema(description = "Directory the rendered schema documents are written to for serving from files")
+	private String renderDirectory;
+
+	/**
+	 * Size in bytes of the chunks the reactive API streams the schema in. Each chunk is a
+	 * view of the rendered document, so the size only affects how finely subscribers can
+	 * apply backpressure.
+	 */
+	@Schema(description = "Size in bytes of the chunks the reactive API streams the schema in", defaultValue = "8192")
+	private int reactiveChunkSize = 8192;
+
+	/**
+	 * Number of top-level properties and definitions from which the JSON schema is
+	 * serialized in parallel, one chunk per entry on the common fork-join pool, and
+	 * stitched together in order. The output is byte-identical to sequential
+	 * serialization. 0 disables parallel serialization.
+	 */
+	@Schema(description = "Number of top-level entries from which the JSON schema is serialized in parallel",
+			defaultValue = "0")
+	private int parallelRenderThreshold;
+
+	/**
+	 * Whether the YAML schema is written by the built-in schema YAML writer instead of
+	 * Jackson's YAML generator. The built-in writer is several times faster and allocates
+	 * less; its document reads back into the same tree, but long strings are not folded
+	 * over several lines, so the text differs from the default output.
+	 */
+	@Schema(description = "Whether the YAML schema is written by the built-in schema YAML writer",
+			defaultValue = "false")
+	private boolean fastYamlWriter;
+
 	/**
 	 * List of additional configuration property paths to include in the schema. By
 	 * default, it includes the 'logging' configuration namespace.
@@ -106,7 +179,11 @@ public class JsonConfigSchemaConfig {
 	/**
 	 * Map of property names or java objects to their type definitions. Used to store
 	 * custom type mappings and property configurations that override or extend the
-	 * default schema generation behavior.
+	 * default schema generation behavior. Keys may be property path patterns, where '*'
+	 * matches one segment and '**' any number of segments (e.g. 'app.tenants.*.url'),
+	 * package patterns for types marked with a 'type:' prefix (e.g.
+	 * 'type:com.vendor.**'), or type hierarchies (e.g. 'com.vendor.Base+'). Exact keys
+	 * take precedence over patterns.
 	 */
 	@Schema(description = "Custom JSON Schema property mappings")
 	private Map<String, JsonSchemaProperties> JsonSchemaPropertiesMap = new HashMap<>();
@@ -122,7 +199,10 @@ public class JsonConfigSchemaConfig {
 	/**
 	 * A list of fully qualified class names that should be excluded from schema
 	 * generation. By default, includes ObjectMapper and ClassLoader classes to prevent
-	 * processing of system-level classes that aren't relevant to configuration.
+	 * processing of system-level classes that aren't relevant to configuration. Entries
+	 * may also be package wildcards ('com.vendor.*' for one package, 'com.vendor.**'
+	 * including sub-packages) or type hierarchies ('com.vendor.Base+' for a class and all
+	 * its subtypes).
 	 */
 	private List<String> excludeClasses = new ArrayList<>(
 			List.of("tools.jackson.databind.ObjectMapper", "java.lang.ClassLoader",
@@ -131,7 +211,8 @@ public class JsonConfigSchemaConfig {
 	/**
 	 * List of fully qualified class names that should be excluded from anchor generation.
 	 * Classes in this list will not have JSON Schema anchors generated for them, even if
-	 * they appear multiple times in the schema.
+	 * they appear multiple times in the schema. Supports the same wildcard and hierarchy
+	 * patterns as excludeClasses.
 	 */
 	@Schema(description = "List of classes to exclude from anchor generation")
 	private List<String> excludeAnchors = new ArrayList<>(
@@ -140,7 +221,8 @@ public class JsonConfigSchemaConfig {
 	/**
 	 * Additional class names to be excluded from schema generation. This list can be used
 	 * to specify custom classes that should be excluded beyond the default exclusions.
-	 * Classes specified here will be combined with the default excludeClasses list.
+	 * Classes specified here will be combined with the default excludeClasses list, and
+	 * support the same wildcard and hierarchy patterns.
 	 */
 	private List<String> additionalExcludeClasses = new ArrayList<>();
 
@@ -0,0 +1,32 @@
+package org.alexmond.config.json.schema.config;
+
+/**
+ * Controls what the schema service keeps in memory once the schema has been generated.
+ */
+public enum SchemaRetention {
+
+	/**
+	 * Keep the compact schema tree for the lifetime of the application.
+	 */
+	FULL,
+
+	/**
+	 * Keep the compact schema tree through a soft reference, so the garbage collector may
+	 * reclaim it under memory pressure. It is regenerated transparently on the next use.
+	 * The hash of the indented JSON document is computed up front to detect whether a
+	 * regenerated tree still matches the published version.
+	 */
+	SOFT,
+
+	/**
+	 * Keep only the serialized JSON and YAML documents, in the render directory when one
+	 * is configured and on the heap otherwise. The schema tree is released after
+	 * serialization and only weakly referenced, so it survives while callers use it.
+	 * Anything that needs the tree once it has been collected, such as a snapshot, a
+	 * view, a shard, a variant or the lean schema that is not cached yet, first runs a
+	 * full build of the schema under the build lock. Use this mode when the schema is
+	 * mostly served as a document.
+	 */
+	BYTES_ONLY
+
+}
@@ -0,0 +1,166 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact, immutable replacement for a {@code Map<String, JsonSchemaProperties>} of named
+ * child schemas. Names and nodes are held in two parallel arrays in the iteration order
+ * of the source map. When the names are sorted, which is the case for every
+ * {@code TreeMap} produced by the builder, lookups use binary search.
+ */
+public final class CompactSchemaMap {
+
+	private static final CompactSchemaMap EMPTY = new CompactSchemaMap(new String[0], new CompactSchemaNode[0], true);
+
+	private final String[] names;
+
+	private final CompactSchemaNode[] nodes;
+
+	private final boolean sorted;
+
+	private CompactSchemaMap(String[] names, CompactSchemaNode[] nodes, boolean sorted) {
+		this.names = names.clone();
+		this.nodes = nodes.clone();
+		this.sorted = sorted;
+	}
+
+	/**
+	 * Creates a compact copy of the given map, converting every child recursively.
+	 * @param map the map to copy, may be null
+	 * @return the compact map, or null if the given map is null
+	 */
+	public static CompactSchemaMap of(Map<String, JsonSchemaProperties> map) {
+		if (map == null) {
+			return null;
+		}
+		if (map.isEmpty()) {
+			return EMPTY;
+		}
+		String[] names = new String[map.size()];
+		CompactSchemaNode[] nodes = new CompactSchemaNode[map.size()];
+		int idx = 0;
+		boolean sorted = true;
+		for (Map.Entry<String, JsonSchemaProperties> entry : map.entrySet()) {
+			names[idx] = entry.getKey();
+			nodes[idx] = CompactSchemaNode.of(entry.getValue());
+			if (idx > 0 && sorted && names[idx - 1].compareTo(names[idx]) >= 0) {
+				sorted = false;
+			}
+			idx++;
+		}
+		return new CompactSchemaMap(names, nodes, sorted);
+	}
+
+	/**
+	 * Creates a map of the given, already compact children.
+	 * @param names the child names
+	 * @param nodes the child nodes, in the order of their names
+	 * @return the compact map
+	 */
+	static CompactSchemaMap of(List<String> names, List<CompactSchemaNode> nodes) {
+		if (names.isEmpty()) {
+			return EMPTY;
+		}
+		boolean sorted = true;
+		for (int i = 1; i < names.size() && sorted; i++) {
+			sorted = names.get(i - 1).compareTo(names.get(i)) < 0;
+		}
+		return new CompactSchemaMap(names.toArray(new String[0]), nodes.toArray(new CompactSchemaNode[0]), sorted);
+	}
+
+	/**
+	 * Returns the number of children.
+	 * @return the number of children
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * Returns whether the map has no children.
+	 * @return true if the map is empty
+	 */
+	public boolean isEmpty() {
+		return names.length == 0;
+	}
+
+	/**
+	 * Returns the name of the child at the given position.
+	 * @param index the position of the child
+	 * @return the child name
+	 */
+	public String name(int index) {
+		return names[index];
+	}
+
+	/**
+	 * Returns the child node at the given position.
+	 * @param index the position of the child
+	 * @return the child node
+	 */
+	public CompactSchemaNode node(int index) {
+		return nodes[index];
+	}
+
+	/**
+	 * Looks up a child by name.
+	 * @param name the child name
+	 * @return the child node, or null if there is no child with that name
+	 */
+	public CompactSchemaNode get(String name) {
+		int idx = indexOf(name);
+		return (idx >= 0) ? nodes[idx] : null;
+	}
+
+	/**
+	 * Returns whether a child with the given name exists.
+	 * @param name the child name
+	 * @return true if the child exists
+	 */
+	public boolean containsKey(String name) {
+		return indexOf(name) >= 0;
+	}
+
+	private int indexOf(String name) {
+		if (sorted) {
+			int idx = Arrays.binarySearch(names, name);
+			return (idx >= 0) ? idx : -1;
+		}
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Performs the given action for each child in iteration order.
+	 * @param action the action to perform
+	 */
+	public void forEach(BiConsumer<String, CompactSchemaNode> action) {
+		for (int i = 0; i < names.length; i++) {
+			action.accept(names[i], nodes[i]);
+		}
+	}
+
+	/**
+	 * Materializes the children as mutable {@link JsonSchemaProperties}. Sorted maps are
+	 * returned as a {@link TreeMap}, all others as a {@link LinkedHashMap} preserving the
+	 * iteration order.
+	 * @return a new mutable map of materialized children
+	 */
+	public Map<String, JsonSchemaProperties> toMap() {
+		Map<String, JsonSchemaProperties> map = sorted ? new TreeMap<>() : new LinkedHashMap<>();
+		for (int i = 0; i < names.length; i++) {
+			map.put(names[i], nodes[i].toProperties());
+		}
+		return map;
+	}
+
+}
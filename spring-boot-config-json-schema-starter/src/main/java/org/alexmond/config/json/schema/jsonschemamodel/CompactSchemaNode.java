@@ -0,0 +1,271 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import tools.jackson.databind.annotation.JsonSerialize;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact, deeply immutable representation of a {@link JsonSchemaProperties} node used
+ * for the cached schema. Instead of one reference per possible keyword, a node keeps a
+ * presence bitmask over {@link JsonSchemaField} and a packed array holding only the
+ * values that are set, in field order. Named children are stored as
+ * {@link CompactSchemaMap} and nested schemas as compact nodes. Plain values are frozen
+ * on creation: collections are copied into unmodifiable collections and mutable beans are
+ * copied on the way in and out, so a node can be shared between threads without
+ * synchronization.
+ *
+ * <p>
+ * Serialization writes the present fields in {@link JsonSchemaField} order, producing the
+ * same output as the corresponding {@link JsonSchemaProperties}.
+ */
+@JsonSerialize(using = CompactSchemaNodeSerializer.class)
+public final class CompactSchemaNode {
+
+	private final long mask;
+
+	private final Object[] values;
+
+	private CompactSchemaNode(long mask, Object... values) {
+		this.mask = mask;
+		this.values = values.clone();
+	}
+
+	/**
+	 * Creates a compact copy of the given schema node, converting nested schemas
+	 * recursively.
+	 * @param properties the node to copy, may be null
+	 * @return the compact node, or null if the given node is null
+	 */
+	public static CompactSchemaNode of(JsonSchemaProperties properties) {
+		if (properties == null) {
+			return null;
+		}
+		long mask = JsonSchemaField.presenceMask(properties);
+		Object[] values = new Object[Long.bitCount(mask)];
+		int idx = 0;
+		for (long bits = mask; bits != 0; bits &= bits - 1) {
+			JsonSchemaField field = JsonSchemaField.of(Long.numberOfTrailingZeros(bits));
+			values[idx] = compactValue(field, field.get(properties));
+			idx++;
+		}
+		return new CompactSchemaNode(mask, values);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object compactValue(JsonSchemaField field, Object value) {
+		return switch (field.getKind()) {
+			case SCHEMA -> of((JsonSchemaProperties) value);
+			case SCHEMA_MAP -> CompactSchemaMap.of((Map<String, JsonSchemaProperties>) value);
+			case SCHEMA_LIST -> ((List<JsonSchemaProperties>) value).stream().map(CompactSchemaNode::of).toList();
+			case SCHEMA_OR_VALUE -> (value instanceof JsonSchemaProperties schema) ? of(schema) : freeze(value);
+			case LIST, SET, MAP, VALUE -> freeze(value);
+		};
+	}
+
+	/**
+	 * Returns a deeply unmodifiable copy of a plain value. Collections are copied
+	 * preserving their iteration order and {@link XDeprecation} is copied so that later
+	 * changes to the source tree are not visible through the node.
+	 * @param value the value to freeze
+	 * @return the frozen value
+	 */
+	private static Object freeze(Object value) {
+		if (value instanceof List<?> list) {
+			List<Object> copy = new ArrayList<>(list.size());
+			list.forEach((item) -> copy.add(freeze(item)));
+			return Collections.unmodifiableList(copy);
+		}
+		if (value instanceof Set<?> set) {
+			Set<Object> copy = new LinkedHashSet<>();
+			set.forEach((item) -> copy.add(freeze(item)));
+			return Collections.unmodifiableSet(copy);
+		}
+		if (value instanceof Map<?, ?> map) {
+			Map<Object, Object> copy = new LinkedHashMap<>();
+			map.forEach((key, item) -> copy.put(key, freeze(item)));
+			return Collections.unmodifiableMap(copy);
+		}
+		if (value instanceof XDeprecation deprecation) {
+			return copyOf(deprecation);
+		}
+		return value;
+	}
+
+	/**
+	 * Returns a deeply mutable copy of a frozen plain value.
+	 * @param value the frozen value
+	 * @return a mutable copy of the value
+	 */
+	private static Object thaw(Object value) {
+		if (value instanceof List<?> list) {
+			List<Object> copy = new ArrayList<>(list.size());
+			list.forEach((item) -> copy.add(thaw(item)));
+			return copy;
+		}
+		if (value instanceof Set<?> set) {
+			Set<Object> copy = new LinkedHashSet<>();
+			set.forEach((item) -> copy.add(thaw(item)));
+			return copy;
+		}
+		if (value instanceof Map<?, ?> map) {
+			Map<Object, Object> copy = new LinkedHashMap<>();
+			map.forEach((key, item) -> copy.put(key, thaw(item)));
+			return copy;
+		}
+		return value;
+	}
+
+	/**
+	 * {@link XDeprecation} is the only mutable bean that can end up in a node, so it is
+	 * handed out as a copy.
+	 */
+	private static Object expose(Object value) {
+		return (value instanceof XDeprecation deprecation) ? copyOf(deprecation) : value;
+	}
+
+	private static XDeprecation copyOf(XDeprecation deprecation) {
+		return new XDeprecation(deprecation.getReason(), deprecation.getReplacement(), deprecation.getSince(),
+				deprecation.getLevel());
+	}
+
+	/**
+	 * Returns the field-presence mask of this node.
+	 * @return a mask with one {@link JsonSchemaField#bit()} per present field
+	 */
+	public long mask() {
+		return mask;
+	}
+
+	/**
+	 * Returns whether the given field is set.
+	 * @param field the field to check
+	 * @return true if the field is present
+	 */
+	public boolean has(JsonSchemaField field) {
+		return (mask & field.bit()) != 0;
+	}
+
+	/**
+	 * Returns the compact value of the given field. Nested schemas are returned as
+	 * {@link CompactSchemaNode}, lists of schemas as lists of compact nodes and maps of
+	 * schemas as {@link CompactSchemaMap}.
+	 * @param field the field to read
+	 * @return the field value, or null if the field is not set
+	 */
+	public Object get(JsonSchemaField field) {
+		if (!has(field)) {
+			return null;
+		}
+		return expose(values[Long.bitCount(mask & (field.bit() - 1))]);
+	}
+
+	/**
+	 * Performs the given action for each present field in serialization order.
+	 * @param action the action to perform
+	 */
+	public void forEachField(BiConsumer<JsonSchemaField, Object> action) {
+		int idx = 0;
+		for (long bits = mask; bits != 0; bits &= bits - 1) {
+			action.accept(JsonSchemaField.of(Long.numberOfTrailingZeros(bits)), expose(values[idx]));
+			idx++;
+		}
+	}
+
+	/**
+	 * Returns a node with the given field replaced, sharing all other values with this
+	 * node.
+	 * @param field the field to replace
+	 * @param value the new value in compact form, or null to remove the field
+	 * @return the new node
+	 */
+	CompactSchemaNode with(JsonSchemaField field, Object value) {
+		long newMask = (value != null) ? (mask | field.bit()) : (mask & ~field.bit());
+		Object[] newValues = new Object[Long.bitCount(newMask)];
+		int src = 0;
+		int dst = 0;
+		for (long bits = mask | field.bit(); bits != 0; bits &= bits - 1) {
+			long bit = Long.lowestOneBit(bits);
+			if (bit == field.bit()) {
+				if (value != null) {
+					newValues[dst] = value;
+					dst++;
+				}
+			}
+			else {
+				newValues[dst] = values[src];
+				dst++;
+			}
+			if ((mask & bit) != 0) {
+				src++;
+			}
+		}
+		return new CompactSchemaNode(newMask, newValues);
+	}
+
+	public JsonSchemaType getType() {
+		return (JsonSchemaType) get(JsonSchemaField.TYPE);
+	}
+
+	public String getDescription() {
+		return (String) get(JsonSchemaField.DESCRIPTION);
+	}
+
+	public String getReference() {
+		return (String) get(JsonSchemaField.REFERENCE);
+	}
+
+	public String getAnchor() {
+		return (String) get(JsonSchemaField.ANCHOR);
+	}
+
+	public boolean isDeprecated() {
+		return Boolean.TRUE.equals(get(JsonSchemaField.DEPRECATED));
+	}
+
+	public CompactSchemaMap getProperties() {
+		return (CompactSchemaMap) get(JsonSchemaField.PROPERTIES);
+	}
+
+	public CompactSchemaNode getItems() {
+		return (CompactSchemaNode) get(JsonSchemaField.ITEMS);
+	}
+
+	/**
+	 * Returns the {@code additionalProperties} value, either a {@link CompactSchemaNode}
+	 * or a scalar such as a boolean.
+	 * @return the additional properties value, or null if not set
+	 */
+	public Object getAdditionalProperties() {
+		return get(JsonSchemaField.ADDITIONAL_PROPERTIES);
+	}
+
+	/**
+	 * Materializes this node as a new mutable {@link JsonSchemaProperties} tree.
+	 * @return a deep, mutable copy of this node
+	 */
+	public JsonSchemaProperties toProperties() {
+		JsonSchemaProperties properties = new JsonSchemaProperties();
+		forEachField((field, value) -> field.set(properties, materializeValue(field, value)));
+		return properties;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object materializeValue(JsonSchemaField field, Object value) {
+		return switch (field.getKind()) {
+			case SCHEMA -> ((CompactSchemaNode) value).toProperties();
+			case SCHEMA_MAP -> ((CompactSchemaMap) value).toMap();
+			case SCHEMA_LIST -> new ArrayList<>(
+					((List<CompactSchemaNode>) value).stream().map(CompactSchemaNode::toProperties).toList());
+			case SCHEMA_OR_VALUE -> (value instanceof CompactSchemaNode node) ? node.toProperties() : thaw(value);
+			case LIST, SET, MAP, VALUE -> thaw(value);
+		};
+	}
+
+}
@@ -0,0 +1,74 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+import java.util.List;
+
+/**
+ * Serializes {@link CompactSchemaNode} by writing only the present fields, in
+ * {@link JsonSchemaField} order. Nested compact nodes and maps are written directly
+ * without going through serializer lookup.
+ */
+public class CompactSchemaNodeSerializer extends StdSerializer<CompactSchemaNode> {
+
+	public CompactSchemaNodeSerializer() {
+		super(CompactSchemaNode.class);
+	}
+
+	@Override
+	public void serialize(CompactSchemaNode node, JsonGenerator gen, SerializationContext ctxt) {
+		gen.writeStartObject(node);
+		node.forEachField((field, value) -> {
+			gen.writeName(field.getJsonName());
+			writeValue(value, gen, ctxt);
+		});
+		gen.writeEndObject();
+	}
+
+	/**
+	 * Writes a compact field value, handling compact nodes, compact maps and lists of
+	 * compact nodes directly and delegating everything else to the context.
+	 * @param value the value to write
+	 * @param gen the generator to write to
+	 * @param ctxt the serialization context
+	 */
+	void writeValue(Object value, JsonGenerator gen, SerializationContext ctxt) {
+		if (value == null) {
+			gen.writeNull();
+		}
+		else if (value instanceof CompactSchemaNode node) {
+			serialize(node, gen, ctxt);
+		}
+		else if (value instanceof CompactSchemaMap map) {
+			writeMap(map, gen, ctxt);
+		}
+		else if (value instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof CompactSchemaNode) {
+			gen.writeStartArray(list, list.size());
+			for (Object item : list) {
+				serialize((CompactSchemaNode) item, gen, ctxt);
+			}
+			gen.writeEndArray();
+		}
+		else {
+			ctxt.writeValue(gen, value);
+		}
+	}
+
+	/**
+	 * Writes a compact map as a JSON object of named schemas.
+	 * @param map the map to write
+	 * @param gen the generator to write to
+	 * @param ctxt the serialization context
+	 */
+	void writeMap(CompactSchemaMap map, JsonGenerator gen, SerializationContext ctxt) {
+		gen.writeStartObject(map, map.size());
+		for (int i = 0; i < map.size(); i++) {
+			gen.writeName(map.name(i));
+			serialize(map.node(i), gen, ctxt);
+		}
+		gen.writeEndObject();
+	}
+
+}
@@ -0,0 +1,106 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Compact, immutable counterpart of {@link JsonSchemaRoot}. Definitions and properties
+ * are held as {@link CompactSchemaMap} trees of {@link CompactSchemaNode}, which keeps
+ * the cached schema close to the size of its serialized form.
+ */
+@Getter
+@AllArgsConstructor
+@JsonSerialize(using = CompactSchemaRootSerializer.class)
+public final class CompactSchemaRoot {
+
+	private final String schema;
+
+	private final String id;
+
+	private final String title;
+
+	private final String description;
+
+	private final JsonSchemaType type;
+
+	private final CompactSchemaMap definitions;
+
+	private final CompactSchemaMap properties;
+
+	/**
+	 * Either a {@link CompactSchemaNode} or a scalar such as a boolean.
+	 */
+	private final Object additionalProperties;
+
+	/**
+	 * Creates a compact copy of the given schema root.
+	 * @param root the schema root to copy
+	 * @return the compact schema root
+	 */
+	public static CompactSchemaRoot of(JsonSchemaRoot root) {
+		Object additionalProperties = root.getAdditionalProperties();
+		if (additionalProperties instanceof JsonSchemaProperties schema) {
+			additionalProperties = CompactSchemaNode.of(schema);
+		}
+		return new CompactSchemaRoot(root.getSchema(), root.getId(), root.getTitle(), root.getDescription(),
+				root.getType(), CompactSchemaMap.of(root.getDefinitions()), CompactSchemaMap.of(root.getProperties()),
+				additionalProperties);
+	}
+
+	/**
+	 * Returns a filtered view of this schema. The view is pruned from this frozen tree
+	 * without rebuilding anything: untouched subtrees are shared, and definitions that
+	 * are no longer referenced are dropped.
+	 * @param spec the view to create
+	 * @return the filtered schema, or this schema if the spec selects everything
+	 */
+	public CompactSchemaRoot view(ViewSpec spec) {
+		return spec.isAll() ? this : new SchemaViewPruner(spec).prune(this);
+	}
+
+	/**
+	 * Returns this schema with its repeated types referenced in the given style. This
+	 * schema must be in {@link ReferenceStyle#DEFINITIONS} style, the style of the
+	 * generator's default settings.
+	 * @param style the reference style of the returned schema
+	 * @return the rewritten schema, or this schema for definitions style
+	 */
+	public CompactSchemaRoot withReferenceStyle(ReferenceStyle style) {
+		if (style == ReferenceStyle.DEFINITIONS || definitions == null) {
+			return this;
+		}
+		JsonSchemaRoot root = toSchemaRoot();
+		new ReferenceRewriter(style, definitions).rewrite(root);
+		return of(root);
+	}
+
+	/**
+	 * Returns this schema with the given root {@code additionalProperties} value.
+	 * @param value the new value, such as a boolean
+	 * @return a schema sharing everything else with this one
+	 */
+	public CompactSchemaRoot withAdditionalProperties(Object value) {
+		return new CompactSchemaRoot(schema, id, title, description, type, definitions, properties, value);
+	}
+
+	/**
+	 * Materializes this root as a new mutable {@link JsonSchemaRoot} tree.
+	 * @return a deep, mutable copy of this schema root
+	 */
+	public JsonSchemaRoot toSchemaRoot() {
+		Object additional = (additionalProperties instanceof CompactSchemaNode node) ? node.toProperties()
+				: additionalProperties;
+		return JsonSchemaRoot.builder()
+			.schema(schema)
+			.id(id)
+			.title(title)
+			.description(description)
+			.type(type)
+			.definitions((definitions != null) ? definitions.toMap() : null)
+			.properties((properties != null) ? properties.toMap() : null)
+			.additionalProperties(additional)
+			.build();
+	}
+
+}
@@ -0,0 +1,50 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Serializes {@link CompactSchemaRoot} with the same field order and null handling as
+ * {@link JsonSchemaRoot}.
+ */
+public class CompactSchemaRootSerializer extends StdSerializer<CompactSchemaRoot> {
+
+	private final CompactSchemaNodeSerializer nodeSerializer = new CompactSchemaNodeSerializer();
+
+	public CompactSchemaRootSerializer() {
+		super(CompactSchemaRoot.class);
+	}
+
+	@Override
+	public void serialize(CompactSchemaRoot root, JsonGenerator gen, SerializationContext ctxt) {
+		gen.writeStartObject(root);
+		gen.writeName("$schema");
+		nodeSerializer.writeValue(root.getSchema(), gen, ctxt);
+		gen.writeName("$id");
+		nodeSerializer.writeValue(root.getId(), gen, ctxt);
+		gen.writeName("title");
+		nodeSerializer.writeValue(root.getTitle(), gen, ctxt);
+		gen.writeName("description");
+		nodeSerializer.writeValue(root.getDescription(), gen, ctxt);
+		gen.writeName("type");
+		nodeSerializer.writeValue(root.getType(), gen, ctxt);
+		gen.writeName("$defs");
+		writeMap(root.getDefinitions(), gen, ctxt);
+		gen.writeName("properties");
+		writeMap(root.getProperties(), gen, ctxt);
+		gen.writeName("additionalProperties");
+		nodeSerializer.writeValue(root.getAdditionalProperties(), gen, ctxt);
+		gen.writeEndObject();
+	}
+
+	private void writeMap(CompactSchemaMap map, JsonGenerator gen, SerializationContext ctxt) {
+		if (map == null) {
+			gen.writeNull();
+		}
+		else {
+			nodeSerializer.writeMap(map, gen, ctxt);
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Removes the documentation fields from a compact schema tree, leaving what validators
+ * need: types, enums, constraints and references. Nodes without documentation anywhere
+ * below them are shared with the source tree, and nodes shared within the source tree are
+ * stripped once.
+ */
+final class DocumentationStripper {
+
+	private static final JsonSchemaField[] DOCUMENTATION = { JsonSchemaField.DESCRIPTION,
+			JsonSchemaField.HTML_DESCRIPTION, JsonSchemaField.EXAMPLES, JsonSchemaField.COMMENT,
+			JsonSchemaField.X_DEPRECATION };
+
+	private final Map<CompactSchemaNode, CompactSchemaNode> cache = new IdentityHashMap<>();
+
+	CompactSchemaRoot strip(CompactSchemaRoot root) {
+		Object additional = root.getAdditionalProperties();
+		if (additional instanceof CompactSchemaNode node) {
+			additional = strip(node);
+		}
+		return new CompactSchemaRoot(root.getSchema(), root.getId(), root.getTitle(), null, root.getType(),
+				strip(root.getDefinitions()), strip(root.getProperties()), additional);
+	}
+
+	private CompactSchemaMap strip(CompactSchemaMap map) {
+		if (map == null) {
+			return null;
+		}
+		List<String> names = new ArrayList<>(map.size());
+		List<CompactSchemaNode> nodes = new ArrayList<>(map.size());
+		boolean changed = false;
+		for (int i = 0; i < map.size(); i++) {
+			CompactSchemaNode node = map.node(i);
+			CompactSchemaNode lean = strip(node);
+			names.add(map.name(i));
+			nodes.add(lean);
+			// Nodes are compared by identity: unchanged subtrees are shared as is
+			changed |= !node.equals(lean);
+		}
+		return changed ? CompactSchemaMap.of(names, nodes) : map;
+	}
+
+	private CompactSchemaNode strip(CompactSchemaNode node) {
+		CompactSchemaNode lean = cache.get(node);
+		if (lean == null) {
+			lean = stripNode(node);
+			cache.put(node, lean);
+		}
+		return lean;
+	}
+
+	private CompactSchemaNode stripNode(CompactSchemaNode node) {
+		CompactSchemaNode lean = node;
+		for (JsonSchemaField field : DOCUMENTATION) {
+			if (lean.has(field)) {
+				lean = lean.with(field, null);
+			}
+		}
+		List<JsonSchemaField> fields = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		lean.forEachField((field, value) -> {
+			Object stripped = stripValue(field, value);
+			if (!value.equals(stripped)) {
+				fields.add(field);
+				values.add(stripped);
+			}
+		});
+		for (int i = 0; i < fields.size(); i++) {
+			lean = lean.with(fields.get(i), values.get(i));
+		}
+		return lean;
+	}
+
+	private Object stripValue(JsonSchemaField field, Object value) {
+		return switch (field.getKind()) {
+			case SCHEMA, SCHEMA_OR_VALUE -> (value instanceof CompactSchemaNode child) ? strip(child) : value;
+			case SCHEMA_MAP -> strip((CompactSchemaMap) value);
+			case SCHEMA_LIST -> stripList((List<?>) value);
+			default -> value;
+		};
+	}
+
+	private Object stripList(List<?> list) {
+		List<Object> lean = new ArrayList<>(list.size());
+		boolean changed = false;
+		for (Object item : list) {
+			Object stripped = (item instanceof CompactSchemaNode child) ? strip(child) : item;
+			lean.add(stripped);
+			changed |= !item.equals(stripped);
+		}
+		return changed ? Collections.unmodifiableList(lean) : list;
+	}
+
+}
@@ -0,0 +1,207 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Enumerates the fields of {@link JsonSchemaProperties} in the order in which they are
+ * serialized, together with their JSON names and accessors. The ordinal of each constant
+ * is used as its bit position in field-presence masks, so the declaration order must
+ * match the serialized order of {@link JsonSchemaProperties}.
+ */
+@Getter
+@SuppressWarnings({ "unchecked", "PMD.ExcessivePublicCount" })
+public enum JsonSchemaField {
+
+	TYPE("type", Kind.VALUE, JsonSchemaProperties::getType, (p, v) -> p.setType((JsonSchemaType) v)),
+	FORMAT("format", Kind.VALUE, JsonSchemaProperties::getFormat, (p, v) -> p.setFormat((JsonSchemaFormat) v)),
+	REFERENCE("$ref", Kind.VALUE, JsonSchemaProperties::getReference, (p, v) -> p.setReference((String) v)),
+	ANCHOR("$anchor", Kind.VALUE, JsonSchemaProperties::getAnchor, (p, v) -> p.setAnchor((String) v)),
+	TITLE("title", Kind.VALUE, JsonSchemaProperties::getTitle, (p, v) -> p.setTitle((String) v)),
+	DESCRIPTION("description", Kind.VALUE, JsonSchemaProperties::getDescription,
+			(p, v) -> p.setDescription((String) v)),
+	COMMENT("$comment", Kind.VALUE, JsonSchemaProperties::getComment, (p, v) -> p.setComment((String) v)),
+	DEPRECATED("deprecated", Kind.VALUE, JsonSchemaProperties::getDeprecated, (p, v) -> p.setDeprecated((Boolean) v)),
+	DEFAULT("default", Kind.VALUE, JsonSchemaProperties::getDefaultValue, JsonSchemaProperties::setDefaultValue),
+	EXAMPLES("examples", Kind.LIST, JsonSchemaProperties::getExamples, (p, v) -> p.setExamples((List<String>) v)),
+	ENUM("enum", Kind.SET, JsonSchemaProperties::getEnumValues, (p, v) -> p.setEnumValues((Set<String>) v)),
+	PATTERN("pattern", Kind.VALUE, JsonSchemaProperties::getPattern, (p, v) -> p.setPattern((String) v)),
+	MINIMUM("minimum", Kind.VALUE, JsonSchemaProperties::getMinimum, (p, v) -> p.setMinimum((Number) v)),
+	MAXIMUM("maximum", Kind.VALUE, JsonSchemaProperties::getMaximum, (p, v) -> p.setMaximum((Number) v)),
+	EXCLUSIVE_MINIMUM("exclusiveMinimum", Kind.VALUE, JsonSchemaProperties::getExclusiveMinimum,
+			(p, v) -> p.setExclusiveMinimum((Number) v)),
+	EXCLUSIVE_MAXIMUM("exclusiveMaximum", Kind.VALUE, JsonSchemaProperties::getExclusiveMaximum,
+			(p, v) -> p.setExclusiveMaximum((Number) v)),
+	MULTIPLE_OF("multipleOf", Kind.VALUE, JsonSchemaProperties::getMultipleOf, (p, v) -> p.setMultipleOf((Number) v)),
+	MIN_LENGTH("minLength", Kind.VALUE, JsonSchemaProperties::getMinLength, (p, v) -> p.setMinLength((Integer) v)),
+	MAX_LENGTH("maxLength", Kind.VALUE, JsonSchemaProperties::getMaxLength, (p, v) -> p.setMaxLength((Integer) v)),
+	MIN_ITEMS("minItems", Kind.VALUE, JsonSchemaProperties::getMinItems, (p, v) -> p.setMinItems((Integer) v)),
+	MAX_ITEMS("maxItems", Kind.VALUE, JsonSchemaProperties::getMaxItems, (p, v) -> p.setMaxItems((Integer) v)),
+	UNIQUE_ITEMS("uniqueItems", Kind.VALUE, JsonSchemaProperties::getUniqueItems,
+			(p, v) -> p.setUniqueItems((Boolean) v)),
+	PREFIX_ITEMS("prefixItems", Kind.SCHEMA_LIST, JsonSchemaProperties::getPrefixItems,
+			(p, v) -> p.setPrefixItems((List<JsonSchemaProperties>) v)),
+	CONTAINS("contains", Kind.SCHEMA, JsonSchemaProperties::getContains,
+			(p, v) -> p.setContains((JsonSchemaProperties) v)),
+	MIN_CONTAINS("minContains", Kind.VALUE, JsonSchemaProperties::getMinContains,
+			(p, v) -> p.setMinContains((Integer) v)),
+	MAX_CONTAINS("maxContains", Kind.VALUE, JsonSchemaProperties::getMaxContains,
+			(p, v) -> p.setMaxContains((Integer) v)),
+	PROPERTIES("properties", Kind.SCHEMA_MAP, JsonSchemaProperties::getProperties,
+			(p, v) -> p.setProperties((Map<String, JsonSchemaProperties>) v)),
+	PATTERN_PROPERTIES("patternProperties", Kind.SCHEMA_MAP, JsonSchemaProperties::getPatternProperties,
+			(p, v) -> p.setPatternProperties((Map<String, JsonSchemaProperties>) v)),
+	PROPERTY_NAMES("propertyNames", Kind.SCHEMA, JsonSchemaProperties::getPropertyNames,
+			(p, v) -> p.setPropertyNames((JsonSchemaProperties) v)),
+	REQUIRED("required", Kind.SET, JsonSchemaProperties::getRequiredProperties,
+			(p, v) -> p.setRequiredProperties((Set<String>) v)),
+	MIN_PROPERTIES("minProperties", Kind.VALUE, JsonSchemaProperties::getMinProperties,
+			(p, v) -> p.setMinProperties((Integer) v)),
+	MAX_PROPERTIES("maxProperties", Kind.VALUE, JsonSchemaProperties::getMaxProperties,
+			(p, v) -> p.setMaxProperties((Integer) v)),
+	DEPENDENT_REQUIRED("dependentRequired", Kind.MAP, JsonSchemaProperties::getDependentRequired,
+			(p, v) -> p.setDependentRequired((Map<String, Set<String>>) v)),
+	DEPENDENT_SCHEMAS("dependentSchemas", Kind.SCHEMA_MAP, JsonSchemaProperties::getDependentSchemas,
+			(p, v) -> p.setDependentSchemas((Map<String, JsonSchemaProperties>) v)),
+	ADDITIONAL_PROPERTIES("additionalProperties", Kind.SCHEMA_OR_VALUE, JsonSchemaProperties::getAdditionalProperties,
+			JsonSchemaProperties::setAdditionalProperties),
+	IF("if", Kind.SCHEMA, JsonSchemaProperties::getIfSchema, (p, v) -> p.setIfSchema((JsonSchemaProperties) v)),
+	THEN("then", Kind.SCHEMA, JsonSchemaProperties::getThenSchema, (p, v) -> p.setThenSchema((JsonSchemaProperties) v)),
+	ELSE("else", Kind.SCHEMA, JsonSchemaProperties::getElseSchema, (p, v) -> p.setElseSchema((JsonSchemaProperties) v)),
+	ALL_OF("allOf", Kind.SCHEMA_LIST, JsonSchemaProperties::getAllOf,
+			(p, v) -> p.setAllOf((List<JsonSchemaProperties>) v)),
+	ANY_OF("anyOf", Kind.SCHEMA_LIST, JsonSchemaProperties::getAnyOf,
+			(p, v) -> p.setAnyOf((List<JsonSchemaProperties>) v)),
+	ONE_OF("oneOf", Kind.SCHEMA_LIST, JsonSchemaProperties::getOneOf,
+			(p, v) -> p.setOneOf((List<JsonSchemaProperties>) v)),
+	NOT("not", Kind.SCHEMA, JsonSchemaProperties::getNot, (p, v) -> p.setNot((JsonSchemaProperties) v)),
+	CONTENT_ENCODING("contentEncoding", Kind.VALUE, JsonSchemaProperties::getContentEncoding,
+			(p, v) -> p.setContentEncoding((String) v)),
+	CONTENT_MEDIA_TYPE("contentMediaType", Kind.VALUE, JsonSchemaProperties::getContentMediaType,
+			(p, v) -> p.setContentMediaType((String) v)),
+	CONTENT_SCHEMA("contentSchema", Kind.SCHEMA, JsonSchemaProperties::getContentSchema,
+			(p, v) -> p.setContentSchema((JsonSchemaProperties) v)),
+	CONST_VALUE("constValue", Kind.VALUE, JsonSchemaProperties::getConstValue, JsonSchemaProperties::setConstValue),
+	READ_ONLY("readOnly", Kind.VALUE, JsonSchemaProperties::getReadOnly, (p, v) -> p.setReadOnly((Boolean) v)),
+	WRITE_ONLY("writeOnly", Kind.VALUE, JsonSchemaProperties::getWriteOnly, (p, v) -> p.setWriteOnly((Boolean) v)),
+	ITEMS("items", Kind.SCHEMA, JsonSchemaProperties::getItems, (p, v) -> p.setItems((JsonSchemaProperties) v)),
+	X_DEPRECATION("x-deprecation", Kind.VALUE, JsonSchemaProperties::getxDeprecation,
+			(p, v) -> p.setXDeprecation((XDeprecation) v)),
+	HTML_DESCRIPTION("x-intellij-html-description", Kind.VALUE, JsonSchemaProperties::getHtmlDescription,
+			(p, v) -> p.setHtmlDescription((String) v));
+
+	private static final JsonSchemaField[] FIELDS = values();
+
+	/**
+	 * The name of the field in the serialized schema.
+	 */
+	private final String jsonName;
+
+	/**
+	 * The shape of the value held by the field.
+	 */
+	private final Kind kind;
+
+	private final Function<JsonSchemaProperties, Object> getter;
+
+	private final BiConsumer<JsonSchemaProperties, Object> setter;
+
+	JsonSchemaField(String jsonName, Kind kind, Function<JsonSchemaProperties, ?> getter,
+			BiConsumer<JsonSchemaProperties, Object> setter) {
+		this.jsonName = jsonName;
+		this.kind = kind;
+		this.getter = (Function<JsonSchemaProperties, Object>) getter;
+		this.setter = setter;
+	}
+
+	/**
+	 * Returns the bit representing this field in a field-presence mask.
+	 * @return the mask bit of this field
+	 */
+	public long bit() {
+		return 1L << ordinal();
+	}
+
+	/**
+	 * Reads the value of this field.
+	 * @param properties the schema node to read from
+	 * @return the field value, or null if the field is not set
+	 */
+	public Object get(JsonSchemaProperties properties) {
+		return getter.apply(properties);
+	}
+
+	/**
+	 * Writes the value of this field.
+	 * @param properties the schema node to update
+	 * @param value the new field value, may be null
+	 */
+	public void set(JsonSchemaProperties properties, Object value) {
+		setter.accept(properties, value);
+	}
+
+	/**
+	 * Returns the mask of fields that are set on the given schema node. The node keeps
+	 * its mask up to date as fields are set, so this does not inspect the fields.
+	 * @param properties the schema node to inspect
+	 * @return a mask with one bit per non-null field
+	 */
+	public static long presenceMask(JsonSchemaProperties properties) {
+		return properties.presenceMask();
+	}
+
+	/**
+	 * Returns the field for the given ordinal without copying the values array.
+	 * @param ordinal the ordinal of the field
+	 * @return the field with the given ordinal
+	 */
+	public static JsonSchemaField of(int ordinal) {
+		return FIELDS[ordinal];
+	}
+
+	/**
+	 * Shape of a field value, used when copying, merging and serializing nodes.
+	 */
+	public enum Kind {
+
+		/**
+		 * A scalar or otherwise opaque value.
+		 */
+		VALUE,
+		/**
+		 * A list of scalar values.
+		 */
+		LIST,
+		/**
+		 * A set of scalar values.
+		 */
+		SET,
+		/**
+		 * A map of scalar values.
+		 */
+		MAP,
+		/**
+		 * A nested schema.
+		 */
+		SCHEMA,
+		/**
+		 * A list of nested schemas.
+		 */
+		SCHEMA_LIST,
+		/**
+		 * A map of named nested schemas.
+		 */
+		SCHEMA_MAP,
+		/**
+		 * Either a nested schema or a scalar value such as a boolean.
+		 */
+		SCHEMA_OR_VALUE
+
+	}
+
+}
@@ -0,0 +1,169 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Field-table driven merge and copy of {@link JsonSchemaProperties}. Only the fields set
+ * on the source node are visited, found through its {@link JsonSchemaField} presence
+ * mask.
+ *
+ * <p>
+ * Merging is copy-on-write: collections and nested schemas of the target are never
+ * modified in place but replaced by merged copies, and everything taken over from the
+ * source is deep-copied. A merge therefore never changes a node that shares structure
+ * with the target, and the target never shares mutable structure with the source
+ * afterwards.
+ */
+final class JsonSchemaMerger {
+
+	private JsonSchemaMerger() {
+	}
+
+	/**
+	 * Merges the set fields of {@code source} into {@code target}. Scalars and
+	 * {@code items}, {@code additionalProperties} and {@code x-deprecation} are
+	 * overwritten, sets are unioned, lists keep the target entries that do not occur in
+	 * the source followed by the source entries, maps are merged by key, and other nested
+	 * schemas are merged recursively.
+	 * @param target the node to update
+	 * @param source the node to merge from
+	 */
+	static void merge(JsonSchemaProperties target, JsonSchemaProperties source) {
+		long mask = JsonSchemaField.presenceMask(source);
+		for (long bits = mask; bits != 0; bits &= bits - 1) {
+			JsonSchemaField field = JsonSchemaField.of(Long.numberOfTrailingZeros(bits));
+			Object sourceValue = field.get(source);
+			field.set(target, mergeValue(field, field.get(target), sourceValue));
+		}
+	}
+
+	/**
+	 * Creates a deep copy of the given node.
+	 * @param properties the node to copy, may be null
+	 * @return a copy sharing no mutable structure with the given node, or null
+	 */
+	static JsonSchemaProperties copy(JsonSchemaProperties properties) {
+		if (properties == null) {
+			return null;
+		}
+		JsonSchemaProperties copy = new JsonSchemaProperties();
+		long mask = JsonSchemaField.presenceMask(properties);
+		for (long bits = mask; bits != 0; bits &= bits - 1) {
+			JsonSchemaField field = JsonSchemaField.of(Long.numberOfTrailingZeros(bits));
+			field.set(copy, copyValue(field.get(properties)));
+		}
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object mergeValue(JsonSchemaField field, Object targetValue, Object sourceValue) {
+		return switch (field.getKind()) {
+			case VALUE, SCHEMA_OR_VALUE -> copyValue(sourceValue);
+			case LIST, SCHEMA_LIST -> mergeLists((List<Object>) targetValue, (List<Object>) sourceValue);
+			case SET -> mergeSets((Set<Object>) targetValue, (Set<Object>) sourceValue);
+			case MAP, SCHEMA_MAP -> mergeMaps((Map<Object, Object>) targetValue, (Map<Object, Object>) sourceValue);
+			case SCHEMA -> (field == JsonSchemaField.ITEMS) ? copy((JsonSchemaProperties) sourceValue)
+					: mergeSchemas((JsonSchemaProperties) targetValue, (JsonSchemaProperties) sourceValue);
+		};
+	}
+
+	private static JsonSchemaProperties mergeSchemas(JsonSchemaProperties target, JsonSchemaProperties source) {
+		if (target == null) {
+			return copy(source);
+		}
+		// The target child may be shared, so merge into a shallow copy of it. This is
+		// enough because merging never modifies collections or children in place.
+		JsonSchemaProperties merged = target.toBuilder().build();
+		merge(merged, source);
+		return merged;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> mergeLists(List<Object> target, List<Object> source) {
+		if (target == null || target.isEmpty()) {
+			return (List<Object>) copyValue(source);
+		}
+		if (source.isEmpty()) {
+			return target;
+		}
+		Set<Object> replaced = new HashSet<>(source);
+		List<Object> result = new ArrayList<>(target.size() + source.size());
+		for (Object item : target) {
+			if (!replaced.contains(item)) {
+				result.add(item);
+			}
+		}
+		for (Object item : source) {
+			result.add(copyValue(item));
+		}
+		return result;
+	}
+
+	private static Set<Object> mergeSets(Set<Object> target, Set<Object> source) {
+		Set<Object> result = (target != null) ? new LinkedHashSet<>(target) : new LinkedHashSet<>();
+		for (Object item : source) {
+			result.add(copyValue(item));
+		}
+		return result;
+	}
+
+	private static Map<Object, Object> mergeMaps(Map<Object, Object> target, Map<Object, Object> source) {
+		Map<Object, Object> result = newMap(target);
+		if (target != null) {
+			result.putAll(target);
+		}
+		source.forEach((key, value) -> {
+			if (value instanceof JsonSchemaProperties schema
+					&& result.get(key) instanceof JsonSchemaProperties existing) {
+				result.put(key, mergeSchemas(existing, schema));
+			}
+			else {
+				result.put(key, copyValue(value));
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Keeps the ordering of the target map: sorted maps stay sorted, everything else
+	 * keeps insertion order.
+	 */
+	private static Map<Object, Object> newMap(Map<Object, Object> target) {
+		return (target instanceof SortedMap) ? new TreeMap<>() : new LinkedHashMap<>();
+	}
+
+	private static Object copyValue(Object value) {
+		if (value instanceof JsonSchemaProperties schema) {
+			return copy(schema);
+		}
+		if (value instanceof List<?> list) {
+			List<Object> copy = new ArrayList<>(list.size());
+			list.forEach((item) -> copy.add(copyValue(item)));
+			return copy;
+		}
+		if (value instanceof Set<?> set) {
+			Set<Object> copy = new LinkedHashSet<>();
+			set.forEach((item) -> copy.add(copyValue(item)));
+			return copy;
+		}
+		if (value instanceof Map<?, ?> map) {
+			Map<Object, Object> copy = (map instanceof SortedMap) ? new TreeMap<>() : new LinkedHashMap<>();
+			map.forEach((key, item) -> copy.put(key, copyValue(item)));
+			return copy;
+		}
+		if (value instanceof XDeprecation deprecation) {
+			return new XDeprecation(deprecation.getReason(), deprecation.getReplacement(), deprecation.getSince(),
+					deprecation.getLevel());
+		}
+		return value;
+	}
+
+}
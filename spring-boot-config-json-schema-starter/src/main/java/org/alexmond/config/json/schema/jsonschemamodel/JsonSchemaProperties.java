@@ -5,26 +5,27 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import jakarta.validation.Valid;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.annotation.JsonSerialize;
 import tools.jackson.databind.json.JsonMapper;
 
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 @Slf4j
 @Data
-@Builder(toBuilder = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @NoArgsConstructor
-@AllArgsConstructor
 @JsonPropertyOrder({
 		// Type and format
 		"type", "format", "$ref", "$anchor",
@@ -47,7 +48,8 @@ import java.util.Set;
 		"if", "then", "else", "allOf", "anyOf", "oneOf", "not",
 		// Content
 		"contentEncoding", "contentMediaType", "contentSchema" })
-
+@JsonSerialize(using = JsonSchemaPropertiesSerializer.class)
+@SuppressWarnings("PMD.ExcessivePublicCount")
 public class JsonSchemaProperties {
 
 	@JsonIgnore
@@ -184,201 +186,423 @@ public class JsonSchemaProperties {
 	@JsonProperty("x-intellij-html-description")
 	private String htmlDescription;
 
-	public XDeprecation getxDeprecation() {
-		return xDeprecation;
+	/**
+	 * Fields set on this node, one {@link JsonSchemaField#bit()} per non-null field, kept
+	 * up to date by the constructor and the setters.
+	 */
+	@JsonIgnore
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private transient long presence;
+
+	/**
+	 * Creates a node with all fields given, as used by the builder.
+	 */
+	@Builder(toBuilder = true)
+	public JsonSchemaProperties(JsonSchemaType type, String description, String pattern, JsonSchemaFormat format,
+			String reference, Set<String> enumValues, Number minimum, Number maximum, Number exclusiveMinimum,
+			Number exclusiveMaximum, Integer minLength, Integer maxLength, Object defaultValue, Boolean deprecated,
+			List<String> examples, Map<String, JsonSchemaProperties> properties, String title, String comment,
+			String anchor, Object constValue, Boolean readOnly, Boolean writeOnly, Number multipleOf, Integer minItems,
+			Integer maxItems, Boolean uniqueItems, List<JsonSchemaProperties> prefixItems, JsonSchemaProperties items,
+			JsonSchemaProperties contains, Integer minContains, Integer maxContains, Integer minProperties,
+			Integer maxProperties, Set<String> requiredProperties, Map<String, Set<String>> dependentRequired,
+			Map<String, JsonSchemaProperties> dependentSchemas, Map<String, JsonSchemaProperties> patternProperties,
+			JsonSchemaProperties propertyNames, Object additionalProperties, JsonSchemaProperties ifSchema,
+			JsonSchemaProperties thenSchema, JsonSchemaProperties elseSchema, List<JsonSchemaProperties> allOf,
+			List<JsonSchemaProperties> anyOf, List<JsonSchemaProperties> oneOf, JsonSchemaProperties not,
+			String contentEncoding, String contentMediaType, JsonSchemaProperties contentSchema,
+			XDeprecation xDeprecation, String htmlDescription) {
+		this.type = type;
+		this.description = description;
+		this.pattern = pattern;
+		this.format = format;
+		this.reference = reference;
+		this.enumValues = enumValues;
+		this.minimum = minimum;
+		this.maximum = maximum;
+		this.exclusiveMinimum = exclusiveMinimum;
+		this.exclusiveMaximum = exclusiveMaximum;
+		this.minLength = minLength;
+		this.maxLength = maxLength;
+		this.defaultValue = defaultValue;
+		this.deprecated = deprecated;
+		this.examples = examples;
+		this.properties = properties;
+		this.title = title;
+		this.comment = comment;
+		this.anchor = anchor;
+		this.constValue = constValue;
+		this.readOnly = readOnly;
+		this.writeOnly = writeOnly;
+		this.multipleOf = multipleOf;
+		this.minItems = minItems;
+		this.maxItems = maxItems;
+		this.uniqueItems = uniqueItems;
+		this.prefixItems = prefixItems;
+		this.items = items;
+		this.contains = contains;
+		this.minContains = minContains;
+		this.maxContains = maxContains;
+		this.minProperties = minProperties;
+		this.maxProperties = maxProperties;
+		this.requiredProperties = requiredProperties;
+		this.dependentRequired = dependentRequired;
+		this.dependentSchemas = dependentSchemas;
+		this.patternProperties = patternProperties;
+		this.propertyNames = propertyNames;
+		this.additionalProperties = additionalProperties;
+		this.ifSchema = ifSchema;
+		this.thenSchema = thenSchema;
+		this.elseSchema = elseSchema;
+		this.allOf = allOf;
+		this.anyOf = anyOf;
+		this.oneOf = oneOf;
+		this.not = not;
+		this.contentEncoding = contentEncoding;
+		this.contentMediaType = contentMediaType;
+		this.contentSchema = contentSchema;
+		this.xDeprecation = xDeprecation;
+		this.htmlDescription = htmlDescription;
+		this.presence = scanPresence();
 	}
 
-	private <T> List<T> mergeLists(List<T> list1, List<T> list2) {
-		if (list1 == null) {
-			return list2;
-		}
-		if (list2 == null) {
-			return list1;
-		}
-		if (list2.isEmpty()) {
-			return list1;
-		}
-		List<T> result = new ArrayList<>(list1);
-		result.removeAll(list2);
-		result.addAll(list2);
-		return result;
+	public void setType(JsonSchemaType type) {
+		this.type = type;
+		updatePresence(JsonSchemaField.TYPE, type);
 	}
 
-	private <T> Set<T> mergeSets(Set<T> set1, Set<T> set2) {
-		if (set1 == null) {
-			return set2;
-		}
-		if (set2 == null) {
-			return set1;
-		}
-		Set<T> result = new LinkedHashSet<>(set1);
-		result.addAll(set2);
-		return result;
+	public void setDescription(String description) {
+		this.description = description;
+		updatePresence(JsonSchemaField.DESCRIPTION, description);
 	}
 
-	private <K, V> Map<K, V> mergeMaps(Map<K, V> map1, Map<K, V> map2) {
-		if (map1 == null) {
-			return map2;
-		}
-		if (map2 == null) {
-			return map1;
-		}
-		map2.forEach((key, value) -> {
-			if (value instanceof JsonSchemaProperties && map1.get(key) instanceof JsonSchemaProperties) {
-				map1.put(key, (V) ((JsonSchemaProperties) map1.get(key)).merge((JsonSchemaProperties) value));
-			}
-			else {
-				map1.put(key, value);
-			}
-		});
-		return map1;
+	public void setPattern(String pattern) {
+		this.pattern = pattern;
+		updatePresence(JsonSchemaField.PATTERN, pattern);
 	}
 
-	public JsonSchemaProperties merge(JsonSchemaProperties other) {
-		if (other == null) {
-			return this;
-		}
+	public void setFormat(JsonSchemaFormat format) {
+		this.format = format;
+		updatePresence(JsonSchemaField.FORMAT, format);
+	}
 
-		if (other.getType() != null) {
-			this.type = other.getType();
-		}
-		if (other.getDescription() != null) {
-			this.description = other.getDescription();
-		}
-		if (other.getPattern() != null) {
-			this.pattern = other.getPattern();
-		}
-		if (other.getFormat() != null) {
-			this.format = other.getFormat();
-		}
-		if (other.getReference() != null) {
-			this.reference = other.getReference();
-		}
-		if (other.getMinimum() != null) {
-			this.minimum = other.getMinimum();
-		}
-		if (other.getMaximum() != null) {
-			this.maximum = other.getMaximum();
-		}
-		if (other.getExclusiveMinimum() != null) {
-			this.exclusiveMinimum = other.getExclusiveMinimum();
-		}
-		if (other.getExclusiveMaximum() != null) {
-			this.exclusiveMaximum = other.getExclusiveMaximum();
-		}
-		if (other.getMinLength() != null) {
-			this.minLength = other.getMinLength();
-		}
-		if (other.getMaxLength() != null) {
-			this.maxLength = other.getMaxLength();
-		}
-		if (other.getDefaultValue() != null) {
-			this.defaultValue = other.getDefaultValue();
-		}
-		if (other.getDeprecated() != null) {
-			this.deprecated = other.getDeprecated();
-		}
-		if (other.getTitle() != null) {
-			this.title = other.getTitle();
-		}
-		if (other.getComment() != null) {
-			this.comment = other.getComment();
-		}
-		if (other.getAnchor() != null) {
-			this.anchor = other.getAnchor();
-		}
-		if (other.getConstValue() != null) {
-			this.constValue = other.getConstValue();
-		}
-		if (other.getReadOnly() != null) {
-			this.readOnly = other.getReadOnly();
-		}
-		if (other.getWriteOnly() != null) {
-			this.writeOnly = other.getWriteOnly();
-		}
-		if (other.getMultipleOf() != null) {
-			this.multipleOf = other.getMultipleOf();
-		}
-		if (other.getMinItems() != null) {
-			this.minItems = other.getMinItems();
-		}
-		if (other.getMaxItems() != null) {
-			this.maxItems = other.getMaxItems();
-		}
-		if (other.getUniqueItems() != null) {
-			this.uniqueItems = other.getUniqueItems();
-		}
-		if (other.getMinContains() != null) {
-			this.minContains = other.getMinContains();
-		}
-		if (other.getMaxContains() != null) {
-			this.maxContains = other.getMaxContains();
-		}
-		if (other.getMinProperties() != null) {
-			this.minProperties = other.getMinProperties();
-		}
-		if (other.getMaxProperties() != null) {
-			this.maxProperties = other.getMaxProperties();
-		}
-		if (other.getContentEncoding() != null) {
-			this.contentEncoding = other.getContentEncoding();
-		}
-		if (other.getContentMediaType() != null) {
-			this.contentMediaType = other.getContentMediaType();
-		}
-		if (other.getHtmlDescription() != null) {
-			this.htmlDescription = other.getHtmlDescription();
-		}
-		if (other.getItems() != null) {
-			this.items = other.getItems();
-		}
+	public void setReference(String reference) {
+		this.reference = reference;
+		updatePresence(JsonSchemaField.REFERENCE, reference);
+	}
 
-		this.enumValues = mergeSets(this.enumValues, other.getEnumValues());
-		this.examples = mergeLists(this.examples, other.getExamples());
-		this.prefixItems = mergeLists(this.prefixItems, other.getPrefixItems());
-		this.requiredProperties = mergeSets(this.requiredProperties, other.getRequiredProperties());
-		this.allOf = mergeLists(this.allOf, other.getAllOf());
-		this.anyOf = mergeLists(this.anyOf, other.getAnyOf());
-		this.oneOf = mergeLists(this.oneOf, other.getOneOf());
-
-		this.properties = mergeMaps(this.properties, other.getProperties());
-		this.dependentRequired = mergeMaps(this.dependentRequired, other.getDependentRequired());
-		this.dependentSchemas = mergeMaps(this.dependentSchemas, other.getDependentSchemas());
-		this.patternProperties = mergeMaps(this.patternProperties, other.getPatternProperties());
-
-		if (other.getContains() != null) {
-			this.contains = (this.contains != null) ? this.contains.merge(other.getContains()) : other.getContains();
-		}
-		if (other.getPropertyNames() != null) {
-			this.propertyNames = (this.propertyNames != null) ? this.propertyNames.merge(other.getPropertyNames())
-					: other.getPropertyNames();
-		}
-		if (other.getIfSchema() != null) {
-			this.ifSchema = (this.ifSchema != null) ? this.ifSchema.merge(other.getIfSchema()) : other.getIfSchema();
-		}
-		if (other.getThenSchema() != null) {
-			this.thenSchema = (this.thenSchema != null) ? this.thenSchema.merge(other.getThenSchema())
-					: other.getThenSchema();
-		}
-		if (other.getElseSchema() != null) {
-			this.elseSchema = (this.elseSchema != null) ? this.elseSchema.merge(other.getElseSchema())
-					: other.getElseSchema();
-		}
-		if (other.getNot() != null) {
-			this.not = (this.not != null) ? this.not.merge(other.getNot()) : other.getNot();
-		}
-		if (other.getContentSchema() != null) {
-			this.contentSchema = (this.contentSchema != null) ? this.contentSchema.merge(other.getContentSchema())
-					: other.getContentSchema();
-		}
-		if (other.getxDeprecation() != null) {
-			this.xDeprecation = other.getxDeprecation();
-		}
-		if (other.getAdditionalProperties() != null) {
-			this.additionalProperties = other.getAdditionalProperties();
-		}
+	public void setEnumValues(Set<String> enumValues) {
+		this.enumValues = enumValues;
+		updatePresence(JsonSchemaField.ENUM, enumValues);
+	}
+
+	public void setMinimum(Number minimum) {
+		this.minimum = minimum;
+		updatePresence(JsonSchemaField.MINIMUM, minimum);
+	}
+
+	public void setMaximum(Number maximum) {
+		this.maximum = maximum;
+		updatePresence(JsonSchemaField.MAXIMUM, maximum);
+	}
+
+	public void setExclusiveMinimum(Number exclusiveMinimum) {
+		this.exclusiveMinimum = exclusiveMinimum;
+		updatePresence(JsonSchemaField.EXCLUSIVE_MINIMUM, exclusiveMinimum);
+	}
+
+	public void setExclusiveMaximum(Number exclusiveMaximum) {
+		this.exclusiveMaximum = exclusiveMaximum;
+		updatePresence(JsonSchemaField.EXCLUSIVE_MAXIMUM, exclusiveMaximum);
+	}
+
+	public void setMinLength(Integer minLength) {
+		this.minLength = minLength;
+		updatePresence(JsonSchemaField.MIN_LENGTH, minLength);
+	}
+
+	public void setMaxLength(Integer maxLength) {
+		this.maxLength = maxLength;
+		updatePresence(JsonSchemaField.MAX_LENGTH, maxLength);
+	}
+
+	public void setDefaultValue(Object defaultValue) {
+		this.defaultValue = defaultValue;
+		updatePresence(JsonSchemaField.DEFAULT, defaultValue);
+	}
+
+	public void setDeprecated(Boolean deprecated) {
+		this.deprecated = deprecated;
+		updatePresence(JsonSchemaField.DEPRECATED, deprecated);
+	}
+
+	public void setExamples(List<String> examples) {
+		this.examples = examples;
+		updatePresence(JsonSchemaField.EXAMPLES, examples);
+	}
+
+	public void setProperties(Map<String, JsonSchemaProperties> properties) {
+		this.properties = properties;
+		updatePresence(JsonSchemaField.PROPERTIES, properties);
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+		updatePresence(JsonSchemaField.TITLE, title);
+	}
+
+	public void setComment(String comment) {
+		this.comment = comment;
+		updatePresence(JsonSchemaField.COMMENT, comment);
+	}
+
+	public void setAnchor(String anchor) {
+		this.anchor = anchor;
+		updatePresence(JsonSchemaField.ANCHOR, anchor);
+	}
 
+	public void setConstValue(Object constValue) {
+		this.constValue = constValue;
+		updatePresence(JsonSchemaField.CONST_VALUE, constValue);
+	}
+
+	public void setReadOnly(Boolean readOnly) {
+		this.readOnly = readOnly;
+		updatePresence(JsonSchemaField.READ_ONLY, readOnly);
+	}
+
+	public void setWriteOnly(Boolean writeOnly) {
+		this.writeOnly = writeOnly;
+		updatePresence(JsonSchemaField.WRITE_ONLY, writeOnly);
+	}
+
+	public void setMultipleOf(Number multipleOf) {
+		this.multipleOf = multipleOf;
+		updatePresence(JsonSchemaField.MULTIPLE_OF, multipleOf);
+	}
+
+	public void setMinItems(Integer minItems) {
+		this.minItems = minItems;
+		updatePresence(JsonSchemaField.MIN_ITEMS, minItems);
+	}
+
+	public void setMaxItems(Integer maxItems) {
+		this.maxItems = maxItems;
+		updatePresence(JsonSchemaField.MAX_ITEMS, maxItems);
+	}
+
+	public void setUniqueItems(Boolean uniqueItems) {
+		this.uniqueItems = uniqueItems;
+		updatePresence(JsonSchemaField.UNIQUE_ITEMS, uniqueItems);
+	}
+
+	public void setPrefixItems(List<JsonSchemaProperties> prefixItems) {
+		this.prefixItems = prefixItems;
+		updatePresence(JsonSchemaField.PREFIX_ITEMS, prefixItems);
+	}
+
+	public void setItems(JsonSchemaProperties items) {
+		this.items = items;
+		updatePresence(JsonSchemaField.ITEMS, items);
+	}
+
+	public void setContains(JsonSchemaProperties contains) {
+		this.contains = contains;
+		updatePresence(JsonSchemaField.CONTAINS, contains);
+	}
+
+	public void setMinContains(Integer minContains) {
+		this.minContains = minContains;
+		updatePresence(JsonSchemaField.MIN_CONTAINS, minContains);
+	}
+
+	public void setMaxContains(Integer maxContains) {
+		this.maxContains = maxContains;
+		updatePresence(JsonSchemaField.MAX_CONTAINS, maxContains);
+	}
+
+	public void setMinProperties(Integer minProperties) {
+		this.minProperties = minProperties;
+		updatePresence(JsonSchemaField.MIN_PROPERTIES, minProperties);
+	}
+
+	public void setMaxProperties(Integer maxProperties) {
+		this.maxProperties = maxProperties;
+		updatePresence(JsonSchemaField.MAX_PROPERTIES, maxProperties);
+	}
+
+	public void setRequiredProperties(Set<String> requiredProperties) {
+		this.requiredProperties = requiredProperties;
+		updatePresence(JsonSchemaField.REQUIRED, requiredProperties);
+	}
+
+	public void setDependentRequired(Map<String, Set<String>> dependentRequired) {
+		this.dependentRequired = dependentRequired;
+		updatePresence(JsonSchemaField.DEPENDENT_REQUIRED, dependentRequired);
+	}
+
+	public void setDependentSchemas(Map<String, JsonSchemaProperties> dependentSchemas) {
+		this.dependentSchemas = dependentSchemas;
+		updatePresence(JsonSchemaField.DEPENDENT_SCHEMAS, dependentSchemas);
+	}
+
+	public void setPatternProperties(Map<String, JsonSchemaProperties> patternProperties) {
+		this.patternProperties = patternProperties;
+		updatePresence(JsonSchemaField.PATTERN_PROPERTIES, patternProperties);
+	}
+
+	public void setPropertyNames(JsonSchemaProperties propertyNames) {
+		this.propertyNames = propertyNames;
+		updatePresence(JsonSchemaField.PROPERTY_NAMES, propertyNames);
+	}
+
+	public void setAdditionalProperties(Object additionalProperties) {
+		this.additionalProperties = additionalProperties;
+		updatePresence(JsonSchemaField.ADDITIONAL_PROPERTIES, additionalProperties);
+	}
+
+	public void setIfSchema(JsonSchemaProperties ifSchema) {
+		this.ifSchema = ifSchema;
+		updatePresence(JsonSchemaField.IF, ifSchema);
+	}
+
+	public void setThenSchema(JsonSchemaProperties thenSchema) {
+		this.thenSchema = thenSchema;
+		updatePresence(JsonSchemaField.THEN, thenSchema);
+	}
+
+	public void setElseSchema(JsonSchemaProperties elseSchema) {
+		this.elseSchema = elseSchema;
+		updatePresence(JsonSchemaField.ELSE, elseSchema);
+	}
+
+	public void setAllOf(List<JsonSchemaProperties> allOf) {
+		this.allOf = allOf;
+		updatePresence(JsonSchemaField.ALL_OF, allOf);
+	}
+
+	public void setAnyOf(List<JsonSchemaProperties> anyOf) {
+		this.anyOf = anyOf;
+		updatePresence(JsonSchemaField.ANY_OF, anyOf);
+	}
+
+	public void setOneOf(List<JsonSchemaProperties> oneOf) {
+		this.oneOf = oneOf;
+		updatePresence(JsonSchemaField.ONE_OF, oneOf);
+	}
+
+	public void setNot(JsonSchemaProperties not) {
+		this.not = not;
+		updatePresence(JsonSchemaField.NOT, not);
+	}
+
+	public void setContentEncoding(String contentEncoding) {
+		this.contentEncoding = contentEncoding;
+		updatePresence(JsonSchemaField.CONTENT_ENCODING, contentEncoding);
+	}
+
+	public void setContentMediaType(String contentMediaType) {
+		this.contentMediaType = contentMediaType;
+		updatePresence(JsonSchemaField.CONTENT_MEDIA_TYPE, contentMediaType);
+	}
+
+	public void setContentSchema(JsonSchemaProperties contentSchema) {
+		this.contentSchema = contentSchema;
+		updatePresence(JsonSchemaField.CONTENT_SCHEMA, contentSchema);
+	}
+
+	@JsonProperty("x-deprecation")
+	public void setXDeprecation(XDeprecation xDeprecation) {
+		this.xDeprecation = xDeprecation;
+		updatePresence(JsonSchemaField.X_DEPRECATION, xDeprecation);
+	}
+
+	public void setHtmlDescription(String htmlDescription) {
+		this.htmlDescription = htmlDescription;
+		updatePresence(JsonSchemaField.HTML_DESCRIPTION, htmlDescription);
+	}
+
+	/**
+	 * Returns the fields set on this node without inspecting them.
+	 * @return a mask with one {@link JsonSchemaField#bit()} per non-null field
+	 */
+	long presenceMask() {
+		return presence;
+	}
+
+	private void updatePresence(JsonSchemaField field, Object value) {
+		presence = (value != null) ? (presence | field.bit()) : (presence & ~field.bit());
+	}
+
+	private long scanPresence() {
+		return present(JsonSchemaField.TYPE, type) | present(JsonSchemaField.DESCRIPTION, description)
+				| present(JsonSchemaField.PATTERN, pattern) | present(JsonSchemaField.FORMAT, format)
+				| present(JsonSchemaField.REFERENCE, reference) | present(JsonSchemaField.ENUM, enumValues)
+				| present(JsonSchemaField.MINIMUM, minimum) | present(JsonSchemaField.MAXIMUM, maximum)
+				| present(JsonSchemaField.EXCLUSIVE_MINIMUM, exclusiveMinimum)
+				| present(JsonSchemaField.EXCLUSIVE_MAXIMUM, exclusiveMaximum)
+				| present(JsonSchemaField.MIN_LENGTH, minLength) | present(JsonSchemaField.MAX_LENGTH, maxLength)
+				| present(JsonSchemaField.DEFAULT, defaultValue) | present(JsonSchemaField.DEPRECATED, deprecated)
+				| present(JsonSchemaField.EXAMPLES, examples) | present(JsonSchemaField.PROPERTIES, properties)
+				| present(JsonSchemaField.TITLE, title) | present(JsonSchemaField.COMMENT, comment)
+				| present(JsonSchemaField.ANCHOR, anchor) | present(JsonSchemaField.CONST_VALUE, constValue)
+				| present(JsonSchemaField.READ_ONLY, readOnly) | present(JsonSchemaField.WRITE_ONLY, writeOnly)
+				| present(JsonSchemaField.MULTIPLE_OF, multipleOf) | present(JsonSchemaField.MIN_ITEMS, minItems)
+				| present(JsonSchemaField.MAX_ITEMS, maxItems) | present(JsonSchemaField.UNIQUE_ITEMS, uniqueItems)
+				| present(JsonSchemaField.PREFIX_ITEMS, prefixItems) | present(JsonSchemaField.ITEMS, items)
+				| present(JsonSchemaField.CONTAINS, contains) | present(JsonSchemaField.MIN_CONTAINS, minContains)
+				| present(JsonSchemaField.MAX_CONTAINS, maxContains)
+				| present(JsonSchemaField.MIN_PROPERTIES, minProperties)
+				| present(JsonSchemaField.MAX_PROPERTIES, maxProperties)
+				| present(JsonSchemaField.REQUIRED, requiredProperties)
+				| present(JsonSchemaField.DEPENDENT_REQUIRED, dependentRequired)
+				| present(JsonSchemaField.DEPENDENT_SCHEMAS, dependentSchemas)
+				| present(JsonSchemaField.PATTERN_PROPERTIES, patternProperties)
+				| present(JsonSchemaField.PROPERTY_NAMES, propertyNames)
+				| present(JsonSchemaField.ADDITIONAL_PROPERTIES, additionalProperties)
+				| present(JsonSchemaField.IF, ifSchema) | present(JsonSchemaField.THEN, thenSchema)
+				| present(JsonSchemaField.ELSE, elseSchema) | present(JsonSchemaField.ALL_OF, allOf)
+				| present(JsonSchemaField.ANY_OF, anyOf) | present(JsonSchemaField.ONE_OF, oneOf)
+				| present(JsonSchemaField.NOT, not) | present(JsonSchemaField.CONTENT_ENCODING, contentEncoding)
+				| present(JsonSchemaField.CONTENT_MEDIA_TYPE, contentMediaType)
+				| present(JsonSchemaField.CONTENT_SCHEMA, contentSchema)
+				| present(JsonSchemaField.X_DEPRECATION, xDeprecation)
+				| present(JsonSchemaField.HTML_DESCRIPTION, htmlDescription);
+	}
+
+	private static long present(JsonSchemaField field, Object value) {
+		return (value != null) ? field.bit() : 0;
+	}
+
+	public XDeprecation getxDeprecation() {
+		return xDeprecation;
+	}
+
+	/**
+	 * Merges the fields set on {@code other} into this node and returns this node. Only
+	 * the fields present on {@code other} are visited. Collections and nested schemas of
+	 * this node are replaced by merged copies rather than modified in place, and values
+	 * taken from {@code other} are deep-copied, so the two nodes share no mutable state
+	 * afterwards. See {@link JsonSchemaMerger#merge} for the per-field rules.
+	 * @param other the node to merge from, may be null
+	 * @return this node
+	 */
+	public JsonSchemaProperties merge(JsonSchemaProperties other) {
+		if (other != null) {
+			JsonSchemaMerger.merge(this, other);
+		}
 		return this;
 	}
 
+	/**
+	 * Creates a deep copy of this node.
+	 * @return a copy sharing no mutable state with this node
+	 */
+	public JsonSchemaProperties deepCopy() {
+		return JsonSchemaMerger.copy(this);
+	}
+
 }
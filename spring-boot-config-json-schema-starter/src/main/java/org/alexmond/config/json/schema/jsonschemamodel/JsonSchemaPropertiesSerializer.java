@@ -0,0 +1,91 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes {@link JsonSchemaProperties} without bean introspection, writing only the
+ * non-null fields in {@link JsonSchemaField} order, which is the order the bean
+ * serializer derives from the property annotations. Nested schemas, schema lists and
+ * schema maps are written directly; scalar values are delegated to the context.
+ */
+public class JsonSchemaPropertiesSerializer extends StdSerializer<JsonSchemaProperties> {
+
+	private static final JsonSchemaField[] FIELDS = JsonSchemaField.values();
+
+	public JsonSchemaPropertiesSerializer() {
+		super(JsonSchemaProperties.class);
+	}
+
+	@Override
+	public void serialize(JsonSchemaProperties properties, JsonGenerator gen, SerializationContext ctxt) {
+		gen.writeStartObject(properties);
+		for (JsonSchemaField field : FIELDS) {
+			Object value = field.get(properties);
+			if (value != null) {
+				gen.writeName(field.getJsonName());
+				writeField(field.getKind(), value, gen, ctxt);
+			}
+		}
+		gen.writeEndObject();
+	}
+
+	private void writeField(JsonSchemaField.Kind kind, Object value, JsonGenerator gen, SerializationContext ctxt) {
+		switch (kind) {
+			case SCHEMA, SCHEMA_OR_VALUE -> writeValue(value, gen, ctxt);
+			case SCHEMA_LIST -> {
+				List<?> list = (List<?>) value;
+				gen.writeStartArray(list, list.size());
+				for (Object item : list) {
+					writeValue(item, gen, ctxt);
+				}
+				gen.writeEndArray();
+			}
+			case SCHEMA_MAP -> writeMap((Map<?, ?>) value, gen, ctxt);
+			default -> ctxt.writeValue(gen, value);
+		}
+	}
+
+	/**
+	 * Writes a value that may be a nested schema, delegating anything else to the
+	 * context.
+	 * @param value the value to write, may be null
+	 * @param gen the generator to write to
+	 * @param ctxt the serialization context
+	 */
+	void writeValue(Object value, JsonGenerator gen, SerializationContext ctxt) {
+		if (value == null) {
+			gen.writeNull();
+		}
+		else if (value instanceof JsonSchemaProperties properties) {
+			serialize(properties, gen, ctxt);
+		}
+		else {
+			ctxt.writeValue(gen, value);
+		}
+	}
+
+	/**
+	 * Writes a map of named schemas as a JSON object, or null.
+	 * @param map the map to write, may be null
+	 * @param gen the generator to write to
+	 * @param ctxt the serialization context
+	 */
+	void writeMap(Map<?, ?> map, JsonGenerator gen, SerializationContext ctxt) {
+		if (map == null) {
+			gen.writeNull();
+			return;
+		}
+		gen.writeStartObject(map, map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			gen.writeName(String.valueOf(entry.getKey()));
+			writeValue(entry.getValue(), gen, ctxt);
+		}
+		gen.writeEndObject();
+	}
+
+}
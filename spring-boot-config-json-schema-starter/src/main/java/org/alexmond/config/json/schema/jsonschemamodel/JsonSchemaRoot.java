@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import tools.jackson.databind.annotation.JsonSerialize;
 
 import java.util.Map;
 
@@ -14,6 +15,7 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonPropertyOrder({ "schema", "id", "title", "description", "type", "definitions", "properties" })
+@JsonSerialize(using = JsonSchemaRootSerializer.class)
 public class JsonSchemaRoot {
 
 	@Builder.Default
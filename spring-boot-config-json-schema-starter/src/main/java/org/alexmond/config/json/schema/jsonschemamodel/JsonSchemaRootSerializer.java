@@ -0,0 +1,41 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Serializes {@link JsonSchemaRoot} without bean introspection, in the declared property
+ * order and, like the bean serializer, including null fields.
+ */
+public class JsonSchemaRootSerializer extends StdSerializer<JsonSchemaRoot> {
+
+	private final JsonSchemaPropertiesSerializer propertiesSerializer = new JsonSchemaPropertiesSerializer();
+
+	public JsonSchemaRootSerializer() {
+		super(JsonSchemaRoot.class);
+	}
+
+	@Override
+	public void serialize(JsonSchemaRoot root, JsonGenerator gen, SerializationContext ctxt) {
+		gen.writeStartObject(root);
+		gen.writeName("$schema");
+		propertiesSerializer.writeValue(root.getSchema(), gen, ctxt);
+		gen.writeName("$id");
+		propertiesSerializer.writeValue(root.getId(), gen, ctxt);
+		gen.writeName("title");
+		propertiesSerializer.writeValue(root.getTitle(), gen, ctxt);
+		gen.writeName("description");
+		propertiesSerializer.writeValue(root.getDescription(), gen, ctxt);
+		gen.writeName("type");
+		propertiesSerializer.writeValue(root.getType(), gen, ctxt);
+		gen.writeName("$defs");
+		propertiesSerializer.writeMap(root.getDefinitions(), gen, ctxt);
+		gen.writeName("properties");
+		propertiesSerializer.writeMap(root.getProperties(), gen, ctxt);
+		gen.writeName("additionalProperties");
+		propertiesSerializer.writeValue(root.getAdditionalProperties(), gen, ctxt);
+		gen.writeEndObject();
+	}
+
+}
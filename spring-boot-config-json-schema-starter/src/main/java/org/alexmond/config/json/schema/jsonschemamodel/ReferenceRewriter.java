@@ -0,0 +1,144 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites a schema in {@link ReferenceStyle#DEFINITIONS} style into another reference
+ * style. Type definitions are recognized by their {@code $anchor}, which the generator
+ * sets to the definition name; other definitions, such as the logger level, are shared
+ * definitions in every style and are left alone.
+ *
+ * <p>
+ * Properties are visited in document order, so in {@link ReferenceStyle#ANCHORS} style
+ * the first occurrence in the document holds the definition.
+ */
+final class ReferenceRewriter {
+
+	private static final String DEFS_REF = "#/$defs/";
+
+	private final ReferenceStyle style;
+
+	private final CompactSchemaMap source;
+
+	private final Set<String> typeDefinitions = new HashSet<>();
+
+	/**
+	 * Type definitions written inline so far, for anchor style.
+	 */
+	private final Set<String> placed = new HashSet<>();
+
+	/**
+	 * Type definitions currently being expanded, for inline style.
+	 */
+	private final Set<String> expanding = new HashSet<>();
+
+	/**
+	 * Type definitions that are still referenced after rewriting.
+	 */
+	private final Set<String> referenced = new HashSet<>();
+
+	ReferenceRewriter(ReferenceStyle style, CompactSchemaMap definitions) {
+		this.style = style;
+		this.source = definitions;
+		definitions.forEach((name, node) -> {
+			if (name.equals(node.getAnchor())) {
+				typeDefinitions.add(name);
+			}
+		});
+	}
+
+	/**
+	 * Rewrites the given mutable copy of the schema in place.
+	 * @param root the schema to rewrite
+	 */
+	void rewrite(JsonSchemaRoot root) {
+		if (root.getProperties() != null) {
+			root.getProperties().values().forEach(this::visit);
+		}
+		if (root.getAdditionalProperties() instanceof JsonSchemaProperties additional) {
+			visit(additional);
+		}
+		Map<String, JsonSchemaProperties> definitions = root.getDefinitions();
+		definitions.forEach((name, node) -> {
+			if (!typeDefinitions.contains(name)) {
+				visit(node);
+			}
+		});
+		definitions.keySet().removeIf((name) -> typeDefinitions.contains(name) && !referenced.contains(name));
+	}
+
+	private void visit(JsonSchemaProperties node) {
+		String reference = node.getReference();
+		String name = (reference != null && reference.startsWith(DEFS_REF)) ? reference.substring(DEFS_REF.length())
+				: null;
+		if (name != null && typeDefinitions.contains(name)) {
+			if (style == ReferenceStyle.ANCHORS) {
+				if (!placed.add(name)) {
+					node.setReference("#" + name);
+					return;
+				}
+				expand(node, name, true);
+			}
+			else if (expanding.contains(name)) {
+				referenced.add(name);
+				return;
+			}
+			else {
+				expanding.add(name);
+				expand(node, name, false);
+				visitChildren(node);
+				expanding.remove(name);
+				return;
+			}
+		}
+		visitChildren(node);
+	}
+
+	/**
+	 * Replaces a reference with a copy of the definition it points to. Fields set next to
+	 * the reference, such as a default value, are kept.
+	 */
+	private void expand(JsonSchemaProperties node, String name, boolean keepAnchor) {
+		JsonSchemaProperties definition = source.get(name).toProperties();
+		if (!keepAnchor) {
+			definition.setAnchor(null);
+		}
+		node.setReference(null);
+		long mask = JsonSchemaField.presenceMask(definition) & ~JsonSchemaField.presenceMask(node);
+		for (long bits = mask; bits != 0; bits &= bits - 1) {
+			JsonSchemaField field = JsonSchemaField.of(Long.numberOfTrailingZeros(bits));
+			field.set(node, field.get(definition));
+		}
+	}
+
+	private void visitChildren(JsonSchemaProperties node) {
+		long mask = JsonSchemaField.presenceMask(node);
+		for (long bits = mask; bits != 0; bits &= bits - 1) {
+			JsonSchemaField field = JsonSchemaField.of(Long.numberOfTrailingZeros(bits));
+			Object value = field.get(node);
+			switch (field.getKind()) {
+				case SCHEMA, SCHEMA_OR_VALUE -> {
+					if (value instanceof JsonSchemaProperties child) {
+						visit(child);
+					}
+				}
+				case SCHEMA_LIST -> ((List<?>) value).forEach((child) -> {
+					if (child instanceof JsonSchemaProperties schema) {
+						visit(schema);
+					}
+				});
+				case SCHEMA_MAP -> ((Map<?, ?>) value).values().forEach((child) -> {
+					if (child instanceof JsonSchemaProperties schema) {
+						visit(schema);
+					}
+				});
+				default -> {
+				}
+			}
+		}
+	}
+
+}
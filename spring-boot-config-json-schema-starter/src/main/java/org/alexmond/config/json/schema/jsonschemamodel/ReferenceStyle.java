@@ -0,0 +1,41 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+/**
+ * How repeated types refer to their single definition in a schema document.
+ */
+public enum ReferenceStyle {
+
+	/**
+	 * Repeated types are defined in {@code $defs} and referenced as {@code #/$defs/Type}.
+	 * This is the canonical form other styles are derived from.
+	 */
+	DEFINITIONS,
+
+	/**
+	 * The first occurrence of a repeated type is defined inline with an {@code $anchor},
+	 * later occurrences reference it as {@code #Type}.
+	 */
+	ANCHORS,
+
+	/**
+	 * Every occurrence of a type is written out in full. The generator cuts recursive
+	 * types short where they refer to themselves; a schema rewritten into this style
+	 * keeps a reference to {@code $defs} there instead.
+	 */
+	INLINE;
+
+	/**
+	 * Returns the style selected by the two reference switches of the generator, where
+	 * anchors take precedence over definitions.
+	 * @param anchorRefs whether anchor references are enabled
+	 * @param definitionRefs whether definition references are enabled
+	 * @return the selected style
+	 */
+	public static ReferenceStyle of(boolean anchorRefs, boolean definitionRefs) {
+		if (anchorRefs) {
+			return ANCHORS;
+		}
+		return definitionRefs ? DEFINITIONS : INLINE;
+	}
+
+}
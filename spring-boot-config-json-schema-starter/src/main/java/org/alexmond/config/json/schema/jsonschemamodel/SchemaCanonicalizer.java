@@ -0,0 +1,130 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Brings a schema tree into canonical form, so that equal schemas always serialize to the
+ * same bytes regardless of the order in which metadata was collected or merged:
+ * <ul>
+ * <li>every map, including {@code $defs}, is sorted by key</li>
+ * <li>every set, such as {@code enum} and {@code required}, is sorted by the string form
+ * of its values, then by their type</li>
+ * <li>numbers are normalized, so {@code 1}, {@code 1.0} and {@code 1.00} are all written
+ * as {@code 1}, and {@code 0.5f} and {@code 0.50} as {@code 0.5}</li>
+ * </ul>
+ * Lists keep their order, as it is significant. The tree is updated in place; nodes
+ * shared between several parents are canonicalized once.
+ */
+public final class SchemaCanonicalizer {
+
+	private static final Comparator<Object> VALUE_ORDER = Comparator.comparing(String::valueOf)
+		.thenComparing((value) -> (value != null) ? value.getClass().getName() : "");
+
+	private final Set<JsonSchemaProperties> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private SchemaCanonicalizer() {
+	}
+
+	/**
+	 * Canonicalizes the given schema in place.
+	 * @param root the schema to update
+	 */
+	public static void canonicalize(JsonSchemaRoot root) {
+		SchemaCanonicalizer canonicalizer = new SchemaCanonicalizer();
+		root.setDefinitions(canonicalizer.sortedSchemas(root.getDefinitions()));
+		root.setProperties(canonicalizer.sortedSchemas(root.getProperties()));
+	}
+
+	/**
+	 * Canonicalizes the given schemas in place and returns them sorted by key.
+	 * @param schemas the schemas to update, may be null
+	 * @return a sorted map of the same schemas, or null
+	 */
+	public static Map<String, JsonSchemaProperties> canonicalize(Map<String, JsonSchemaProperties> schemas) {
+		return new SchemaCanonicalizer().sortedSchemas(schemas);
+	}
+
+	private Map<String, JsonSchemaProperties> sortedSchemas(Map<String, JsonSchemaProperties> schemas) {
+		if (schemas == null) {
+			return null;
+		}
+		Map<String, JsonSchemaProperties> sorted = new TreeMap<>();
+		schemas.forEach((key, schema) -> sorted.put(key, node(schema)));
+		return sorted;
+	}
+
+	private JsonSchemaProperties node(JsonSchemaProperties properties) {
+		if (properties == null || !visited.add(properties)) {
+			return properties;
+		}
+		long mask = JsonSchemaField.presenceMask(properties);
+		for (long bits = mask; bits != 0; bits &= bits - 1) {
+			JsonSchemaField field = JsonSchemaField.of(Long.numberOfTrailingZeros(bits));
+			field.set(properties, value(field.get(properties)));
+		}
+		return properties;
+	}
+
+	private Object value(Object value) {
+		if (value instanceof JsonSchemaProperties schema) {
+			return node(schema);
+		}
+		if (value instanceof Number number) {
+			return normalize(number);
+		}
+		if (value instanceof Set<?> set) {
+			List<Object> items = new ArrayList<>(set.size());
+			set.forEach((item) -> items.add(value(item)));
+			items.sort(VALUE_ORDER);
+			return new LinkedHashSet<>(items);
+		}
+		if (value instanceof Map<?, ?> map) {
+			Map<Object, Object> sorted = new TreeMap<>(VALUE_ORDER);
+			map.forEach((key, item) -> sorted.put(key, value(item)));
+			return sorted;
+		}
+		if (value instanceof List<?> list) {
+			List<Object> items = new ArrayList<>(list.size());
+			list.forEach((item) -> items.add(value(item)));
+			return items;
+		}
+		return value;
+	}
+
+	/**
+	 * Writes integral values as integers and other values as the shortest double.
+	 * @param number the number to normalize
+	 * @return the normalized number
+	 */
+	static Number normalize(Number number) {
+		if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte
+				|| number instanceof BigInteger) {
+			return number;
+		}
+		BigDecimal decimal;
+		try {
+			decimal = (number instanceof BigDecimal bigDecimal) ? bigDecimal : new BigDecimal(number.toString());
+		}
+		catch (NumberFormatException ex) {
+			// NaN and infinities have no canonical decimal form
+			return number;
+		}
+		decimal = decimal.stripTrailingZeros();
+		if (decimal.scale() <= 0) {
+			BigInteger integer = decimal.toBigIntegerExact();
+			return (integer.bitLength() < Long.SIZE) ? (Number) integer.longValue() : integer;
+		}
+		return decimal.doubleValue();
+	}
+
+}
@@ -0,0 +1,283 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The schema split into one document per top-level property prefix, a shared definitions
+ * document and an index, so that clients can fetch only the parts they need.
+ *
+ * <ul>
+ * <li>A prefix document, named after the prefix as described in
+ * {@link #documentName(String)}, holds the schema of that single top-level property.</li>
+ * <li>The {@value #DEFINITIONS} document holds all of {@code $defs}.</li>
+ * <li>The {@value #INDEX} document is a complete schema equivalent to the monolithic one,
+ * whose top-level properties point to the prefix documents.</li>
+ * </ul>
+ * Documents are linked by relative references such as
+ * {@code _defs.json#/$defs/java.util.Locale}, so all of them must be served side by side
+ * under the same path with a {@code .json} suffix. They carry no {@code $id}, as an
+ * absolute identifier would change the base the references resolve against.
+ *
+ * <p>
+ * Shards are immutable and belong to one {@link SchemaSnapshot}; a prefix whose schema
+ * did not change renders to the same bytes in the next snapshot.
+ */
+public final class SchemaShards {
+
+	/**
+	 * Name of the document holding the shared definitions.
+	 */
+	public static final String DEFINITIONS = "_defs";
+
+	/**
+	 * Name of the index document.
+	 */
+	public static final String INDEX = "_index";
+
+	private static final String DEFS_REF = "#/$defs/";
+
+	private static final String SUFFIX = ".json";
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private final long version;
+
+	private final List<String> prefixes;
+
+	private final Map<String, Map<String, Object>> documents;
+
+	private SchemaShards(long version, List<String> prefixes, Map<String, Map<String, Object>> documents) {
+		this.version = version;
+		this.prefixes = prefixes;
+		this.documents = documents;
+	}
+
+	/**
+	 * Splits the schema of the given snapshot.
+	 * @param snapshot the snapshot to split
+	 * @return the shards of the snapshot
+	 */
+	public static SchemaShards of(SchemaSnapshot snapshot) {
+		JsonSchemaRoot root = snapshot.getSchema().toSchemaRoot();
+		Map<String, JsonSchemaProperties> properties = (root.getProperties() != null) ? root.getProperties() : Map.of();
+		Map<String, JsonSchemaProperties> definitions = (root.getDefinitions() != null) ? root.getDefinitions()
+				: Map.of();
+
+		Map<String, String> anchorHomes = new HashMap<>();
+		definitions.values().forEach((node) -> collectAnchors(node, DEFINITIONS, anchorHomes));
+		properties.forEach((prefix, node) -> collectAnchors(node, documentName(prefix), anchorHomes));
+
+		Map<String, Map<String, Object>> documents = new LinkedHashMap<>();
+		Map<String, Object> indexProperties = new LinkedHashMap<>();
+		properties.forEach((prefix, node) -> {
+			String name = documentName(prefix);
+			relink(node, name, anchorHomes);
+			Map<String, Object> document = header(root);
+			document.put("type", JsonSchemaType.OBJECT);
+			document.put("properties", Map.of(prefix, CompactSchemaNode.of(node)));
+			documents.put(name, Collections.unmodifiableMap(document));
+			String reference = name + SUFFIX + "#/properties/" + fragment(pointerToken(prefix));
+			indexProperties.put(prefix,
+					CompactSchemaNode.of(JsonSchemaProperties.builder().reference(reference).build()));
+		});
+
+		Map<String, Object> defsDocument = header(root);
+		Map<String, Object> compactDefinitions = new LinkedHashMap<>();
+		definitions.forEach((name, node) -> {
+			relink(node, DEFINITIONS, anchorHomes);
+			compactDefinitions.put(name, CompactSchemaNode.of(node));
+		});
+		defsDocument.put("$defs", Collections.unmodifiableMap(compactDefinitions));
+		documents.put(DEFINITIONS, Collections.unmodifiableMap(defsDocument));
+
+		Map<String, Object> index = header(root);
+		if (root.getDescription() != null) {
+			index.put("description", root.getDescription());
+		}
+		index.put("type", root.getType());
+		index.put("properties", Collections.unmodifiableMap(indexProperties));
+		Object additionalProperties = root.getAdditionalProperties();
+		if (additionalProperties instanceof JsonSchemaProperties schema) {
+			relink(schema, INDEX, anchorHomes);
+			additionalProperties = CompactSchemaNode.of(schema);
+		}
+		if (additionalProperties != null) {
+			index.put("additionalProperties", additionalProperties);
+		}
+		documents.put(INDEX, Collections.unmodifiableMap(index));
+
+		return new SchemaShards(snapshot.getVersion(), List.copyOf(properties.keySet()),
+				Collections.unmodifiableMap(documents));
+	}
+
+	/**
+	 * Returns the name of the document holding the given top-level prefix. The name is
+	 * the prefix itself if it consists of letters, digits, dots, dashes and underscores;
+	 * any other character is written as {@code ~} followed by the two hex digits of each
+	 * of its UTF-8 bytes, so that the name is safe both as a file name and as a URI path
+	 * segment. A leading dot or underscore is escaped the same way, so that prefix
+	 * documents never collide with {@value #DEFINITIONS} and {@value #INDEX}.
+	 * @param prefix a top-level property prefix
+	 * @return the document name, without the {@code .json} suffix
+	 */
+	public static String documentName(String prefix) {
+		StringBuilder name = new StringBuilder(prefix.length());
+		byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < bytes.length; i++) {
+			int b = bytes[i] & 0xFF;
+			boolean plain = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '-'
+					|| ((b == '.' || b == '_') && i > 0);
+			if (plain) {
+				name.append((char) b);
+			}
+			else {
+				name.append('~').append(HEX[b >> 4]).append(HEX[b & 0xF]);
+			}
+		}
+		return name.toString();
+	}
+
+	/**
+	 * Escapes a property name as a JSON Pointer reference token.
+	 */
+	private static String pointerToken(String name) {
+		return name.replace("~", "~0").replace("/", "~1");
+	}
+
+	/**
+	 * Percent-encodes the characters a URI fragment does not allow.
+	 */
+	private static String fragment(String pointer) {
+		StringBuilder encoded = new StringBuilder(pointer.length());
+		for (byte value : pointer.getBytes(StandardCharsets.UTF_8)) {
+			int b = value & 0xFF;
+			boolean allowed = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+					|| "-._~!$&'()*+,;=:@/?".indexOf(b) >= 0;
+			if (allowed) {
+				encoded.append((char) b);
+			}
+			else {
+				encoded.append('%').append(HEX[b >> 4]).append(HEX[b & 0xF]);
+			}
+		}
+		return encoded.toString();
+	}
+
+	private static Map<String, Object> header(JsonSchemaRoot root) {
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("$schema", root.getSchema());
+		if (root.getTitle() != null) {
+			document.put("title", root.getTitle());
+		}
+		return document;
+	}
+
+	private static void collectAnchors(JsonSchemaProperties node, String document, Map<String, String> anchorHomes) {
+		forEachNode(node, (child) -> {
+			if (child.getAnchor() != null) {
+				anchorHomes.putIfAbsent(child.getAnchor(), document);
+			}
+		});
+	}
+
+	/**
+	 * Points references that leave the given document to the document holding their
+	 * target.
+	 */
+	private static void relink(JsonSchemaProperties node, String document, Map<String, String> anchorHomes) {
+		forEachNode(node, (child) -> {
+			String reference = child.getReference();
+			if (reference == null) {
+				return;
+			}
+			if (reference.startsWith(DEFS_REF)) {
+				if (!DEFINITIONS.equals(document)) {
+					child.setReference(DEFINITIONS + SUFFIX + reference);
+				}
+			}
+			else if (reference.startsWith("#") && !reference.startsWith("#/")) {
+				String home = anchorHomes.get(reference.substring(1));
+				if (home != null && !home.equals(document)) {
+					child.setReference(home + SUFFIX + reference);
+				}
+			}
+		});
+	}
+
+	private static void forEachNode(JsonSchemaProperties node, Consumer<JsonSchemaProperties> action) {
+		forEachNode(node, Collections.newSetFromMap(new IdentityHashMap<>()), action);
+	}
+
+	private static void forEachNode(JsonSchemaProperties node, Set<JsonSchemaProperties> visited,
+			Consumer<JsonSchemaProperties> action) {
+		if (node == null || !visited.add(node)) {
+			return;
+		}
+		action.accept(node);
+		long mask = JsonSchemaField.presenceMask(node);
+		for (long bits = mask; bits != 0; bits &= bits - 1) {
+			JsonSchemaField field = JsonSchemaField.of(Long.numberOfTrailingZeros(bits));
+			Object value = field.get(node);
+			switch (field.getKind()) {
+				case SCHEMA, SCHEMA_OR_VALUE -> {
+					if (value instanceof JsonSchemaProperties child) {
+						forEachNode(child, visited, action);
+					}
+				}
+				case SCHEMA_LIST -> ((List<?>) value)
+					.forEach((child) -> forEachNode((child instanceof JsonSchemaProperties schema) ? schema : null,
+							visited, action));
+				case SCHEMA_MAP -> ((Map<?, ?>) value).values()
+					.forEach((child) -> forEachNode((child instanceof JsonSchemaProperties schema) ? schema : null,
+							visited, action));
+				default -> {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the version of the snapshot the shards were split from.
+	 * @return the snapshot version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the top-level property prefixes, each of which has its own document.
+	 * @return the prefixes in schema order
+	 */
+	public List<String> getPrefixes() {
+		return prefixes;
+	}
+
+	/**
+	 * Returns the names of all documents: one per prefix, see
+	 * {@link #documentName(String)}, {@value #DEFINITIONS} and {@value #INDEX}.
+	 * @return the document names
+	 */
+	public List<String> getNames() {
+		return new ArrayList<>(documents.keySet());
+	}
+
+	/**
+	 * Returns the document with the given name, ready to be rendered in any
+	 * {@code SchemaFormat}.
+	 * @param name the document name of a prefix, {@value #DEFINITIONS} or {@value #INDEX}
+	 * @return the unmodifiable document, or null if there is no such document
+	 */
+	public Map<String, Object> getDocument(String name) {
+		return documents.get(name);
+	}
+
+}
@@ -0,0 +1,25 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A published, immutable version of the generated schema. Snapshots are replaced as a
+ * whole when the schema is rebuilt, so a reader holding a snapshot always sees one
+ * consistent schema, no matter how many rebuilds happen afterwards.
+ */
+@Getter
+@AllArgsConstructor
+public final class SchemaSnapshot {
+
+	/**
+	 * The frozen schema.
+	 */
+	private final CompactSchemaRoot schema;
+
+	/**
+	 * Monotonically increasing build number, starting at 1 for the first build.
+	 */
+	private final long version;
+
+}
@@ -0,0 +1,174 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prunes a {@link CompactSchemaRoot} down to the view described by a {@link ViewSpec}.
+ * Nodes are only copied along the paths that change; everything else is shared with the
+ * source tree.
+ *
+ * <p>
+ * Ancestors of included prefixes are kept as far as needed to reach them, so including
+ * {@code spring.datasource} keeps {@code spring} with only its {@code datasource} child.
+ * Anchor references ({@code #Name}) into pruned properties are not redirected. Lean views
+ * are stripped of their documentation after pruning.
+ */
+final class SchemaViewPruner {
+
+	private static final String DEFS_REF = "#/$defs/";
+
+	private final ViewSpec spec;
+
+	SchemaViewPruner(ViewSpec spec) {
+		this.spec = spec;
+	}
+
+	CompactSchemaRoot prune(CompactSchemaRoot root) {
+		CompactSchemaMap properties = (root.getProperties() != null) ? pruneMap(root.getProperties(), "", 1) : null;
+		CompactSchemaRoot pruned = new CompactSchemaRoot(root.getSchema(), root.getId(), root.getTitle(),
+				root.getDescription(), root.getType(), referencedDefinitions(root, properties), properties,
+				root.getAdditionalProperties());
+		return spec.isLean() ? new DocumentationStripper().strip(pruned) : pruned;
+	}
+
+	private CompactSchemaMap pruneMap(CompactSchemaMap map, String parent, int depth) {
+		List<String> names = new ArrayList<>(map.size());
+		List<CompactSchemaNode> nodes = new ArrayList<>(map.size());
+		boolean changed = false;
+		for (int i = 0; i < map.size(); i++) {
+			String name = map.name(i);
+			CompactSchemaNode node = map.node(i);
+			CompactSchemaNode pruned = pruneNode(node, parent.isEmpty() ? name : parent + "." + name, depth);
+			if (pruned != null) {
+				names.add(name);
+				nodes.add(pruned);
+			}
+			// Nodes are compared by identity: unchanged subtrees are shared as is
+			changed |= !node.equals(pruned);
+		}
+		return changed ? CompactSchemaMap.of(names, nodes) : map;
+	}
+
+	private CompactSchemaNode pruneNode(CompactSchemaNode node, String path, int depth) {
+		if (anyCovers(spec.getExcludePrefixes(), path) || (spec.isExcludeDeprecated() && node.isDeprecated())) {
+			return null;
+		}
+		boolean included = spec.getIncludePrefixes().isEmpty() || anyCovers(spec.getIncludePrefixes(), path);
+		if (!included && spec.getIncludePrefixes().stream().noneMatch((prefix) -> ViewSpec.covers(path, prefix))) {
+			return null;
+		}
+		CompactSchemaMap children = node.getProperties();
+		if (children == null) {
+			return included ? node : null;
+		}
+		if (spec.getMaxDepth() > 0 && depth >= spec.getMaxDepth()) {
+			return node.with(JsonSchemaField.PROPERTIES, null).with(JsonSchemaField.REQUIRED, null);
+		}
+		CompactSchemaMap kept = pruneMap(children, path, depth + 1);
+		if (!included && kept.isEmpty()) {
+			return null;
+		}
+		if (kept.equals(children)) {
+			return node;
+		}
+		CompactSchemaNode pruned = node.with(JsonSchemaField.PROPERTIES, kept);
+		if (node.get(JsonSchemaField.REQUIRED) instanceof Collection<?> required) {
+			Set<Object> keptRequired = new LinkedHashSet<>();
+			required.stream().filter((name) -> kept.containsKey(String.valueOf(name))).forEach(keptRequired::add);
+			pruned = pruned.with(JsonSchemaField.REQUIRED,
+					keptRequired.isEmpty() ? null : Collections.unmodifiableSet(keptRequired));
+		}
+		return pruned;
+	}
+
+	private static boolean anyCovers(Set<String> prefixes, String path) {
+		for (String prefix : prefixes) {
+			if (ViewSpec.covers(prefix, path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Keeps the definitions that are reachable from the pruned properties, directly or
+	 * through other definitions.
+	 */
+	private static CompactSchemaMap referencedDefinitions(CompactSchemaRoot root, CompactSchemaMap properties) {
+		CompactSchemaMap definitions = root.getDefinitions();
+		if (definitions == null || definitions.isEmpty()) {
+			return definitions;
+		}
+		Map<String, String> anchors = new HashMap<>();
+		definitions.forEach((name, node) -> {
+			if (node.getAnchor() != null) {
+				anchors.put(node.getAnchor(), name);
+			}
+		});
+
+		Deque<CompactSchemaNode> pending = new ArrayDeque<>();
+		if (properties != null) {
+			properties.forEach((name, node) -> pending.push(node));
+		}
+		if (root.getAdditionalProperties() instanceof CompactSchemaNode additional) {
+			pending.push(additional);
+		}
+		Set<String> used = new HashSet<>();
+		while (!pending.isEmpty()) {
+			CompactSchemaNode node = pending.pop();
+			String reference = node.getReference();
+			String target = null;
+			if (reference != null && reference.startsWith(DEFS_REF)) {
+				target = reference.substring(DEFS_REF.length());
+			}
+			else if (reference != null && reference.startsWith("#")) {
+				target = anchors.get(reference.substring(1));
+			}
+			if (target != null && used.add(target) && definitions.containsKey(target)) {
+				pending.push(definitions.get(target));
+			}
+			pushChildren(node, pending);
+		}
+
+		List<String> names = new ArrayList<>(used.size());
+		List<CompactSchemaNode> nodes = new ArrayList<>(used.size());
+		definitions.forEach((name, node) -> {
+			if (used.contains(name)) {
+				names.add(name);
+				nodes.add(node);
+			}
+		});
+		return (names.size() == definitions.size()) ? definitions : CompactSchemaMap.of(names, nodes);
+	}
+
+	private static void pushChildren(CompactSchemaNode node, Deque<CompactSchemaNode> pending) {
+		node.forEachField((field, value) -> {
+			switch (field.getKind()) {
+				case SCHEMA, SCHEMA_OR_VALUE -> {
+					if (value instanceof CompactSchemaNode child) {
+						pending.push(child);
+					}
+				}
+				case SCHEMA_LIST -> ((List<?>) value).forEach((child) -> {
+					if (child instanceof CompactSchemaNode schema) {
+						pending.push(schema);
+					}
+				});
+				case SCHEMA_MAP -> ((CompactSchemaMap) value).forEach((name, child) -> pending.push(child));
+				default -> {
+				}
+			}
+		});
+	}
+
+}
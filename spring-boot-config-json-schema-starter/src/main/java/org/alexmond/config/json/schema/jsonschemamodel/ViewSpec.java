@@ -0,0 +1,120 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Describes a filtered view of the schema: which property prefixes to include or exclude,
+ * whether deprecated properties are dropped, how deep the property tree goes and whether
+ * documentation is left out. Specs are normalized on creation, so specs selecting the
+ * same view are equal and can be used as cache keys: prefixes are trimmed, stripped of
+ * surrounding dots, de-duplicated, sorted and reduced to the shortest prefix covering the
+ * others.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ViewSpec {
+
+	/**
+	 * The view of the whole schema.
+	 */
+	public static final ViewSpec ALL = ViewSpec.builder().build();
+
+	/**
+	 * The lean view of the whole schema, for tools that only check values against it.
+	 */
+	public static final ViewSpec LEAN = ViewSpec.builder().lean(true).build();
+
+	/**
+	 * Property prefixes to include, such as {@code server} or {@code spring.datasource}.
+	 * Empty to include every property.
+	 */
+	private final SortedSet<String> includePrefixes;
+
+	/**
+	 * Property prefixes to leave out. Exclusions win over inclusions.
+	 */
+	private final SortedSet<String> excludePrefixes;
+
+	/**
+	 * Whether properties marked as deprecated are left out.
+	 */
+	private final boolean excludeDeprecated;
+
+	/**
+	 * Number of property levels kept, where top-level properties such as {@code server}
+	 * are level one. Deeper properties are cut off, leaving their parent open. Zero for
+	 * no limit.
+	 */
+	private final int maxDepth;
+
+	/**
+	 * Whether documentation is left out: descriptions, examples, {@code $comment} and
+	 * {@code x-deprecation}. Types, enums and constraints are kept.
+	 */
+	private final boolean lean;
+
+	@Builder
+	private ViewSpec(Collection<String> includePrefixes, Collection<String> excludePrefixes, boolean excludeDeprecated,
+			int maxDepth, boolean lean) {
+		this.includePrefixes = normalize(includePrefixes);
+		this.excludePrefixes = normalize(excludePrefixes);
+		this.excludeDeprecated = excludeDeprecated;
+		this.maxDepth = Math.max(maxDepth, 0);
+		this.lean = lean;
+	}
+
+	private static SortedSet<String> normalize(Collection<String> prefixes) {
+		SortedSet<String> normalized = new TreeSet<>();
+		if (prefixes != null) {
+			for (String prefix : prefixes) {
+				String trimmed = (prefix != null) ? trimDots(prefix.trim()) : "";
+				if (!trimmed.isEmpty() && normalized.stream().noneMatch((other) -> covers(other, trimmed))) {
+					normalized.removeIf((other) -> covers(trimmed, other));
+					normalized.add(trimmed);
+				}
+			}
+		}
+		return Collections.unmodifiableSortedSet(normalized);
+	}
+
+	private static String trimDots(String prefix) {
+		int start = 0;
+		int end = prefix.length();
+		while (start < end && prefix.charAt(start) == '.') {
+			start++;
+		}
+		while (end > start && prefix.charAt(end - 1) == '.') {
+			end--;
+		}
+		return prefix.substring(start, end);
+	}
+
+	/**
+	 * Returns whether the given prefix covers the given property path, that is whether
+	 * the path is the prefix itself or lies below it.
+	 * @param prefix the property prefix
+	 * @param path the dotted property path
+	 * @return true if the path is covered by the prefix
+	 */
+	static boolean covers(String prefix, String path) {
+		return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '.');
+	}
+
+	/**
+	 * Returns whether this spec selects the whole schema.
+	 * @return true if nothing is filtered
+	 */
+	public boolean isAll() {
+		return equals(ALL);
+	}
+
+}
@@ -10,9 +10,10 @@ import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
 
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 @NoArgsConstructor
@@ -28,10 +29,17 @@ public class BootConfigMetaLoader {
 		return config;
 	}
 
+	/**
+	 * Merges the given metadata into a single map of properties keyed by name. Repeated
+	 * strings, deprecations and hints of the merged properties are deduplicated, so equal
+	 * values are shared between properties and must not be modified.
+	 * @param metaList the metadata loaded from each metadata file
+	 * @return the merged properties sorted by name
+	 */
 	public Map<String, Property> mergeConfig(List<BootConfigMeta> metaList) {
 		BootConfigMeta mergedConfig = new BootConfigMeta();
 		Map<String, Property> propertyMap = new TreeMap<>();
-		List<String> ignorelist = new ArrayList<>();
+		Set<String> ignorelist = new HashSet<>();
 
 		for (var config : metaList) {
 			mergedConfig.getGroups().addAll(config.getGroups());
@@ -80,6 +88,9 @@ public class BootConfigMetaLoader {
 				log.debug("Missing property name for a hint: {}", hint.getName());
 			}
 		}
+
+		MetadataInterner interner = new MetadataInterner();
+		propertyMap.values().forEach(interner::compact);
 		return propertyMap;
 	}
 
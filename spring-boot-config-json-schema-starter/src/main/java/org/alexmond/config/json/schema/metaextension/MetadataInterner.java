@@ -0,0 +1,111 @@
+package org.alexmond.config.json.schema.metaextension;
+
+import org.alexmond.config.json.schema.metamodel.Deprecation;
+import org.alexmond.config.json.schema.metamodel.Hint;
+import org.alexmond.config.json.schema.metamodel.HintProvider;
+import org.alexmond.config.json.schema.metamodel.HintValue;
+import org.alexmond.config.json.schema.metamodel.HintValueProvider;
+import org.alexmond.config.json.schema.metamodel.Property;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Deduplicates the merged configuration metadata. Metadata from different jars repeats
+ * the same type names, source types, descriptions, deprecation details and hint values
+ * many times; after compaction every distinct string and every distinct
+ * {@link Deprecation}, {@link Hint}, {@link HintValue} and provider is held once and
+ * shared by all properties that use it. Shared instances must therefore not be modified
+ * afterwards.
+ *
+ * <p>
+ * The instance table only lives as long as the interner, so an interner is used for a
+ * single merge and then dropped, unlike {@link String#intern()}.
+ */
+final class MetadataInterner {
+
+	private final Map<Object, Object> instances = new HashMap<>();
+
+	/**
+	 * Replaces the strings and nested metadata of the given property with shared
+	 * instances.
+	 * @param property the property to compact
+	 */
+	void compact(Property property) {
+		property.setName(share(property.getName()));
+		property.setType(share(property.getType()));
+		property.setSourceType(share(property.getSourceType()));
+		property.setDescription(share(property.getDescription()));
+		if (property.getDefaultValue() instanceof String defaultValue) {
+			property.setDefaultValue(share(defaultValue));
+		}
+		property.setDeprecation(compact(property.getDeprecation()));
+		property.setHint(compact(property.getHint()));
+	}
+
+	private Deprecation compact(Deprecation deprecation) {
+		if (deprecation == null) {
+			return null;
+		}
+		deprecation.setReason(share(deprecation.getReason()));
+		deprecation.setReplacement(share(deprecation.getReplacement()));
+		deprecation.setSince(share(deprecation.getSince()));
+		return share(deprecation);
+	}
+
+	private Hint compact(Hint hint) {
+		if (hint == null) {
+			return null;
+		}
+		hint.setName(share(hint.getName()));
+		hint.setValues(compactAll(hint.getValues(), this::compact));
+		hint.setProviders(compactAll(hint.getProviders(), this::compact));
+		hint.setValueProviders(compactAll(hint.getValueProviders(), this::compact));
+		return share(hint);
+	}
+
+	private HintValue compact(HintValue value) {
+		value.setValue(share(value.getValue()));
+		value.setDescription(share(value.getDescription()));
+		value.setReason(share(value.getReason()));
+		return share(value);
+	}
+
+	private HintProvider compact(HintProvider provider) {
+		provider.setName(share(provider.getName()));
+		return share(provider);
+	}
+
+	private HintValueProvider compact(HintValueProvider provider) {
+		provider.setName(share(provider.getName()));
+		return share(provider);
+	}
+
+	private <T> List<T> compactAll(List<T> items, UnaryOperator<T> compactor) {
+		if (items == null) {
+			return null;
+		}
+		List<T> compacted = new ArrayList<>(items.size());
+		for (T item : items) {
+			compacted.add((item != null) ? compactor.apply(item) : null);
+		}
+		return compacted;
+	}
+
+	/**
+	 * Returns the shared instance equal to the given value, registering the value if it
+	 * is the first of its kind.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T share(T value) {
+		if (value == null) {
+			return null;
+		}
+		Object existing = instances.putIfAbsent(value, value);
+		return (existing != null) ? (T) existing : value;
+	}
+
+}
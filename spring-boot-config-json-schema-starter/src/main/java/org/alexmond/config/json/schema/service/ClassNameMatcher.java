@@ -0,0 +1,179 @@
+package org.alexmond.config.json.schema.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches type names against a compiled list of class patterns, as used for the class and
+ * anchor exclusion lists. Supported patterns are:
+ * <ul>
+ * <li>{@code com.vendor.Type} - the exact type name, compared as written, including any
+ * generic arguments</li>
+ * <li>{@code com.vendor.*} - every type directly in package {@code com.vendor}</li>
+ * <li>{@code com.vendor.**} - every type in {@code com.vendor} or any of its
+ * sub-packages</li>
+ * <li>{@code com.vendor.Base+} - {@code Base} and every type assignable to it</li>
+ * </ul>
+ * Exact names are kept in a hash set and package patterns in a package trie, so a lookup
+ * costs one hash probe plus one step per package segment. Wildcard and hierarchy patterns
+ * are matched against the raw type, without generic arguments or array brackets.
+ * Hierarchy results are cached per type name. Instances are built per schema build and
+ * are not thread-safe.
+ */
+@Slf4j
+public final class ClassNameMatcher {
+
+	private final Set<String> exactNames = new HashSet<>();
+
+	private final PackageNode packages = new PackageNode();
+
+	private final List<Class<?>> baseTypes = new ArrayList<>();
+
+	private final Map<String, Boolean> hierarchyMatches = new HashMap<>();
+
+	private ClassNameMatcher() {
+	}
+
+	/**
+	 * Compiles the given pattern lists into a single matcher.
+	 * @param patternLists lists of class patterns, null lists are ignored
+	 * @return the compiled matcher
+	 */
+	@SafeVarargs
+	public static ClassNameMatcher compile(Collection<String>... patternLists) {
+		ClassNameMatcher matcher = new ClassNameMatcher();
+		for (Collection<String> patterns : patternLists) {
+			if (patterns != null) {
+				patterns.forEach(matcher::add);
+			}
+		}
+		return matcher;
+	}
+
+	private void add(String pattern) {
+		if (pattern == null || pattern.isBlank()) {
+			return;
+		}
+		String trimmed = pattern.trim();
+		if (trimmed.endsWith(".**")) {
+			packages.descend(trimmed.substring(0, trimmed.length() - 3)).recursive = true;
+		}
+		else if (trimmed.endsWith(".*")) {
+			packages.descend(trimmed.substring(0, trimmed.length() - 2)).direct = true;
+		}
+		else if (trimmed.endsWith("+")) {
+			String baseName = trimmed.substring(0, trimmed.length() - 1);
+			exactNames.add(baseName);
+			try {
+				baseTypes.add(ClassUtils.forName(baseName, null));
+			}
+			catch (ClassNotFoundException | LinkageError ex) {
+				log.debug("Cannot load base type {} of exclusion pattern {}", baseName, pattern);
+			}
+		}
+		else {
+			exactNames.add(trimmed);
+		}
+	}
+
+	/**
+	 * Returns whether the given type name matches any of the compiled patterns.
+	 * @param typeName the type name, possibly with generic arguments
+	 * @return true if the type matches
+	 */
+	public boolean matches(String typeName) {
+		if (typeName == null) {
+			return false;
+		}
+		if (exactNames.contains(typeName)) {
+			return true;
+		}
+		String rawName = rawName(typeName);
+		return packages.matches(rawName) || matchesHierarchy(rawName);
+	}
+
+	private boolean matchesHierarchy(String rawName) {
+		return !baseTypes.isEmpty() && hierarchyMatches.computeIfAbsent(rawName, (name) -> {
+			try {
+				Class<?> type = ClassUtils.forName(name, null);
+				return baseTypes.stream().anyMatch((base) -> base.isAssignableFrom(type));
+			}
+			catch (ClassNotFoundException | LinkageError ex) {
+				return false;
+			}
+		});
+	}
+
+	/**
+	 * Strips generic arguments and array brackets from a type name.
+	 */
+	static String rawName(String typeName) {
+		int end = typeName.length();
+		int generic = typeName.indexOf('<');
+		if (generic >= 0) {
+			end = generic;
+		}
+		int array = typeName.indexOf('[');
+		if (array >= 0 && array < end) {
+			end = array;
+		}
+		return typeName.substring(0, end).trim();
+	}
+
+	/**
+	 * Node of the package trie, one per package segment.
+	 */
+	private static final class PackageNode {
+
+		private final Map<String, PackageNode> children = new HashMap<>();
+
+		/**
+		 * Types directly in this package match.
+		 */
+		private boolean direct;
+
+		/**
+		 * Types in this package or any sub-package match.
+		 */
+		private boolean recursive;
+
+		PackageNode descend(String packageName) {
+			PackageNode node = this;
+			for (String segment : packageName.split("\\.")) {
+				node = node.children.computeIfAbsent(segment, (key) -> new PackageNode());
+			}
+			return node;
+		}
+
+		boolean matches(String rawName) {
+			int lastDot = rawName.lastIndexOf('.');
+			if (lastDot < 0 || children.isEmpty()) {
+				return false;
+			}
+			PackageNode node = this;
+			int start = 0;
+			while (start <= lastDot) {
+				int dot = rawName.indexOf('.', start);
+				node = node.children.get(rawName.substring(start, dot));
+				if (node == null) {
+					return false;
+				}
+				if (node.recursive) {
+					return true;
+				}
+				start = dot + 1;
+			}
+			return node.direct;
+		}
+
+	}
+
+}
@@ -1,26 +1,49 @@
 package org.alexmond.config.json.schema.service;
 
 import lombok.RequiredArgsConstructor;
+import org.alexmond.config.json.schema.config.JsonConfigSchemaConfig;
 import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaProperties;
 import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaType;
 import org.springframework.boot.logging.LogLevel;
 
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Helper class for creating standard JSON Schema definitions for common Java types. This
  * class provides predefined schema definitions for logger levels, locales, and character
- * sets that can be reused across the schema.
+ * sets that can be reused across the schema. The locale and charset value lists are
+ * computed once per JVM.
  */
 @RequiredArgsConstructor
 public class DefinitionsHelper {
 
+	/**
+	 * Matches {@link Locale#toString()} values such as {@code en}, {@code en_US},
+	 * {@code sr__#Latn} or {@code ja_JP_JP_#u-ca-japanese}, language tags such as
+	 * {@code en-US}, and the empty root locale.
+	 */
+	static final String LOCALE_PATTERN = "^([a-zA-Z]{2,8}([_-][a-zA-Z0-9]{0,8})*([_-]#[a-zA-Z0-9_-]+)?)?$";
+
+	/**
+	 * Matches the characters allowed in IANA charset names and aliases.
+	 */
+	static final String CHARSET_PATTERN = "^[A-Za-z0-9][A-Za-z0-9.:_+-]*$";
+
+	private static final List<String> COMMON_CHARSETS = List.of(StandardCharsets.UTF_8.name(),
+			StandardCharsets.US_ASCII.name(), StandardCharsets.ISO_8859_1.name(), StandardCharsets.UTF_16.name(),
+			StandardCharsets.UTF_16BE.name(), StandardCharsets.UTF_16LE.name());
+
+	private final JsonConfigSchemaConfig config;
+
 	private final JsonSchemaBuilderHelper helper;
 
 	/**
@@ -45,10 +68,9 @@ public class DefinitionsHelper {
 	 * @return JSON Schema properties defining the possible logger level values
 	 */
 	private JsonSchemaProperties getLoggerLevelDef() {
-		return JsonSchemaProperties.builder()
-			.type(JsonSchemaType.STRING)
-			.enumValues(helper.processEnumItem(LogLevel.class))
-			.build();
+		JsonSchemaProperties loggerLevel = JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build();
+		helper.processEnum(loggerLevel, LogLevel.class);
+		return loggerLevel;
 	}
 
 	/**
@@ -68,26 +90,43 @@ public class DefinitionsHelper {
 
 	/**
 	 * Creates a JSON Schema definition for Java Locales. Includes all available locales
-	 * from the Java runtime.
+	 * from the Java runtime, or a locale pattern when compact definitions are enabled.
 	 * @return JSON Schema properties defining the possible locale values
 	 */
 	private JsonSchemaProperties getLocalesDef() {
-		return JsonSchemaProperties.builder()
-			.type(JsonSchemaType.STRING)
-			.enumValues(Arrays.stream(Locale.getAvailableLocales()).map(Locale::toString).collect(Collectors.toSet()))
-			.build();
+		if (config.isCompactDefinitions()) {
+			return JsonSchemaProperties.builder().type(JsonSchemaType.STRING).pattern(LOCALE_PATTERN).build();
+		}
+		return JsonSchemaProperties.builder().type(JsonSchemaType.STRING).enumValues(RuntimeValues.LOCALES).build();
 	}
 
 	/**
 	 * Creates a JSON Schema definition for character sets. Includes all available
-	 * charsets from the Java runtime.
+	 * charsets from the Java runtime, or a charset name pattern with the standard
+	 * charsets as examples when compact definitions are enabled.
 	 * @return JSON Schema properties defining the possible charset values
 	 */
 	private JsonSchemaProperties getCharsetsDef() {
-		return JsonSchemaProperties.builder()
-			.type(JsonSchemaType.STRING)
-			.enumValues(Charset.availableCharsets().keySet())
-			.build();
+		if (config.isCompactDefinitions()) {
+			return JsonSchemaProperties.builder()
+				.type(JsonSchemaType.STRING)
+				.pattern(CHARSET_PATTERN)
+				.examples(COMMON_CHARSETS)
+				.build();
+		}
+		return JsonSchemaProperties.builder().type(JsonSchemaType.STRING).enumValues(RuntimeValues.CHARSETS).build();
+	}
+
+	/**
+	 * Locale and charset names of the running JVM, computed on first use.
+	 */
+	private static final class RuntimeValues {
+
+		static final Set<String> LOCALES = Collections.unmodifiableSet(
+				Arrays.stream(Locale.getAvailableLocales()).map(Locale::toString).collect(Collectors.toSet()));
+
+		static final Set<String> CHARSETS = Collections.unmodifiableSet(Charset.availableCharsets().keySet());
+
 	}
 
 }
@@ -0,0 +1,58 @@
+package org.alexmond.config.json.schema.service;
+
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A schema derived from a snapshot, such as a filtered view or an option variant, and its
+ * renderings, which are produced on first use.
+ */
+final class DerivedSchema {
+
+	private final long version;
+
+	private final CompactSchemaRoot schema;
+
+	/**
+	 * Renderings, indexed by
+	 * {@link RenderingCache#slot(SchemaFormat, boolean, SchemaEncoding)}.
+	 */
+	private final ConcurrentMap<Integer, RenderedSchema> renderings = new ConcurrentHashMap<>();
+
+	DerivedSchema(long version, CompactSchemaRoot schema) {
+		this.version = version;
+		this.schema = schema;
+	}
+
+	/**
+	 * Version of the snapshot the schema was derived from.
+	 */
+	long getVersion() {
+		return version;
+	}
+
+	CompactSchemaRoot getSchema() {
+		return schema;
+	}
+
+	/**
+	 * Returns the schema in the given format and content encoding, rendering and encoding
+	 * it on first use.
+	 */
+	RenderedSchema render(SchemaRenderer renderer, SchemaFormat format, boolean pretty, SchemaEncoding encoding) {
+		RenderedSchema plain = renderings.computeIfAbsent(RenderingCache.slot(format, pretty, SchemaEncoding.IDENTITY),
+				(slot) -> {
+					byte[] bytes = renderer.render(schema, format, pretty);
+					return RenderedSchema.of(format, SchemaEncoding.IDENTITY, version, bytes,
+							RenderedSchema.sha256(bytes));
+				});
+		if (encoding == SchemaEncoding.IDENTITY) {
+			return plain;
+		}
+		return renderings.computeIfAbsent(RenderingCache.slot(format, pretty, encoding),
+				(slot) -> SchemaRenderer.encodeDocument(plain, encoding));
+	}
+
+}
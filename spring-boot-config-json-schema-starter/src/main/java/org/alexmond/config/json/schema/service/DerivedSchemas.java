@@ -0,0 +1,110 @@
+package org.alexmond.config.json.schema.service;
+
+import org.alexmond.config.json.schema.jsonschemamodel.SchemaShards;
+import org.alexmond.config.json.schema.jsonschemamodel.ViewSpec;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * The schemas derived from one snapshot version, kept until the schema is rebuilt: the
+ * sharded schema and its renderings, the most recently used filtered views, the lean view
+ * and the option variants. Each lookup returns the first value cached for its key, so
+ * concurrent readers share one derived schema.
+ */
+final class DerivedSchemas {
+
+	/**
+	 * The sharded schema, split on first use.
+	 */
+	private final AtomicReference<SchemaShards> shards = new AtomicReference<>();
+
+	/**
+	 * Rendered shard documents, keyed by document name and slot.
+	 */
+	private final ConcurrentMap<String, RenderedSchema> shardRenderings = new ConcurrentHashMap<>();
+
+	/**
+	 * Recently used filtered views, in least recently used order.
+	 */
+	private final Map<ViewSpec, DerivedSchema> views;
+
+	/**
+	 * The lean view, kept apart from the recently used views so that it stays cached
+	 * alongside the full renderings.
+	 */
+	private final AtomicReference<DerivedSchema> lean = new AtomicReference<>();
+
+	/**
+	 * Option variants, keyed by their resolved options.
+	 */
+	private final ConcurrentMap<SchemaOptions, DerivedSchema> variants = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates an empty cache.
+	 * @param viewCacheSize the number of recently used views to keep
+	 */
+	DerivedSchemas(int viewCacheSize) {
+		views = lru(viewCacheSize);
+	}
+
+	SchemaShards getShards() {
+		return shards.get();
+	}
+
+	SchemaShards cacheShards(SchemaShards split) {
+		return shards.compareAndSet(null, split) ? split : shards.get();
+	}
+
+	/**
+	 * Returns the cached rendering of a shard document, rendering it on first use.
+	 */
+	RenderedSchema shardRendering(String key, Supplier<RenderedSchema> rendering) {
+		return shardRenderings.computeIfAbsent(key, (k) -> rendering.get());
+	}
+
+	DerivedSchema getView(ViewSpec spec) {
+		return spec.equals(ViewSpec.LEAN) ? lean.get() : views.get(spec);
+	}
+
+	DerivedSchema cacheView(ViewSpec spec, DerivedSchema view) {
+		DerivedSchema existing;
+		if (spec.equals(ViewSpec.LEAN)) {
+			existing = lean.compareAndSet(null, view) ? null : lean.get();
+		}
+		else {
+			existing = views.putIfAbsent(spec, view);
+		}
+		return (existing != null) ? existing : view;
+	}
+
+	DerivedSchema getVariant(SchemaOptions options) {
+		return variants.get(options);
+	}
+
+	DerivedSchema cacheVariant(SchemaOptions options, DerivedSchema variant) {
+		DerivedSchema existing = variants.putIfAbsent(options, variant);
+		return (existing != null) ? existing : variant;
+	}
+
+	/**
+	 * Creates a synchronized map that keeps at most {@code size} entries, evicting the
+	 * least recently used one.
+	 */
+	private static <K, V> Map<K, V> lru(int size) {
+		return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > size;
+			}
+
+		});
+	}
+
+}
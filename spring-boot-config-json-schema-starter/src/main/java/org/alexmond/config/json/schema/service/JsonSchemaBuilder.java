@@ -6,16 +6,21 @@ import org.alexmond.config.json.schema.config.JsonConfigSchemaConfig;
 import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaProperties;
 import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaRoot;
 import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaType;
+import org.alexmond.config.json.schema.jsonschemamodel.SchemaCanonicalizer;
 import org.alexmond.config.json.schema.metamodel.Deprecation;
 import org.alexmond.config.json.schema.metamodel.Property;
 import org.apache.commons.text.CaseUtils;
 import org.springframework.util.ReflectionUtils;
+import tools.jackson.core.JsonGenerator;
 
 import java.lang.reflect.Field;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.TreeMap;
 
 /**
@@ -58,19 +63,48 @@ public class JsonSchemaBuilder {
 
 	Map<String, JsonSchemaProperties> extraDefinitions;
 
-	private Set<String> anchors;
+	/**
+	 * Interned property paths and type names of the current build; the bit sets below are
+	 * indexed by its ids.
+	 */
+	private SymbolTable symbols;
+
+	private BitSet anchors;
 
-	private Set<String> defs;
+	private BitSet defs;
 
-	private Set<String> processedProp;
+	private BitSet processedProp;
+
+	/**
+	 * Types on the path of the leaf being processed, to prevent cycles. Each type is
+	 * cleared again once processed, so the set is empty between leaves and shared by all
+	 * leaves of a build.
+	 */
+	private BitSet visiting;
 
 	private Map<String, Property> allMeta;
 
+	private ClassNameMatcher excludedClasses;
+
+	private ClassNameMatcher allExcludedClasses;
+
+	private ClassNameMatcher excludedAnchors;
+
 	public JsonSchemaBuilder(JsonConfigSchemaConfig config, TypeMappingService typeMappingService) {
 		this.config = config;
 		this.typeMappingService = typeMappingService;
 		helper = new JsonSchemaBuilderHelper(config, typeMappingService);
-		definitionsHelper = new DefinitionsHelper(helper);
+		definitionsHelper = new DefinitionsHelper(config, helper);
+	}
+
+	/**
+	 * Creates a builder sharing the type mappings of this one but generating with the
+	 * given configuration.
+	 * @param config Configuration settings for the new builder
+	 * @return a new builder
+	 */
+	public JsonSchemaBuilder withConfig(JsonConfigSchemaConfig config) {
+		return new JsonSchemaBuilder(config, typeMappingService);
 	}
 
 	/**
@@ -80,12 +114,7 @@ public class JsonSchemaBuilder {
 	 * @return Map representing the complete JSON Schema structure
 	 */
 	public JsonSchemaRoot buildSchema(Map<String, Property> meta, List<String> included) {
-		allMeta = meta;
-		anchors = new HashSet<>();
-		defs = new HashSet<>();
-		processedProp = new HashSet<>();
-		definitions = null;
-		extraDefinitions = new TreeMap<>();
+		initBuild(meta);
 
 		log.info("Starting JSON schema generation");
 		JsonSchemaRoot schemaRoot = JsonSchemaRoot.builder()
@@ -100,14 +129,17 @@ public class JsonSchemaBuilder {
 		definitions = definitionsHelper.getDefinitions();
 
 		Map<String, JsonSchemaProperties> properties = new TreeMap<>();
-		meta.forEach((key, value) -> {
-			if (matchesIncluded(key, included) && !isDeprecatedError(value) && !processedProp.contains(key)) {
+		// Sorted, so that in anchor style the first type occurrence in the document holds
+		// the definition, whatever order the metadata was collected in
+		Map<String, Property> sortedMeta = (meta instanceof SortedMap) ? meta : new TreeMap<>(meta);
+		sortedMeta.forEach((key, value) -> {
+			if (isIncludedProperty(key, value, included)) {
 				addProperty(properties, key.split("\\."), 0, value);
 			}
 		});
 
 		if (config.isEnableDefinitionRefs()) {
-			defs.forEach((def) -> definitions.put(def, extraDefinitions.get(def).toBuilder().build()));
+			definitionNames().forEach((def) -> definitions.put(def, extraDefinitions.get(def).toBuilder().build()));
 			definitions.forEach((key, value) -> {
 			});
 			removeReferecedProperrties(properties, 0);
@@ -115,10 +147,158 @@ public class JsonSchemaBuilder {
 
 		schemaRoot.setDefinitions(definitions);
 		schemaRoot.setProperties(properties);
+		if (config.isCanonicalOutput()) {
+			SchemaCanonicalizer.canonicalize(schemaRoot);
+		}
 
 		return schemaRoot;
 	}
 
+	/**
+	 * Builds the JSON Schema and writes it straight to the given generator while walking
+	 * the sorted metadata, without materializing the whole schema tree. Properties are
+	 * grouped by their top-level segment; each group is built, written and released
+	 * before the next one starts, so peak heap stays close to the size of the metadata.
+	 * Only nodes that may end up in {@code $defs} are buffered until the end of the
+	 * document.
+	 *
+	 * <p>
+	 * Because top-level groups are written before later references are known, types that
+	 * are referenced through {@code $defs} keep their first occurrence inline (without
+	 * the {@code $anchor}) instead of being replaced with a {@code $ref}, and
+	 * {@code $defs} is written after {@code properties} rather than before it. The
+	 * resulting document validates the same configuration as the one produced by
+	 * {@link #buildSchema(Map, List)}, but is not structurally identical to it, so it
+	 * must not be compared with or cached in place of that document.
+	 * @param meta Map of property metadata keyed by property path
+	 * @param included List of property paths to include in the schema
+	 * @param generator Generator the schema document is written to
+	 */
+	public void writeSchema(Map<String, Property> meta, List<String> included, JsonGenerator generator) {
+		initBuild(meta);
+
+		log.info("Starting streaming JSON schema generation");
+		definitions = definitionsHelper.getDefinitions();
+
+		generator.writeStartObject();
+		generator.writePOJOProperty("$schema", config.getSchemaSpec());
+		generator.writePOJOProperty("$id", config.getSchemaId());
+		generator.writePOJOProperty("title", config.getTitle());
+		generator.writePOJOProperty("description", config.getDescription());
+		generator.writePOJOProperty("type", JsonSchemaType.OBJECT);
+
+		generator.writeName("properties");
+		generator.writeStartObject();
+		Map<String, Property> sortedMeta = (meta instanceof SortedMap) ? meta : new TreeMap<>(meta);
+		Map<String, JsonSchemaProperties> group = new TreeMap<>();
+		String currentGroup = null;
+		for (Map.Entry<String, Property> entry : sortedMeta.entrySet()) {
+			String key = entry.getKey();
+			if (!isIncludedProperty(key, entry.getValue(), included)) {
+				continue;
+			}
+			String[] path = key.split("\\.");
+			if (!path[0].equals(currentGroup)) {
+				writeGroup(group, generator);
+				currentGroup = path[0];
+			}
+			addProperty(group, path, 0, entry.getValue());
+		}
+		writeGroup(group, generator);
+		generator.writeEndObject();
+
+		if (config.isEnableDefinitionRefs()) {
+			definitionNames()
+				.forEach((def) -> definitions.put(def, extraDefinitions.get(def).toBuilder().anchor(def).build()));
+		}
+		if (config.isCanonicalOutput()) {
+			definitions = SchemaCanonicalizer.canonicalize(definitions);
+		}
+		generator.writePOJOProperty("$defs", definitions);
+		generator.writePOJOProperty("additionalProperties", config.isAllowAdditionalProperties());
+		generator.writeEndObject();
+		generator.flush();
+	}
+
+	private void writeGroup(Map<String, JsonSchemaProperties> group, JsonGenerator generator) {
+		boolean stripAnchors = config.isEnableDefinitionRefs() && !config.isEnableAnchorRefs();
+		if (config.isCanonicalOutput()) {
+			SchemaCanonicalizer.canonicalize(group);
+		}
+		group.forEach((key, value) -> {
+			if (stripAnchors) {
+				stripAnchors(value);
+			}
+			generator.writePOJOProperty(key, value);
+		});
+		generator.flush();
+		group.clear();
+	}
+
+	private void stripAnchors(JsonSchemaProperties node) {
+		node.setAnchor(null);
+		if (node.getProperties() != null) {
+			node.getProperties().values().forEach(this::stripAnchors);
+		}
+		if (node.getAdditionalProperties() instanceof JsonSchemaProperties additional) {
+			stripAnchors(additional);
+		}
+		if (node.getItems() != null) {
+			stripAnchors(node.getItems());
+		}
+	}
+
+	private void initBuild(Map<String, Property> meta) {
+		allMeta = meta;
+		symbols = new SymbolTable();
+		anchors = new BitSet();
+		defs = new BitSet();
+		processedProp = new BitSet();
+		visiting = new BitSet();
+		definitions = null;
+		extraDefinitions = new TreeMap<>();
+		excludedClasses = ClassNameMatcher.compile(config.getExcludeClasses());
+		allExcludedClasses = ClassNameMatcher.compile(config.getExcludeClasses(), config.getAdditionalExcludeClasses());
+		excludedAnchors = ClassNameMatcher.compile(config.getExcludeAnchors());
+		typeMappingService.compileOverrides();
+	}
+
+	/**
+	 * Releases the state kept from the last build: the metadata, the collected
+	 * definitions and the symbol table. The next build starts from scratch either way, so
+	 * this only frees memory between builds.
+	 */
+	public void release() {
+		allMeta = null;
+		symbols = null;
+		anchors = null;
+		defs = null;
+		processedProp = null;
+		visiting = null;
+		definitions = null;
+		extraDefinitions = null;
+		excludedClasses = null;
+		allExcludedClasses = null;
+		excludedAnchors = null;
+	}
+
+	private boolean isIncludedProperty(String key, Property value, List<String> included) {
+		return matchesIncluded(key, included) && !isDeprecatedError(value) && !isProcessed(key);
+	}
+
+	private boolean isProcessed(String key) {
+		int id = symbols.find(key);
+		return id >= 0 && processedProp.get(id);
+	}
+
+	/**
+	 * Returns the referenced definitions sorted by name, so that {@code $defs} has the
+	 * same order on every build.
+	 */
+	private List<String> definitionNames() {
+		return defs.stream().mapToObj(symbols::symbol).sorted().toList();
+	}
+
 	private void removeReferecedProperrties(Map<String, JsonSchemaProperties> properties, int depth) {
 
 		properties.forEach((key, value) -> {
@@ -164,7 +344,7 @@ public class JsonSchemaBuilder {
 		}
 		String key = path[idx];
 		if (idx == path.length - 1) {
-			if (config.getExcludeClasses().contains(prop.getType())) {
+			if (excludedClasses.matches(prop.getType())) {
 				log.warn("Excluding type {}. Skipping nested properties. for Property {}", prop.getName(),
 						prop.getType());
 			}
@@ -172,12 +352,12 @@ public class JsonSchemaBuilder {
 				JsonSchemaProperties jsonSchemaProperties = new JsonSchemaProperties();
 				Boolean processed;
 				if (node.get(key) == null) {
-					processed = processLeaf(jsonSchemaProperties, prop, new HashSet<>());
+					processed = processLeaf(jsonSchemaProperties, prop, visiting);
 				}
 				else {
 					log.info("Duplicate leaf {}", key);
 					jsonSchemaProperties = node.get(key);
-					processed = processLeaf(jsonSchemaProperties, prop, new HashSet<>());
+					processed = processLeaf(jsonSchemaProperties, prop, visiting);
 				}
 				if (processed) {
 					node.put(key, jsonSchemaProperties);
@@ -221,7 +401,7 @@ public class JsonSchemaBuilder {
 
 	private void addAnchor(String type, JsonSchemaProperties propNode) {
 		Class<?> classType;
-		if (config.getExcludeAnchors().contains(type)) {
+		if (excludedAnchors.matches(type)) {
 			return;
 		}
 
@@ -236,8 +416,9 @@ public class JsonSchemaBuilder {
 		if (propNode.getType() != JsonSchemaType.OBJECT) {
 			log.error("Setting anchor for type {} is not supported", propNode.getType());
 		}
-		var fixedTypeName = type.replace("$", ":");
-		if (anchors.contains(fixedTypeName)) {
+		int anchorId = symbols.anchorId(symbols.intern(type));
+		var fixedTypeName = symbols.symbol(anchorId);
+		if (anchors.get(anchorId)) {
 			log.error("Duplicate anchor type {}.", fixedTypeName);
 			return;
 		}
@@ -245,27 +426,29 @@ public class JsonSchemaBuilder {
 		if (config.isUseOpenapi()) {
 			helper.processClassOpenapi(propNode, classType);
 		}
-		anchors.add(fixedTypeName);
+		anchors.set(anchorId);
 		extraDefinitions.put(fixedTypeName, propNode);
 	}
 
 	private void removeAnchor(String type, JsonSchemaProperties propNode) {
-		var fixedTypeName = type.replace("$", ":");
+		int anchorId = symbols.anchorId(symbols.intern(type));
+		var fixedTypeName = symbols.symbol(anchorId);
 		propNode.setAnchor(null);
-		anchors.remove(fixedTypeName);
+		anchors.clear(anchorId);
 		extraDefinitions.remove(fixedTypeName);
 	}
 
 	private boolean addReference(JsonSchemaProperties jsonSchemaProperties, String type) {
-		var fixedTypeName = type.replace("$", ":");
-		if (anchors.contains(fixedTypeName) && jsonSchemaProperties.getAnchor() == null) {
+		int anchorId = symbols.anchorId(symbols.intern(type));
+		var fixedTypeName = symbols.symbol(anchorId);
+		if (anchors.get(anchorId) && jsonSchemaProperties.getAnchor() == null) {
 			if (config.isEnableAnchorRefs()) {
 				jsonSchemaProperties.setReference("#" + fixedTypeName);
 				return true;
 			}
 			else if (config.isEnableDefinitionRefs()) {
 				jsonSchemaProperties.setReference("#/$defs/" + fixedTypeName);
-				defs.add(fixedTypeName);
+				defs.set(anchorId);
 				return true;
 			}
 			else {
@@ -285,8 +468,8 @@ public class JsonSchemaBuilder {
 	 * information
 	 * @param prop Property metadata containing type, validation, and other configuration
 	 * details
-	 * @param visited Set of already processed types to prevent infinite recursion in
-	 * cyclic references
+	 * @param visited Symbol ids of the types being processed, to prevent infinite
+	 * recursion in cyclic references
 	 * @return True if property was processed successfully, false if processing should be
 	 * skipped
 	 *
@@ -301,8 +484,8 @@ public class JsonSchemaBuilder {
 	 * <li>OpenAPI and validation annotation processing</li>
 	 * </ul>
 	 */
-	private Boolean processLeaf(JsonSchemaProperties jsonSchemaProperties, Property prop, Set<String> visited) {
-		processedProp.add(prop.getName());
+	private Boolean processLeaf(JsonSchemaProperties jsonSchemaProperties, Property prop, BitSet visited) {
+		processedProp.set(symbols.intern(prop.getName()));
 		String propType;
 		Field field = null;
 
@@ -377,10 +560,7 @@ public class JsonSchemaBuilder {
 			}
 
 			if (propClazz != null && propClazz.isEnum()) {
-				Set<String> values = helper.processEnumItem(propClazz);
-				if (values != null) {
-					jsonSchemaProperties.setEnumValues(values);
-				}
+				helper.processEnum(jsonSchemaProperties, propClazz);
 				return true;
 			}
 		}
@@ -414,12 +594,9 @@ public class JsonSchemaBuilder {
 	 * @param prop Property metadata for the map
 	 * @param propType The full type description of the map
 	 * @param propDef The schema properties object to be updated
-	 * @param visited Set of visited types to prevent cycles
+	 * @param visited Symbol ids of the types being processed, to prevent cycles
 	 */
-	private void processMap(Property prop, String propType, JsonSchemaProperties propDef, Set<String> visited) {
-		if (visited == null) {
-			visited = new HashSet<>();
-		}
+	private void processMap(Property prop, String propType, JsonSchemaProperties propDef, BitSet visited) {
 		if (propType.contains("java.util.Properties")) {
 			addSimpleAdditionalProperties(propDef);
 			return;
@@ -454,7 +631,8 @@ public class JsonSchemaBuilder {
 						.type(JsonSchemaType.OBJECT)
 						.anchor(valueType)
 						.build();
-					anchors.add(valueType);
+					int valueTypeId = symbols.intern(valueType);
+					anchors.set(valueTypeId);
 					extraDefinitions.put(valueType, newProp);
 					Map<String, JsonSchemaProperties> valueJsonSchemaProperties = processComplexType(valueType, prop,
 							visited);
@@ -464,7 +642,7 @@ public class JsonSchemaBuilder {
 						extraDefinitions.put(valueType, newProp);
 					}
 					else {
-						anchors.remove(valueType);
+						anchors.clear(valueTypeId);
 						extraDefinitions.remove(valueType);
 						propDef.setAdditionalProperties(JsonSchemaProperties);
 					}
@@ -488,10 +666,10 @@ public class JsonSchemaBuilder {
 	 * @param prop Property metadata for the array
 	 * @param propType The full type description of the array
 	 * @param jsonSchemaProperties The schema properties object to be updated
-	 * @param visited Set of visited types to prevent cycles
+	 * @param visited Symbol ids of the types being processed, to prevent cycles
 	 */
 	private void processArray(Property prop, String propType, JsonSchemaProperties jsonSchemaProperties,
-			Set<String> visited) {
+			BitSet visited) {
 		if (propType.equals("java.lang.String[]")) {
 			jsonSchemaProperties.setItems(JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build());
 			return;
@@ -525,10 +703,7 @@ public class JsonSchemaBuilder {
 				}
 			}
 			else if (itemClass.isEnum()) {
-				Set<String> values = helper.processEnumItem(itemClass);
-				if (values != null) {
-					jsonSchemaPropertiesItem.setEnumValues(values);
-				}
+				helper.processEnum(jsonSchemaPropertiesItem, itemClass);
 			}
 			jsonSchemaProperties.setItems(jsonSchemaPropertiesItem);
 		}
@@ -553,21 +728,60 @@ public class JsonSchemaBuilder {
 		return false;
 	}
 
+	/**
+	 * Builds the nested properties of a complex type from its declared fields. Outside a
+	 * build it sets up the state of an empty one for the call and releases it afterwards.
+	 * @param type the type name
+	 * @param bootProp the property of that type
+	 * @param visited names of the types being processed, to prevent cycles; left
+	 * unchanged on return
+	 * @return the nested properties, or null if there are none or the type is excluded or
+	 * cyclic
+	 * @deprecated the builder tracks the types being processed itself; use
+	 * {@link #buildSchema(Map, List)} instead
+	 */
+	@Deprecated
 	public Map<String, JsonSchemaProperties> processComplexType(String type, Property bootProp, Set<String> visited) {
-		if (visited.contains(type)) {
+		boolean standalone = symbols == null;
+		if (standalone) {
+			initBuild(Map.of());
+		}
+		try {
+			BitSet visitedIds = new BitSet();
+			visited.forEach((name) -> visitedIds.set(symbols.intern(name)));
+			return processComplexType(type, bootProp, visitedIds);
+		}
+		finally {
+			if (standalone) {
+				release();
+			}
+		}
+	}
+
+	private Map<String, JsonSchemaProperties> processComplexType(String type, Property bootProp, BitSet visited) {
+		int typeId = symbols.intern(type);
+		if (visited.get(typeId)) {
 			log.warn("Detected cyclic reference for type: {}. Skipping nested properties. for Property {}", type,
 					bootProp.getName());
 			return null;
 		}
-		if (config.getAllExcludedClasses().contains(type)) {
+		if (allExcludedClasses.matches(type)) {
 			log.warn("Excluding type {}. Skipping nested properties. for Property {}", type, bootProp.getName());
 			return null;
 		}
-		visited.add(type);
+		visited.set(typeId);
 		Map<String, JsonSchemaProperties> newProperties = new TreeMap<>();
 		try {
 			Class<?> clazz = Class.forName(type);
-			for (Field field : clazz.getDeclaredFields()) {
+			// In property name order, like the document, rather than the unspecified
+			// reflection order, so that anchors land on the first occurrence in the
+			// document
+			Field[] fields = clazz.getDeclaredFields();
+			Arrays.sort(fields, Comparator.comparing((Field field) -> toKebabCase(field.getName())));
+			for (Field field : fields) {
+				if (isPresenceMask(field)) {
+					continue;
+				}
 				String fieldGenName;
 				try {
 					fieldGenName = field.getGenericType().getTypeName();
@@ -576,7 +790,7 @@ public class JsonSchemaBuilder {
 					log.debug("Type not present for field {} in class {}: {}", field.getName(), type, ex.getMessage());
 					continue;
 				}
-				if (config.getExcludeClasses().contains(fieldGenName)) {
+				if (excludedClasses.matches(fieldGenName)) {
 					log.warn("Excluding type {}. Skipping nested properties. for Property {}", fieldGenName,
 							bootProp.getName());
 				}
@@ -603,13 +817,22 @@ public class JsonSchemaBuilder {
 			log.debug("Type not found: {},{}", type, ex.getMessage());
 		}
 
-		visited.remove(type);
+		visited.clear(typeId);
 		if (newProperties.isEmpty()) {
 			return null;
 		}
 		return newProperties;
 	}
 
+	/**
+	 * Returns whether the field is the presence mask of {@link JsonSchemaProperties},
+	 * which is derived from the other fields and has no configuration property of its
+	 * own. Other fields, transient or not, are documented as before.
+	 */
+	private static boolean isPresenceMask(Field field) {
+		return JsonSchemaProperties.class.equals(field.getDeclaringClass()) && "presence".equals(field.getName());
+	}
+
 	public String extractListItemType(String type) {
 		if (type == null) {
 			return null;
@@ -18,6 +18,7 @@ import org.alexmond.config.json.schema.metamodel.Property;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -88,26 +89,106 @@ public class JsonSchemaBuilderHelper {
 		}
 	}
 
+	/**
+	 * Enum values per enum class, computed once per JVM.
+	 */
+	private static final ClassValue<Set<String>> ENUM_VALUES = new ClassValue<>() {
+		@Override
+		protected Set<String> computeValue(Class<?> type) {
+			Object[] enumConstants = type.getEnumConstants();
+			if (enumConstants == null) {
+				return Set.of();
+			}
+			return Collections.unmodifiableSet(Arrays.stream(enumConstants)
+				.flatMap((enumConstant) -> Arrays
+					.stream(new String[] { enumConstant.toString(), enumConstant.toString().toLowerCase() }))
+				.collect(Collectors.toSet()));
+		}
+	};
+
+	/**
+	 * Case-insensitive enum patterns per enum class, computed once per JVM.
+	 */
+	private static final ClassValue<String> ENUM_PATTERNS = new ClassValue<>() {
+		@Override
+		protected String computeValue(Class<?> type) {
+			Object[] enumConstants = type.getEnumConstants();
+			if (enumConstants == null || enumConstants.length == 0) {
+				return null;
+			}
+			return Arrays.stream(enumConstants)
+				.map((enumConstant) -> caseInsensitivePattern(enumConstant.toString()))
+				.collect(Collectors.joining("|", "^(", ")$"));
+		}
+	};
+
 	/**
 	 * Processes an enum class and returns a set of possible enum values. The returned set
-	 * includes both the original enum names and their lowercase versions.
+	 * includes both the original enum names and their lowercase versions. The set is
+	 * computed once per enum class and shared, so it is unmodifiable.
 	 * @param itemClass The enum class to process
 	 * @return Set of enum values, or null if the class is not an enum
 	 */
 	public Set<String> processEnumItem(Class<?> itemClass) {
 		log.debug("Processing enum values for property: {}", itemClass.getCanonicalName());
 		if (itemClass.isEnum()) {
-			Object[] enumConstants = itemClass.getEnumConstants();
-			if (enumConstants != null) {
-				return Arrays.stream(enumConstants)
-					.flatMap((enumConstant) -> Arrays
-						.stream(new String[] { enumConstant.toString(), enumConstant.toString().toLowerCase() }))
-					.collect(Collectors.toSet());
-			}
+			Set<String> values = ENUM_VALUES.get(itemClass);
+			return values.isEmpty() ? null : values;
 		}
 		return null;
 	}
 
+	/**
+	 * Restricts the given schema to the values of an enum class. By default the enum
+	 * names and their lowercase versions are listed in {@code enum}; with compact
+	 * definitions enabled a single case-insensitive {@code pattern} is used instead,
+	 * which also accepts the mixed-case and dashed forms Spring Boot binds to enums.
+	 * @param jsonSchemaProperties The schema to update
+	 * @param itemClass The enum class to process
+	 */
+	public void processEnum(JsonSchemaProperties jsonSchemaProperties, Class<?> itemClass) {
+		if (config.isCompactDefinitions()) {
+			String pattern = itemClass.isEnum() ? ENUM_PATTERNS.get(itemClass) : null;
+			if (pattern != null) {
+				jsonSchemaProperties.setPattern(pattern);
+			}
+			return;
+		}
+		Set<String> values = processEnumItem(itemClass);
+		if (values != null) {
+			jsonSchemaProperties.setEnumValues(values);
+		}
+	}
+
+	/**
+	 * Builds a regular expression matching the given enum name in any letter case, with
+	 * {@code _} and {@code -} treated as equivalent. Character classes are used instead
+	 * of a case-insensitive flag, which JSON Schema patterns do not support.
+	 * @param name The enum name
+	 * @return The pattern for the name
+	 */
+	static String caseInsensitivePattern(String name) {
+		StringBuilder pattern = new StringBuilder(name.length() * 4);
+		for (int i = 0; i < name.length(); i++) {
+			char ch = name.charAt(i);
+			char upper = Character.toUpperCase(ch);
+			char lower = Character.toLowerCase(ch);
+			if (ch == '_' || ch == '-') {
+				pattern.append("[_-]");
+			}
+			else if (upper != lower) {
+				pattern.append('[').append(upper).append(lower).append(']');
+			}
+			else if ("\\^$.|?*+()[]{}/".indexOf(ch) >= 0) {
+				pattern.append('\\').append(ch);
+			}
+			else {
+				pattern.append(ch);
+			}
+		}
+		return pattern.toString();
+	}
+
 	/**
 	 * Processes validation annotations on a field and updates the JSON schema properties
 	 * accordingly. Handles Jakarta validation annotations such
@@ -1,23 +1,42 @@
 package org.alexmond.config.json.schema.service;
 
-import lombok.RequiredArgsConstructor;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.alexmond.config.json.schema.config.JsonConfigSchemaConfig;
+import org.alexmond.config.json.schema.config.SchemaRetention;
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
 import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaRoot;
+import org.alexmond.config.json.schema.jsonschemamodel.ReferenceStyle;
+import org.alexmond.config.json.schema.jsonschemamodel.SchemaShards;
+import org.alexmond.config.json.schema.jsonschemamodel.SchemaSnapshot;
+import org.alexmond.config.json.schema.jsonschemamodel.ViewSpec;
 import org.alexmond.config.json.schema.metaextension.BootConfigMetaLoader;
 import org.alexmond.config.json.schema.metamodel.BootConfigMeta;
 import org.alexmond.config.json.schema.metamodel.Property;
+import org.springframework.beans.BeanUtils;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.dataformat.yaml.YAMLMapper;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service responsible for generating JSON Schema from Spring Boot configuration metadata.
@@ -25,9 +44,13 @@ import java.util.Map;
  * the valid configuration options for a Spring Boot application.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class JsonSchemaService {
 
+	/**
+	 * Formats pre-rendered in bytes-only mode. Binary formats are rendered on first use.
+	 */
+	private static final SchemaFormat[] TEXT_FORMATS = { SchemaFormat.JSON, SchemaFormat.YAML };
+
 	private final JsonConfigSchemaConfig config;
 
 	private final ConfigurationPropertyCollector propertyCollector;
@@ -38,16 +61,210 @@ public class JsonSchemaService {
 
 	private final BootConfigMetaLoader bootConfigMetaLoader = new BootConfigMetaLoader();
 
-	private JsonSchemaRoot schemaCache;
+	private final SchemaRenderer renderer;
+
+	/**
+	 * The currently published schema, in the form the {@link SchemaRetention} policy
+	 * keeps it. Readers only ever read this reference and never lock; builds swap in a
+	 * complete new value.
+	 */
+	private final AtomicReference<RetainedSchema> retained = new AtomicReference<>();
+
+	/**
+	 * Serializes builds, since the schema builder keeps per-build state.
+	 */
+	private final ReentrantLock buildLock = new ReentrantLock();
+
+	/**
+	 * The file store of the render directory, created on first use.
+	 */
+	private final AtomicReference<SchemaFileStore> fileStore = new AtomicReference<>();
+
+	public JsonSchemaService(JsonConfigSchemaConfig config, ConfigurationPropertyCollector propertyCollector,
+			JsonSchemaBuilder schemaBuilder, MissingTypeCollector missingTypeCollector) {
+		this.config = config;
+		this.propertyCollector = propertyCollector;
+		this.schemaBuilder = schemaBuilder;
+		this.missingTypeCollector = missingTypeCollector;
+		renderer = new SchemaRenderer(config);
+	}
+
+	/**
+	 * Returns the generated schema as a mutable {@link JsonSchemaRoot} tree. The schema
+	 * is built on first use and cached in its compact form; each call materializes a new
+	 * copy, so changes made by the caller do not affect the cached schema.
+	 * @return a mutable copy of the cached schema
+	 */
+	public JsonSchemaRoot materializeSchema() {
+		return getCompactSchema().toSchemaRoot();
+	}
 
+	/**
+	 * Returns the generated schema as a mutable {@link JsonSchemaRoot} tree. Despite its
+	 * name this no longer returns the cached schema: every call copies the whole tree out
+	 * of the compact snapshot, which costs as much memory as the schema itself.
+	 * @return a mutable copy of the cached schema
+	 * @deprecated use {@link #getCompactSchema()} to read the cached schema without
+	 * copying it, or {@link #materializeSchema()} if a mutable copy is needed
+	 */
+	@Deprecated
 	public JsonSchemaRoot getSchemaCache() {
-		if (schemaCache == null) {
-			Map<String, Property> meta = collectMetadata();
-			List<String> included = propertyCollector.collectIncludedPropertyNames();
+		return materializeSchema();
+	}
+
+	/**
+	 * Returns the cached schema in its compact form, building it on first use or when the
+	 * retention policy has released it. The full {@link JsonSchemaRoot} tree produced by
+	 * the builder is only kept until it has been converted.
+	 * @return the compact cached schema
+	 */
+	public CompactSchemaRoot getCompactSchema() {
+		return getSnapshot().getSchema();
+	}
+
+	/**
+	 * Returns the currently published schema snapshot, building the first one if needed.
+	 * Once a snapshot exists this method does not lock, and the returned snapshot stays
+	 * valid and unchanged even if the schema is rebuilt concurrently. If the retention
+	 * policy released the schema tree, it is regenerated and kept under the policy's
+	 * reference again. A regenerated tree keeps the published version only if it renders
+	 * to the published JSON document; if the metadata changed meanwhile it is published
+	 * as a new version, so that documents cached per version never mix two trees.
+	 * @return the current schema snapshot
+	 */
+	public SchemaSnapshot getSnapshot() {
+		SchemaSnapshot current = snapshotOf(retained.get());
+		if (current != null) {
+			return current;
+		}
+		buildLock.lock();
+		try {
+			RetainedSchema published = retained.get();
+			current = snapshotOf(published);
+			if (current == null) {
+				current = buildSnapshot((published != null) ? published.version : 1);
+				if (published != null && !rendersAsPublished(current, published)) {
+					current = new SchemaSnapshot(current.getSchema(), published.version + 1);
+				}
+				retained.set(retain(current, published));
+			}
+			return current;
+		}
+		finally {
+			buildLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns whether a regenerated tree renders to the JSON document published for its
+	 * version. Policies that release the tree always keep the hash of that document.
+	 */
+	private boolean rendersAsPublished(SchemaSnapshot regenerated, RetainedSchema published) {
+		String hash = published.renderings
+			.getHash(RenderingCache.slot(SchemaFormat.JSON, true, SchemaEncoding.IDENTITY));
+		return hash != null && hash
+			.equals(RenderedSchema.sha256(renderer.render(regenerated.getSchema(), SchemaFormat.JSON, true)));
+	}
+
+	/**
+	 * Rebuilds the schema from the current metadata and atomically publishes it as a new
+	 * snapshot. Readers keep using the previous snapshot until the new one is complete.
+	 * @return the newly published snapshot
+	 */
+	public SchemaSnapshot refresh() {
+		buildLock.lock();
+		try {
+			RetainedSchema previous = retained.get();
+			SchemaSnapshot current = buildSnapshot((previous != null) ? previous.version + 1 : 1);
+			retained.set(retain(current, previous));
+			return current;
+		}
+		finally {
+			buildLock.unlock();
+		}
+	}
+
+	private static SchemaSnapshot snapshotOf(RetainedSchema retainedSchema) {
+		if (retainedSchema == null) {
+			return null;
+		}
+		if (retainedSchema.snapshot != null) {
+			return retainedSchema.snapshot;
+		}
+		return (retainedSchema.snapshotReference != null) ? retainedSchema.snapshotReference.get() : null;
+	}
 
-			schemaCache = schemaBuilder.buildSchema(meta, included);
+	private SchemaSnapshot buildSnapshot(long version) {
+		Map<String, Property> meta = collectMetadata();
+		List<String> included = propertyCollector.collectIncludedPropertyNames();
+
+		CompactSchemaRoot schema;
+		try {
+			schema = CompactSchemaRoot.of(schemaBuilder.buildSchema(meta, included));
+		}
+		finally {
+			schemaBuilder.release();
+		}
+		if (config.getMissingTypeLog()) {
+			missingTypeCollector.getMissingTypes().forEach((type) -> log.info("Missing types: {}", type));
+		}
+		return new SchemaSnapshot(schema, version);
+	}
+
+	/**
+	 * Wraps a newly built snapshot according to the retention policy. Documents already
+	 * rendered for the same version are carried over from {@code previous}.
+	 */
+	private RetainedSchema retain(SchemaSnapshot current, RetainedSchema previous) {
+		boolean sameVersion = previous != null && previous.version == current.getVersion();
+		RenderingCache renderings = sameVersion ? previous.renderings
+				: new RenderingCache(current.getVersion(), (previous != null) ? previous.renderings : null);
+		DerivedSchemas derived = sameVersion ? previous.derived : new DerivedSchemas(config.getViewCacheSize());
+		RetainedSchema retainedSchema = switch (config.getSchemaRetention()) {
+			case FULL -> new RetainedSchema(current.getVersion(), current, null, renderings, derived);
+			case SOFT ->
+				new RetainedSchema(current.getVersion(), null, new SoftReference<>(current), renderings, derived);
+			case BYTES_ONLY ->
+				new RetainedSchema(current.getVersion(), null, new WeakReference<>(current), renderings, derived);
+		};
+		if (config.getSchemaRetention() == SchemaRetention.BYTES_ONLY) {
+			// Rendered up front, to the render directory if there is one
+			for (SchemaFormat format : TEXT_FORMATS) {
+				prerender(retainedSchema, current, format);
+			}
+		}
+		else if (config.getSchemaRetention() == SchemaRetention.SOFT) {
+			// The hash of the JSON document identifies the content of a regenerated tree
+			int reference = RenderingCache.slot(SchemaFormat.JSON, true, SchemaEncoding.IDENTITY);
+			if (renderings.getHash(reference) == null) {
+				renderings.cacheHash(reference,
+						RenderedSchema.sha256(renderer.render(current.getSchema(), SchemaFormat.JSON, true)));
+			}
+		}
+		return retainedSchema;
+	}
+
+	/**
+	 * Renders the indented document of the given format and keeps it in the render
+	 * directory if one is configured, or on the heap otherwise, along with its hash.
+	 */
+	private void prerender(RetainedSchema retainedSchema, SchemaSnapshot current, SchemaFormat format) {
+		RenderingCache renderings = retainedSchema.renderings;
+		int slot = RenderingCache.slot(format, true, SchemaEncoding.IDENTITY);
+		if (renderings.getHash(slot) != null && renderings.contains(slot)) {
+			return;
+		}
+		byte[] bytes = renderer.render(current.getSchema(), format, true);
+		String hash = RenderedSchema.sha256(bytes);
+		renderings.cacheHash(slot, hash);
+		SchemaFileStore store = fileStore();
+		if (store != null) {
+			renderings.store(store,
+					RenderedSchema.of(format, SchemaEncoding.IDENTITY, current.getVersion(), bytes, hash), true);
+		}
+		else {
+			renderings.cacheContent(slot, bytes);
 		}
-		return schemaCache;
 	}
 
 	/**
@@ -56,7 +273,7 @@ public class JsonSchemaService {
 	 * @return A string containing the JSON Schema in pretty-printed JSON format
 	 */
 	public String generateFullSchemaJson() {
-		return generateFullSchema(JsonMapper.builder().build());
+		return new String(renderedSchema(SchemaFormat.JSON, true), StandardCharsets.UTF_8);
 	}
 
 	/**
@@ -65,30 +282,511 @@ public class JsonSchemaService {
 	 * @return A string containing the JSON Schema in pretty-printed YAML format
 	 */
 	public String generateFullSchemaYaml() {
-		return generateFullSchema(YAMLMapper.builder().build());
+		return new String(renderedSchema(SchemaFormat.YAML, true), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the current schema rendered in the given format, as UTF-8 for text formats.
+	 * Renderings are cached per format and variant for the current snapshot version, so
+	 * repeated calls only copy the cached document.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @return a copy of the rendered document
+	 */
+	public byte[] getSchemaBytes(SchemaFormat format, boolean pretty) {
+		return renderedSchema(format, pretty).clone();
+	}
+
+	/**
+	 * Returns the current schema rendered in the given format, as a stream over the
+	 * cached document. No copy of the document is made.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @return a stream over the rendered document
+	 */
+	public InputStream getSchemaStream(SchemaFormat format, boolean pretty) {
+		return new ByteArrayInputStream(renderedSchema(format, pretty));
+	}
+
+	/**
+	 * Writes the current schema as pretty-printed UTF-8 to the given stream. The cached
+	 * rendering is written as is, so no {@link String} is created and nothing is encoded
+	 * again. The stream is not closed.
+	 * @param out the stream to write to
+	 * @param format the output format
+	 * @throws IOException if writing fails
+	 */
+	public void writeSchema(OutputStream out, SchemaFormat format) throws IOException {
+		writeSchema(out, format, true);
+	}
+
+	/**
+	 * Writes the current schema as UTF-8 to the given stream. The cached rendering is
+	 * written as is, so no {@link String} is created and nothing is encoded again. The
+	 * stream is not closed.
+	 * @param out the stream to write to
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @throws IOException if writing fails
+	 */
+	public void writeSchema(OutputStream out, SchemaFormat format, boolean pretty) throws IOException {
+		out.write(renderedSchema(format, pretty));
+		out.flush();
+	}
+
+	/**
+	 * Writes the current schema as pretty-printed UTF-8 to the given channel. The channel
+	 * is not closed.
+	 * @param channel the channel to write to
+	 * @param format the output format
+	 * @throws IOException if writing fails
+	 */
+	public void writeSchema(WritableByteChannel channel, SchemaFormat format) throws IOException {
+		writeSchema(channel, format, true);
+	}
+
+	/**
+	 * Writes the current schema as UTF-8 to the given channel, wrapping the cached
+	 * rendering without copying it. The channel is not closed.
+	 * @param channel the channel to write to
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @throws IOException if writing fails
+	 */
+	public void writeSchema(WritableByteChannel channel, SchemaFormat format, boolean pretty) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(renderedSchema(format, pretty)).asReadOnlyBuffer();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Returns the current schema in the given format, in the preferred content encoding
+	 * accepted by the client. Compressed variants are produced once per snapshot version
+	 * and cached, so serving them costs no compression per request.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param acceptEncoding the {@code Accept-Encoding} request header, may be null
+	 * @return the rendered schema with its response headers
+	 */
+	public RenderedSchema getRenderedSchemaForAcceptEncoding(SchemaFormat format, boolean pretty,
+			String acceptEncoding) {
+		return getRenderedSchema(format, pretty, SchemaEncoding.select(acceptEncoding));
+	}
+
+	/**
+	 * Returns the current schema in the given format and content encoding, rendering and
+	 * encoding it on first use. The content hash is computed from the cached plain
+	 * rendering once per snapshot version.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param encoding the content encoding
+	 * @return the rendered schema with its response headers
+	 */
+	public RenderedSchema getRenderedSchema(SchemaFormat format, boolean pretty, SchemaEncoding encoding) {
+		RetainedSchema current = publishedSchema();
+		RenderedSchema plain = plainRendering(current, format, pretty);
+		String hash = current.renderings.contentHash(plain, pretty);
+		byte[] content = (encoding != SchemaEncoding.IDENTITY) ? current.renderings.encode(plain, pretty, encoding)
+				: plain.content;
+		return RenderedSchema.of(format, encoding, plain.getVersion(), content, hash);
+	}
+
+	/**
+	 * Returns the current schema in the given format as a file in the configured render
+	 * directory, in the preferred content encoding accepted by the client. The file is
+	 * written once per snapshot version and atomically moved into place, so it can be
+	 * served with zero-copy file transfer and stays out of the heap while serving.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param acceptEncoding the {@code Accept-Encoding} request header, may be null
+	 * @return the stored schema, or null if no render directory is configured
+	 * @see JsonConfigSchemaConfig#getRenderDirectory()
+	 */
+	public StoredSchema getStoredSchemaForAcceptEncoding(SchemaFormat format, boolean pretty, String acceptEncoding) {
+		return getStoredSchema(format, pretty, SchemaEncoding.select(acceptEncoding));
+	}
+
+	/**
+	 * Returns the current schema in the given format and content encoding as a file in
+	 * the configured render directory, writing it on first use. Once a rebuild changes
+	 * the document, the file of the replaced version is deleted when the new one is
+	 * stored.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param encoding the content encoding
+	 * @return the stored schema, or null if no render directory is configured
+	 */
+	public StoredSchema getStoredSchema(SchemaFormat format, boolean pretty, SchemaEncoding encoding) {
+		SchemaFileStore store = fileStore();
+		if (store == null) {
+			return null;
+		}
+		RetainedSchema current = publishedSchema();
+		StoredSchema stored = current.renderings.getStored(RenderingCache.slot(format, pretty, encoding));
+		if (stored != null) {
+			return stored;
+		}
+		if (encoding != SchemaEncoding.IDENTITY) {
+			// Stores the plain document first, so it is encoded from its file rather than
+			// kept on the heap
+			getStoredSchema(format, pretty, SchemaEncoding.IDENTITY);
+		}
+		return current.renderings.store(store, getRenderedSchema(format, pretty, encoding), pretty);
+	}
+
+	/**
+	 * Returns the file store of the configured render directory, creating it on first
+	 * use, which deletes the files left over by earlier processes.
+	 * @return the file store, or null if no render directory is configured
+	 */
+	private SchemaFileStore fileStore() {
+		String directory = config.getRenderDirectory();
+		if (directory == null || directory.isBlank()) {
+			return null;
+		}
+		SchemaFileStore store = fileStore.get();
+		if (store == null) {
+			fileStore.compareAndSet(null, new SchemaFileStore(Path.of(directory)));
+			store = fileStore.get();
+		}
+		return store;
+	}
+
+	/**
+	 * Returns the current schema in the given format and content encoding if it has
+	 * already been rendered, encoded and hashed, without building or rendering anything,
+	 * so callers on non-blocking threads can serve it directly.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param encoding the content encoding
+	 * @return the rendered schema, or null if it is not available yet
+	 */
+	RenderedSchema findRenderedSchema(SchemaFormat format, boolean pretty, SchemaEncoding encoding) {
+		RetainedSchema current = retained.get();
+		return (current != null) ? current.renderings.find(format, pretty, encoding) : null;
+	}
+
+	/**
+	 * Returns the current schema if its content hash is the given one, for serving
+	 * content-addressed URLs. Older hashes are not kept, so they never match and never
+	 * cause a rebuild.
+	 * @param contentHash the SHA-256 content hash from the URL
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param acceptEncoding the {@code Accept-Encoding} request header, may be null
+	 * @return the rendered schema, or null if the current schema has a different hash
+	 */
+	public RenderedSchema getRenderedSchema(String contentHash, SchemaFormat format, boolean pretty,
+			String acceptEncoding) {
+		RenderedSchema rendered = getRenderedSchemaForAcceptEncoding(format, pretty, acceptEncoding);
+		return rendered.getContentHash().equalsIgnoreCase(contentHash) ? rendered : null;
+	}
+
+	/**
+	 * Returns the current schema split into one document per top-level property prefix, a
+	 * definitions document and an index. The shards are split on first use and kept with
+	 * the snapshot they were split from.
+	 * @return the shards of the current snapshot
+	 */
+	public SchemaShards getSchemaShards() {
+		return shardsOf(publishedSchema());
+	}
+
+	/**
+	 * Returns one document of the sharded schema in the given format, in the preferred
+	 * content encoding accepted by the client. Each document has its own content hash, so
+	 * documents that did not change between snapshots keep their entity tag.
+	 * @param name the document name of a top-level prefix, see
+	 * {@link SchemaShards#documentName(String)}, {@link SchemaShards#DEFINITIONS} or
+	 * {@link SchemaShards#INDEX}
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param acceptEncoding the {@code Accept-Encoding} request header, may be null
+	 * @return the rendered document, or null if there is no document with that name
+	 */
+	public RenderedSchema getRenderedShard(String name, SchemaFormat format, boolean pretty, String acceptEncoding) {
+		RetainedSchema current = publishedSchema();
+		SchemaShards shards = shardsOf(current);
+		Map<String, Object> document = shards.getDocument(name);
+		if (document == null) {
+			return null;
+		}
+		boolean cacheable = shards.getVersion() == current.version;
+		String key = name + '/' + RenderingCache.slot(format, pretty, SchemaEncoding.IDENTITY);
+		RenderedSchema plain = cacheable
+				? current.derived.shardRendering(key,
+						() -> SchemaRenderer.renderDocument(document, format, pretty, shards.getVersion()))
+				: SchemaRenderer.renderDocument(document, format, pretty, shards.getVersion());
+		SchemaEncoding encoding = SchemaEncoding.select(acceptEncoding);
+		if (encoding == SchemaEncoding.IDENTITY) {
+			return plain;
+		}
+		String encodedKey = name + '/' + RenderingCache.slot(format, pretty, encoding);
+		return cacheable
+				? current.derived.shardRendering(encodedKey, () -> SchemaRenderer.encodeDocument(plain, encoding))
+				: SchemaRenderer.encodeDocument(plain, encoding);
+	}
+
+	/**
+	 * Returns a filtered view of the current schema. Views are pruned from the frozen
+	 * snapshot without rebuilding it, and the most recently used ones are kept, together
+	 * with their renderings, until the schema is rebuilt.
+	 * @param spec the view to return
+	 * @return the filtered schema
+	 * @see JsonConfigSchemaConfig#getViewCacheSize()
+	 */
+	public CompactSchemaRoot getView(ViewSpec spec) {
+		return cachedView(publishedSchema(), spec).getSchema();
+	}
+
+	/**
+	 * Returns a filtered view of the current schema in the given format, in the preferred
+	 * content encoding accepted by the client.
+	 * @param spec the view to return
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param acceptEncoding the {@code Accept-Encoding} request header, may be null
+	 * @return the rendered view with its response headers
+	 */
+	public RenderedSchema getRenderedView(ViewSpec spec, SchemaFormat format, boolean pretty, String acceptEncoding) {
+		if (spec.isAll()) {
+			return getRenderedSchemaForAcceptEncoding(format, pretty, acceptEncoding);
+		}
+		return render(cachedView(publishedSchema(), spec), format, pretty, acceptEncoding);
+	}
+
+	/**
+	 * Returns the lean view of the current schema: the whole schema without descriptions,
+	 * examples, {@code $comment} and {@code x-deprecation}, for tools that only check
+	 * values against it. The lean view and its renderings stay cached until the schema is
+	 * rebuilt.
+	 * @return the lean schema
+	 * @see ViewSpec#LEAN
+	 */
+	public CompactSchemaRoot getLeanSchema() {
+		return getView(ViewSpec.LEAN);
+	}
+
+	/**
+	 * Returns the lean view of the current schema in the given format, in the preferred
+	 * content encoding accepted by the client.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param acceptEncoding the {@code Accept-Encoding} request header, may be null
+	 * @return the rendered lean schema with its response headers
+	 * @see #getLeanSchema()
+	 */
+	public RenderedSchema getRenderedLeanSchema(SchemaFormat format, boolean pretty, String acceptEncoding) {
+		return getRenderedView(ViewSpec.LEAN, format, pretty, acceptEncoding);
 	}
 
 	/**
-	 * Generates a complete JSON Schema representation using the specified ObjectMapper.
-	 * This method implements the core schema generation logic and supports both JSON and
-	 * YAML output formats. The generated schema is cached to avoid redundant generation
-	 * of the same schema.
-	 * @param mapper The ObjectMapper instance to use for serialization (can be configured
-	 * for JSON or YAML output)
-	 * @return A string containing the schema in the format determined by the provided
-	 * ObjectMapper
+	 * Reports how much smaller a view of the current schema is than the full schema when
+	 * both are rendered in the given format. Both renderings are taken from the cache, so
+	 * a report costs nothing once they exist.
+	 * @param spec the view to compare, such as {@link ViewSpec#LEAN}
+	 * @param format the output format
+	 * @param pretty whether the documents are indented
+	 * @return the size report
 	 */
-	private String generateFullSchema(ObjectMapper mapper) {
-		if (schemaCache == null) {
-			Map<String, Property> meta = collectMetadata();
-			List<String> included = propertyCollector.collectIncludedPropertyNames();
+	public SchemaSizeReport getSizeReport(ViewSpec spec, SchemaFormat format, boolean pretty) {
+		RenderedSchema view = getRenderedView(spec, format, pretty, null);
+		RenderedSchema full = getRenderedSchema(format, pretty, SchemaEncoding.IDENTITY);
+		return new SchemaSizeReport(format, view.getVersion(), full.getContentLength(), view.getContentLength());
+	}
+
+	/**
+	 * Returns a variant of the current schema generated with the given options. Variants
+	 * that only differ in presentation, such as the reference style, are derived from a
+	 * build with definition references, so offering several of them costs one build;
+	 * variants with different annotation processing are built once each. Variants are
+	 * kept until the schema is rebuilt.
+	 * @param options the generator options, unset options keep the configured value
+	 * @return the schema variant
+	 */
+	public CompactSchemaRoot getVariant(SchemaOptions options) {
+		SchemaOptions resolved = options.resolve(config);
+		if (resolved.equals(SchemaOptions.of(config))) {
+			return getCompactSchema();
+		}
+		return variant(publishedSchema(), resolved).getSchema();
+	}
+
+	/**
+	 * Returns a variant of the current schema in the given format, in the preferred
+	 * content encoding accepted by the client.
+	 * @param options the generator options, unset options keep the configured value
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param acceptEncoding the {@code Accept-Encoding} request header, may be null
+	 * @return the rendered variant with its response headers
+	 * @see #getVariant(SchemaOptions)
+	 */
+	public RenderedSchema getRenderedVariant(SchemaOptions options, SchemaFormat format, boolean pretty,
+			String acceptEncoding) {
+		SchemaOptions resolved = options.resolve(config);
+		if (resolved.equals(SchemaOptions.of(config))) {
+			return getRenderedSchemaForAcceptEncoding(format, pretty, acceptEncoding);
+		}
+		return render(variant(publishedSchema(), resolved), format, pretty, acceptEncoding);
+	}
 
-			schemaCache = schemaBuilder.buildSchema(meta, included);
-			if (config.getMissingTypeLog()) {
-				missingTypeCollector.getMissingTypes().forEach((type) -> log.info("Missing types: {}", type));
+	/**
+	 * Returns the cached variant for the given resolved options. The variant is derived
+	 * from the canonical variant with the same content, which is the snapshot itself when
+	 * the configuration is canonical and a separate build otherwise.
+	 */
+	private DerivedSchema variant(RetainedSchema current, SchemaOptions options) {
+		DerivedSchema variant = current.derived.getVariant(options);
+		if (variant != null) {
+			return variant;
+		}
+		SchemaOptions canonical = options.canonical(config);
+		if (canonical.equals(SchemaOptions.of(config))) {
+			SchemaSnapshot source = snapshotOf(current);
+			if (source == null) {
+				source = getSnapshot();
 			}
+			variant = new DerivedSchema(source.getVersion(), derive(source.getSchema(), options));
+		}
+		else if (options.equals(canonical)) {
+			variant = new DerivedSchema(current.version, buildVariant(options));
+		}
+		else {
+			DerivedSchema base = variant(current, canonical);
+			variant = new DerivedSchema(base.getVersion(), derive(base.getSchema(), options));
+		}
+		if (variant.getVersion() == current.version) {
+			variant = current.derived.cacheVariant(options, variant);
+		}
+		return variant;
+	}
+
+	private static CompactSchemaRoot derive(CompactSchemaRoot canonical, SchemaOptions options) {
+		// Inline variants are derived from an inline build, which has no references left
+		CompactSchemaRoot styled = (options.getReferenceStyle() != ReferenceStyle.INLINE)
+				? canonical.withReferenceStyle(options.getReferenceStyle()) : canonical;
+		return styled.withAdditionalProperties(options.getAllowAdditionalProperties());
+	}
+
+	/**
+	 * Builds the schema with a copy of the configuration the given options are applied
+	 * to.
+	 */
+	private CompactSchemaRoot buildVariant(SchemaOptions options) {
+		JsonConfigSchemaConfig variantConfig = new JsonConfigSchemaConfig();
+		BeanUtils.copyProperties(config, variantConfig);
+		options.applyTo(variantConfig);
+		JsonSchemaBuilder builder = schemaBuilder.withConfig(variantConfig);
+		Map<String, Property> meta = collectMetadata();
+		List<String> included = propertyCollector.collectIncludedPropertyNames();
+		// The builders share the type mappings, which are prepared on every build
+		buildLock.lock();
+		try {
+			return CompactSchemaRoot.of(builder.buildSchema(meta, included));
+		}
+		finally {
+			builder.release();
+			buildLock.unlock();
+		}
+	}
+
+	private RenderedSchema render(DerivedSchema derived, SchemaFormat format, boolean pretty, String acceptEncoding) {
+		return derived.render(renderer, format, pretty, SchemaEncoding.select(acceptEncoding));
+	}
+
+	/**
+	 * Returns the cached view for the given spec, pruning it on first use. Views pruned
+	 * from a snapshot other than the published one are not cached.
+	 */
+	private DerivedSchema cachedView(RetainedSchema current, ViewSpec spec) {
+		DerivedSchema view = current.derived.getView(spec);
+		if (view == null) {
+			SchemaSnapshot source = snapshotOf(current);
+			if (source == null) {
+				source = getSnapshot();
+			}
+			view = new DerivedSchema(source.getVersion(), source.getSchema().view(spec));
+			if (source.getVersion() == current.version) {
+				view = current.derived.cacheView(spec, view);
+			}
+		}
+		return view;
+	}
+
+	private SchemaShards shardsOf(RetainedSchema current) {
+		SchemaShards shards = current.derived.getShards();
+		if (shards == null) {
+			SchemaSnapshot source = snapshotOf(current);
+			shards = SchemaShards.of((source != null) ? source : getSnapshot());
+			if (shards.getVersion() == current.version) {
+				shards = current.derived.cacheShards(shards);
+			}
+		}
+		return shards;
+	}
+
+	/**
+	 * Returns the cached plain rendering, rendering it on first use. The content hash of
+	 * the returned value is not set.
+	 */
+	private RenderedSchema plainRendering(RetainedSchema current, SchemaFormat format, boolean pretty) {
+		int slot = RenderingCache.slot(format, pretty, SchemaEncoding.IDENTITY);
+		byte[] bytes = current.renderings.getContent(slot);
+		if (bytes != null) {
+			return RenderedSchema.of(format, SchemaEncoding.IDENTITY, current.version, bytes, null);
+		}
+		SchemaSnapshot source = snapshotOf(current);
+		if (source == null) {
+			source = getSnapshot();
+		}
+		bytes = renderer.render(source.getSchema(), format, pretty);
+		// A concurrent refresh may have published a newer version meanwhile; only cache
+		// the rendering alongside the version it was rendered from
+		if (source.getVersion() == current.version) {
+			bytes = current.renderings.cacheContent(slot, bytes);
+		}
+		return RenderedSchema.of(format, SchemaEncoding.IDENTITY, source.getVersion(), bytes, null);
+	}
+
+	/**
+	 * Returns the cached plain rendering of the current snapshot. The returned array is
+	 * shared and must not be modified.
+	 */
+	private byte[] renderedSchema(SchemaFormat format, boolean pretty) {
+		return plainRendering(publishedSchema(), format, pretty).content;
+	}
+
+	private RetainedSchema publishedSchema() {
+		RetainedSchema current = retained.get();
+		if (current == null) {
+			getSnapshot();
+			current = retained.get();
+		}
+		return current;
+	}
+
+	/**
+	 * Builds the JSON Schema and streams it as pretty-printed JSON to the given output
+	 * stream while it is being built. Intended for one-shot use (command line tools,
+	 * build plugins, the first request) where neither the schema tree nor the serialized
+	 * string should be retained: the schema cache is not used or populated. The stream is
+	 * flushed but not closed.
+	 * @param out The stream the schema is written to
+	 */
+	public void streamFullSchemaJson(OutputStream out) {
+		Map<String, Property> meta = collectMetadata();
+		List<String> included = propertyCollector.collectIncludedPropertyNames();
+		ObjectMapper mapper = JsonMapper.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+		buildLock.lock();
+		try (JsonGenerator generator = mapper.writerWithDefaultPrettyPrinter().createGenerator(out)) {
+			schemaBuilder.writeSchema(meta, included, generator);
+		}
+		finally {
+			schemaBuilder.release();
+			buildLock.unlock();
 		}
-		return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(schemaCache);
 	}
 
 	/**
@@ -122,4 +820,29 @@ public class JsonSchemaService {
 		return bootConfigMetaLoader.mergeConfig(configs);
 	}
 
+	/**
+	 * What is kept of a published schema: the snapshot itself or a soft or weak reference
+	 * to it, depending on the retention policy, and the documents rendered and schemas
+	 * derived from it so far. In bytes-only mode only the rendered documents and the
+	 * derived schemas are kept for sure.
+	 */
+	@AllArgsConstructor
+	private static final class RetainedSchema {
+
+		private final long version;
+
+		private final SchemaSnapshot snapshot;
+
+		/**
+		 * A soft reference to the snapshot, or a weak one in bytes-only mode, which keeps
+		 * a regenerated tree only while it is in use.
+		 */
+		private final Reference<SchemaSnapshot> snapshotReference;
+
+		private final RenderingCache renderings;
+
+		private final DerivedSchemas derived;
+
+	}
+
 }
@@ -0,0 +1,144 @@
+package org.alexmond.config.json.schema.service;
+
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaMap;
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.util.DefaultIndenter;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Renders a compact schema as JSON by serializing every {@code $defs} entry and every
+ * top-level property subtree into its own buffer on the common fork-join pool, then
+ * stitching the buffers into the root document in order. The result is byte-identical to
+ * rendering the schema sequentially with {@link SchemaFormat#render(Object, boolean)}.
+ *
+ * <p>
+ * Entries are rendered as standalone documents, so in indented output every line after
+ * the first is shifted by the two nesting levels the entries sit at in the root document.
+ * JSON strings cannot contain raw line breaks, so every line feed in a chunk is a line
+ * break of the layout.
+ */
+final class ParallelSchemaRenderer {
+
+	/**
+	 * Indentation of the two levels entries are nested at: the root object and the
+	 * {@code $defs} or {@code properties} object.
+	 */
+	private static final byte[] ENTRY_INDENT = DefaultIndenter.SYSTEM_LINEFEED_INSTANCE.getIndent()
+		.repeat(2)
+		.getBytes(StandardCharsets.UTF_8);
+
+	private ParallelSchemaRenderer() {
+	}
+
+	/**
+	 * Returns whether the schema has enough top-level entries to be worth rendering in
+	 * parallel.
+	 * @param root the schema to render
+	 * @param threshold the minimum number of entries, 0 to never render in parallel
+	 * @return true if the schema should be rendered in parallel
+	 */
+	static boolean shouldRender(CompactSchemaRoot root, int threshold) {
+		if (threshold <= 0) {
+			return false;
+		}
+		int entries = ((root.getDefinitions() != null) ? root.getDefinitions().size() : 0)
+				+ ((root.getProperties() != null) ? root.getProperties().size() : 0);
+		return entries >= threshold;
+	}
+
+	/**
+	 * Renders the schema as UTF-8 JSON.
+	 * @param root the schema to render
+	 * @param pretty whether the document is indented
+	 * @return the rendered document
+	 */
+	static byte[] render(CompactSchemaRoot root, boolean pretty) {
+		ObjectWriter writer = SchemaFormat.JSON.writer(pretty);
+		List<byte[]> definitions = renderEntries(writer, root.getDefinitions(), pretty);
+		List<byte[]> properties = renderEntries(writer, root.getProperties(), pretty);
+		int size = 1024;
+		for (byte[] chunk : definitions) {
+			size += chunk.length;
+		}
+		for (byte[] chunk : properties) {
+			size += chunk.length;
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(size + size / 16);
+		try (JsonGenerator gen = writer.createGenerator(out)) {
+			gen.writeStartObject(root);
+			gen.writePOJOProperty("$schema", root.getSchema());
+			gen.writePOJOProperty("$id", root.getId());
+			gen.writePOJOProperty("title", root.getTitle());
+			gen.writePOJOProperty("description", root.getDescription());
+			gen.writePOJOProperty("type", root.getType());
+			writeEntries(gen, out, "$defs", root.getDefinitions(), definitions);
+			writeEntries(gen, out, "properties", root.getProperties(), properties);
+			gen.writePOJOProperty("additionalProperties", root.getAdditionalProperties());
+			gen.writeEndObject();
+		}
+		return out.toByteArray();
+	}
+
+	private static List<byte[]> renderEntries(ObjectWriter writer, CompactSchemaMap map, boolean pretty) {
+		if (map == null) {
+			return List.of();
+		}
+		return IntStream.range(0, map.size()).parallel().mapToObj((i) -> {
+			byte[] chunk = writer.writeValueAsBytes(map.node(i));
+			return pretty ? indent(chunk) : chunk;
+		}).toList();
+	}
+
+	private static void writeEntries(JsonGenerator gen, ByteArrayOutputStream out, String name, CompactSchemaMap map,
+			List<byte[]> chunks) {
+		gen.writeName(name);
+		if (map == null) {
+			gen.writeNull();
+			return;
+		}
+		gen.writeStartObject(map, map.size());
+		for (int i = 0; i < map.size(); i++) {
+			gen.writeName(map.name(i));
+			// An empty raw value makes the generator write the separator in front of the
+			// value; the rendered value is then appended to the stream behind it
+			gen.writeRawValue("");
+			gen.flush();
+			out.writeBytes(chunks.get(i));
+		}
+		gen.writeEndObject();
+	}
+
+	/**
+	 * Shifts every line after the first by the indentation of the entry level.
+	 */
+	private static byte[] indent(byte[] chunk) {
+		int lines = 0;
+		for (byte b : chunk) {
+			if (b == '\n') {
+				lines++;
+			}
+		}
+		if (lines == 0) {
+			return chunk;
+		}
+		byte[] indented = new byte[chunk.length + lines * ENTRY_INDENT.length];
+		int position = 0;
+		for (byte b : chunk) {
+			indented[position] = b;
+			position++;
+			if (b == '\n') {
+				System.arraycopy(ENTRY_INDENT, 0, indented, position, ENTRY_INDENT.length);
+				position += ENTRY_INDENT.length;
+			}
+		}
+		return indented;
+	}
+
+}
@@ -0,0 +1,98 @@
+package org.alexmond.config.json.schema.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Non-blocking access to the rendered schema for reactive web stacks. Building and
+ * rendering the schema blocks, so it runs on the given scheduler instead of the calling
+ * event-loop thread; once a rendering is cached it is emitted without switching threads.
+ */
+public class ReactiveSchemaService {
+
+	private final JsonSchemaService schemaService;
+
+	/**
+	 * Scheduler that builds and renders the schema, such as a bounded elastic or
+	 * virtual-thread scheduler.
+	 */
+	private final Scheduler scheduler;
+
+	private final int chunkSize;
+
+	public ReactiveSchemaService(JsonSchemaService schemaService, Scheduler scheduler, int chunkSize) {
+		this.schemaService = schemaService;
+		this.scheduler = scheduler;
+		this.chunkSize = Math.max(chunkSize, 1);
+	}
+
+	/**
+	 * Returns the current schema in the given format, in the preferred content encoding
+	 * accepted by the client.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param acceptEncoding the {@code Accept-Encoding} request header, may be null
+	 * @return a mono emitting the rendered schema and its response headers
+	 * @see JsonSchemaService#getRenderedSchemaForAcceptEncoding(SchemaFormat, boolean,
+	 * String)
+	 */
+	public Mono<RenderedSchema> getRenderedSchema(SchemaFormat format, boolean pretty, String acceptEncoding) {
+		return Mono.defer(() -> {
+			SchemaEncoding encoding = SchemaEncoding.select(acceptEncoding);
+			RenderedSchema cached = schemaService.findRenderedSchema(format, pretty, encoding);
+			if (cached != null) {
+				return Mono.just(cached);
+			}
+			return Mono.fromSupplier(() -> schemaService.getRenderedSchema(format, pretty, encoding))
+				.subscribeOn(scheduler);
+		});
+	}
+
+	/**
+	 * Returns a copy of the current schema rendered in the given format.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @return a mono emitting the rendered document
+	 */
+	public Mono<byte[]> getSchemaBytes(SchemaFormat format, boolean pretty) {
+		return getRenderedSchema(format, pretty, null).map((rendered) -> rendered.content.clone());
+	}
+
+	/**
+	 * Streams the current schema in chunks of the configured size. Each subscription
+	 * renders on the scheduler if needed and then emits buffers wrapping read-only views
+	 * of the cached document, no more than the subscriber requested.
+	 * @param format the output format
+	 * @param pretty whether the document is indented
+	 * @param acceptEncoding the {@code Accept-Encoding} request header, may be null
+	 * @param bufferFactory the factory wrapping the chunks, such as the one of the
+	 * response
+	 * @return a cold flux of document chunks
+	 */
+	public Flux<DataBuffer> getSchemaChunks(SchemaFormat format, boolean pretty, String acceptEncoding,
+			DataBufferFactory bufferFactory) {
+		return getRenderedSchema(format, pretty, acceptEncoding)
+			.flatMapMany((rendered) -> chunks(rendered.content, bufferFactory));
+	}
+
+	private Flux<DataBuffer> chunks(byte[] content, DataBufferFactory bufferFactory) {
+		if (content.length == 0) {
+			return Flux.empty();
+		}
+		ByteBuffer document = ByteBuffer.wrap(content).asReadOnlyBuffer();
+		return Flux.generate(() -> 0, (offset, sink) -> {
+			int length = Math.min(chunkSize, content.length - offset);
+			sink.next(bufferFactory.wrap(document.slice(offset, length)));
+			if (offset + length == content.length) {
+				sink.complete();
+			}
+			return offset + length;
+		});
+	}
+
+}
@@ -0,0 +1,147 @@
+package org.alexmond.config.json.schema.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A cached rendering of the schema in one format and content encoding, together with the
+ * response headers it should be served with. The document itself is shared with the cache
+ * and only exposed as a stream or written out, never as an array.
+ */
+@Getter
+public final class RenderedSchema {
+
+	private final SchemaFormat format;
+
+	private final SchemaEncoding encoding;
+
+	/**
+	 * Version of the snapshot the document was rendered from.
+	 */
+	private final long version;
+
+	/**
+	 * Hex encoded SHA-256 hash of the plain document, the same for every content encoding
+	 * of it.
+	 */
+	private final String contentHash;
+
+	@Getter(AccessLevel.NONE)
+	final byte[] content;
+
+	private RenderedSchema(SchemaFormat format, SchemaEncoding encoding, long version, byte[] content,
+			String contentHash) {
+		this.format = format;
+		this.encoding = encoding;
+		this.version = version;
+		this.content = content;
+		this.contentHash = contentHash;
+	}
+
+	static RenderedSchema of(SchemaFormat format, SchemaEncoding encoding, long version, byte[] content,
+			String contentHash) {
+		return new RenderedSchema(format, encoding, version, content, contentHash);
+	}
+
+	static String sha256(byte[] document) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(document));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+
+	/**
+	 * Returns the value of the {@code ETag} header. The tag is strong and derived from
+	 * the content hash; encoded variants carry the encoding as a suffix, since they are
+	 * different representations of the same document.
+	 * @return the quoted entity tag
+	 */
+	public String getETag() {
+		return entityTag(contentHash, encoding);
+	}
+
+	static String entityTag(String contentHash, SchemaEncoding encoding) {
+		String suffix = (encoding != SchemaEncoding.IDENTITY) ? "-" + encoding.getToken() : "";
+		return "\"" + contentHash + suffix + "\"";
+	}
+
+	/**
+	 * Returns whether an {@code If-None-Match} request header matches this rendering, in
+	 * which case a {@code 304 Not Modified} response can be sent instead of the document.
+	 * Tags are compared weakly, as the header requires.
+	 * @param ifNoneMatch the header value, may be null
+	 * @return true if the client already has this rendering
+	 */
+	public boolean isNotModified(String ifNoneMatch) {
+		return matches(getETag(), ifNoneMatch);
+	}
+
+	static boolean matches(String etag, String ifNoneMatch) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String tag : ifNoneMatch.split(",")) {
+			String trimmed = tag.trim();
+			if (trimmed.startsWith("W/")) {
+				trimmed = trimmed.substring(2);
+			}
+			if ("*".equals(trimmed) || etag.equals(trimmed)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the value of the {@code Content-Type} header.
+	 * @return the media type of the document
+	 */
+	public String getContentType() {
+		return format.getContentType();
+	}
+
+	/**
+	 * Returns the value of the {@code Content-Encoding} header.
+	 * @return the encoding token, or null if the document is not encoded
+	 */
+	public String getContentEncoding() {
+		return (encoding != SchemaEncoding.IDENTITY) ? encoding.getToken() : null;
+	}
+
+	/**
+	 * Returns the value of the {@code Content-Length} header.
+	 * @return the size of the encoded document in bytes
+	 */
+	public int getContentLength() {
+		return content.length;
+	}
+
+	/**
+	 * Returns a stream over the encoded document.
+	 * @return a new stream
+	 */
+	public InputStream getInputStream() {
+		return new ByteArrayInputStream(content);
+	}
+
+	/**
+	 * Writes the encoded document to the given stream, which is flushed but not closed.
+	 * @param out the stream to write to
+	 * @throws IOException if writing fails
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(content);
+		out.flush();
+	}
+
+}
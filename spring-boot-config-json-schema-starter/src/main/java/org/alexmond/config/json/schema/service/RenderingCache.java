@@ -0,0 +1,184 @@
+package org.alexmond.config.json.schema.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The documents rendered from one snapshot version: plain and encoded renderings kept on
+ * the heap, the content hashes of the plain ones and the files written to the render
+ * directory. Documents are indexed by
+ * {@link #slot(SchemaFormat, boolean, SchemaEncoding)} and each slot is filled once, so
+ * concurrent readers agree on the first document cached for it.
+ */
+final class RenderingCache {
+
+	static final int SLOTS = SchemaFormat.values().length * 2 * SchemaEncoding.values().length;
+
+	private final long version;
+
+	private final AtomicReferenceArray<byte[]> rendered = new AtomicReferenceArray<>(SLOTS);
+
+	/**
+	 * SHA-256 content hashes of the plain renderings, indexed like {@link #rendered}.
+	 */
+	private final AtomicReferenceArray<String> hashes = new AtomicReferenceArray<>(SLOTS);
+
+	/**
+	 * Documents written to the render directory, indexed like {@link #rendered}.
+	 */
+	private final AtomicReferenceArray<StoredSchema> stored = new AtomicReferenceArray<>(SLOTS);
+
+	/**
+	 * Files of earlier versions, deleted when the same slot is stored again.
+	 */
+	private final AtomicReferenceArray<StoredSchema> replaced = new AtomicReferenceArray<>(SLOTS);
+
+	/**
+	 * Creates the cache of a new version. The stored files of the previous version, and
+	 * those of older versions that were not stored again since, are deleted once
+	 * replaced.
+	 * @param version the snapshot version
+	 * @param previous the cache of the previous version, or null
+	 */
+	RenderingCache(long version, RenderingCache previous) {
+		this.version = version;
+		if (previous != null) {
+			for (int slot = 0; slot < SLOTS; slot++) {
+				StoredSchema file = previous.stored.get(slot);
+				replaced.set(slot, (file != null) ? file : previous.replaced.get(slot));
+			}
+		}
+	}
+
+	/**
+	 * Binary formats have no indented variant and share one slot for both.
+	 */
+	static int slot(SchemaFormat format, boolean pretty, SchemaEncoding encoding) {
+		boolean indented = pretty && !format.isBinary();
+		return (format.ordinal() * 2 + (indented ? 1 : 0)) * SchemaEncoding.values().length + encoding.ordinal();
+	}
+
+	/**
+	 * Returns whether the slot has a document, on the heap or in the render directory.
+	 */
+	boolean contains(int slot) {
+		return rendered.get(slot) != null || stored.get(slot) != null;
+	}
+
+	/**
+	 * Returns the document of the slot, from the heap or read back from its file for a
+	 * single use without caching it on the heap again.
+	 * @return the document, or null if the slot is empty
+	 */
+	byte[] getContent(int slot) {
+		byte[] bytes = rendered.get(slot);
+		return (bytes != null) ? bytes : storedContent(stored.get(slot));
+	}
+
+	/**
+	 * Caches a document on the heap unless the slot has one already.
+	 * @return the cached document
+	 */
+	byte[] cacheContent(int slot, byte[] bytes) {
+		if (rendered.compareAndSet(slot, null, bytes)) {
+			return bytes;
+		}
+		byte[] cached = rendered.get(slot);
+		// Dropped again if it has been stored meanwhile
+		return (cached != null) ? cached : bytes;
+	}
+
+	String getHash(int slot) {
+		return hashes.get(slot);
+	}
+
+	void cacheHash(int slot, String hash) {
+		hashes.compareAndSet(slot, null, hash);
+	}
+
+	StoredSchema getStored(int slot) {
+		return stored.get(slot);
+	}
+
+	/**
+	 * Returns the document in the given encoding if it has already been rendered, encoded
+	 * and hashed.
+	 * @return the rendered schema, or null if it is not available yet
+	 */
+	RenderedSchema find(SchemaFormat format, boolean pretty, SchemaEncoding encoding) {
+		String hash = hashes.get(slot(format, pretty, SchemaEncoding.IDENTITY));
+		byte[] content = rendered.get(slot(format, pretty, encoding));
+		return (hash != null && content != null) ? RenderedSchema.of(format, encoding, version, content, hash) : null;
+	}
+
+	/**
+	 * Returns the content hash of a plain rendering, computing it once for this version.
+	 */
+	String contentHash(RenderedSchema plain, boolean pretty) {
+		int slot = slot(plain.getFormat(), pretty, SchemaEncoding.IDENTITY);
+		boolean cacheable = plain.getVersion() == version;
+		String hash = cacheable ? hashes.get(slot) : null;
+		if (hash == null) {
+			hash = RenderedSchema.sha256(plain.content);
+			if (cacheable) {
+				hashes.compareAndSet(slot, null, hash);
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns a plain rendering in the given encoding, encoding it once for this version.
+	 */
+	byte[] encode(RenderedSchema plain, boolean pretty, SchemaEncoding encoding) {
+		int slot = slot(plain.getFormat(), pretty, encoding);
+		if (plain.getVersion() != version) {
+			return encoding.encode(plain.content);
+		}
+		byte[] bytes = getContent(slot);
+		return (bytes != null) ? bytes : cacheContent(slot, encoding.encode(plain.content));
+	}
+
+	/**
+	 * Stores a rendering in the render directory and drops its copy from the heap. Once
+	 * the file is published for the slot, the file of the replaced version is deleted.
+	 * Renderings of other versions are stored but not cached.
+	 * @param store the file store of the render directory
+	 * @param rendering the document to store
+	 * @param pretty whether the document is indented
+	 * @return the stored document
+	 */
+	StoredSchema store(SchemaFileStore store, RenderedSchema rendering, boolean pretty) {
+		StoredSchema file = store.store(rendering, pretty);
+		if (file.getVersion() != version) {
+			return file;
+		}
+		int slot = slot(rendering.getFormat(), pretty, rendering.getEncoding());
+		if (stored.compareAndSet(slot, null, file)) {
+			rendered.compareAndSet(slot, rendering.content, null);
+			StoredSchema replacedFile = replaced.getAndSet(slot, null);
+			if (replacedFile != null && !replacedFile.getPath().equals(file.getPath())) {
+				store.remove(replacedFile);
+			}
+			return file;
+		}
+		return stored.get(slot);
+	}
+
+	/**
+	 * Reads a document kept in the render directory back for a single use.
+	 */
+	private static byte[] storedContent(StoredSchema file) {
+		if (file == null) {
+			return null;
+		}
+		try {
+			return file.readContent();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Cannot read the stored schema " + file.getPath(), ex);
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+package org.alexmond.config.json.schema.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP content encodings the rendered schema is available in. Encoded variants are
+ * produced once per snapshot and cached next to the plain rendering.
+ */
+public enum SchemaEncoding {
+
+	/**
+	 * The rendered document as is.
+	 */
+	IDENTITY("identity"),
+
+	/**
+	 * The rendered document compressed with gzip.
+	 */
+	GZIP("gzip"),
+
+	/**
+	 * The rendered document compressed with zlib-wrapped deflate, as HTTP defines
+	 * {@code deflate}.
+	 */
+	DEFLATE("deflate");
+
+	private final String token;
+
+	SchemaEncoding(String token) {
+		this.token = token;
+	}
+
+	/**
+	 * Returns the {@code Content-Encoding} token of this encoding.
+	 * @return the token, such as {@code gzip}
+	 */
+	public String getToken() {
+		return token;
+	}
+
+	/**
+	 * Encodes the given document.
+	 * @param document the plain document
+	 * @return the encoded document, or the given array for {@link #IDENTITY}
+	 */
+	public byte[] encode(byte[] document) {
+		if (this == IDENTITY) {
+			return document;
+		}
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream(document.length / 8 + 64);
+		try (OutputStream out = (this == GZIP) ? new GZIPOutputStream(encoded) : new DeflaterOutputStream(encoded)) {
+			out.write(document);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return encoded.toByteArray();
+	}
+
+	/**
+	 * Selects the preferred encoding accepted by an {@code Accept-Encoding} header. The
+	 * encoding with the highest quality wins; on equal quality gzip is preferred over
+	 * deflate, and both over identity. Identity is chosen when nothing else is
+	 * acceptable.
+	 * @param acceptEncoding the header value, may be null
+	 * @return the encoding to respond with
+	 */
+	public static SchemaEncoding select(String acceptEncoding) {
+		if (acceptEncoding == null || acceptEncoding.isBlank()) {
+			return IDENTITY;
+		}
+		// -1 marks encodings the header does not mention
+		float[] quality = new float[values().length];
+		Arrays.fill(quality, -1);
+		float wildcard = 0;
+		for (String entry : acceptEncoding.split(",")) {
+			String[] parts = entry.split(";");
+			String name = parts[0].trim().toLowerCase(Locale.ROOT);
+			float value = quality(parts);
+			if ("*".equals(name)) {
+				wildcard = value;
+			}
+			for (SchemaEncoding encoding : values()) {
+				if (encoding.token.equals(name) || encoding == GZIP && "x-gzip".equals(name)) {
+					quality[encoding.ordinal()] = Math.max(quality[encoding.ordinal()], value);
+				}
+			}
+		}
+		SchemaEncoding selected = IDENTITY;
+		float best = 0;
+		for (SchemaEncoding encoding : new SchemaEncoding[] { GZIP, DEFLATE }) {
+			float value = (quality[encoding.ordinal()] >= 0) ? quality[encoding.ordinal()] : wildcard;
+			if (value > best) {
+				best = value;
+				selected = encoding;
+			}
+		}
+		return selected;
+	}
+
+	private static float quality(String... parameters) {
+		for (int i = 1; i < parameters.length; i++) {
+			String parameter = parameters[i].trim();
+			if (parameter.startsWith("q=")) {
+				try {
+					return Float.parseFloat(parameter.substring(2));
+				}
+				catch (NumberFormatException ex) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+}
@@ -0,0 +1,186 @@
+package org.alexmond.config.json.schema.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Writes rendered schema documents to a directory, so they can be served from files
+ * instead of the heap. Files are named after the process, content hash, format and
+ * encoding, such as {@code config-schema-<pid>-<hash>.json.gz}, which keeps a file's
+ * content fixed for its whole life: a document is written to a temporary file and moved
+ * into place atomically, an existing file with the same name is reused, and readers never
+ * see a partly written document. Files of replaced renderings are deleted by the caller
+ * once a newer version has been stored; stored schemas read through a channel opened when
+ * they were stored, so callers still holding a replaced one can finish serving it.
+ *
+ * <p>
+ * Several processes may share the directory, since each one only writes and deletes its
+ * own files. When the store is created, it deletes the files of processes that are no
+ * longer running. Process ids are only unique within one PID namespace, so processes in
+ * different containers must not share the directory.
+ */
+@Slf4j
+final class SchemaFileStore {
+
+	private static final String PREFIX = "config-schema-";
+
+	private final Path directory;
+
+	/**
+	 * Prefix of the files of this process.
+	 */
+	private final String filePrefix;
+
+	SchemaFileStore(Path directory) {
+		this.directory = directory;
+		filePrefix = PREFIX + ProcessHandle.current().pid() + "-";
+		removeLeftovers(Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime()));
+	}
+
+	/**
+	 * Stores the given rendering, unless a file with its content already exists.
+	 * @param rendered the rendering to store
+	 * @param pretty whether the document is indented
+	 * @return the stored document
+	 */
+	StoredSchema store(RenderedSchema rendered, boolean pretty) {
+		Path target = directory.resolve(fileName(rendered, pretty));
+		try {
+			if (!Files.isRegularFile(target) || Files.size(target) != rendered.getContentLength()) {
+				write(target, rendered.content);
+			}
+			return new StoredSchema(rendered.getFormat(), rendered.getEncoding(), rendered.getVersion(),
+					rendered.getContentHash(), target, rendered.getContentLength(), open(target, rendered.content));
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Cannot store the schema in " + target, ex);
+		}
+	}
+
+	/**
+	 * Opens the stored file for reading, writing it again if a concurrent removal of a
+	 * replaced rendering with the same content deleted it in the meantime.
+	 */
+	private FileChannel open(Path target, byte[] content) throws IOException {
+		try {
+			return FileChannel.open(target, StandardOpenOption.READ);
+		}
+		catch (NoSuchFileException ex) {
+			write(target, content);
+			return FileChannel.open(target, StandardOpenOption.READ);
+		}
+	}
+
+	/**
+	 * Deletes schema files, including abandoned temporary files, that processes which are
+	 * no longer running left behind. Files of this process's id that were last modified
+	 * before the given instant belong to an earlier process with the same id, and so do
+	 * files without a process id.
+	 * @param before the instant before which files of this process id count as left over
+	 */
+	void removeLeftovers(Instant before) {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*")) {
+			for (Path file : files) {
+				if (Files.isRegularFile(file) && isLeftover(file, before)) {
+					log.debug("Deleting leftover schema file {}", file);
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+		catch (IOException ex) {
+			log.debug("Cannot delete leftover schema files in {}", directory, ex);
+		}
+	}
+
+	private boolean isLeftover(Path file, Instant before) throws IOException {
+		long owner = owner(file.getFileName().toString());
+		if (owner >= 0 && owner != ProcessHandle.current().pid()) {
+			return ProcessHandle.of(owner).map((process) -> !process.isAlive()).orElse(true);
+		}
+		return Files.getLastModifiedTime(file).toInstant().isBefore(before);
+	}
+
+	/**
+	 * Returns the id of the process that wrote a schema file.
+	 * @return the process id, or -1 if the name has none
+	 */
+	static long owner(String fileName) {
+		int end = fileName.indexOf('-', PREFIX.length());
+		if (end <= PREFIX.length()) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(fileName, PREFIX.length(), end, 10);
+		}
+		catch (NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Deletes the file of a replaced rendering. Stored schemas that still refer to it
+	 * keep reading their open channel where the file system allows it.
+	 * @param stored the replaced rendering
+	 */
+	void remove(StoredSchema stored) {
+		try {
+			Files.deleteIfExists(stored.getPath());
+		}
+		catch (IOException ex) {
+			log.debug("Cannot delete replaced schema file {}", stored.getPath(), ex);
+		}
+	}
+
+	private void write(Path target, byte[] content) throws IOException {
+		Files.createDirectories(directory);
+		Path temporary = Files.createTempFile(directory, filePrefix, ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.wrap(content);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(true);
+			}
+			try {
+				Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	private String fileName(RenderedSchema rendered, boolean pretty) {
+		StringBuilder name = new StringBuilder(filePrefix).append(rendered.getContentHash());
+		if (!pretty && !rendered.getFormat().isBinary()) {
+			name.append(".min");
+		}
+		name.append('.').append(rendered.getFormat().name().toLowerCase(Locale.ROOT));
+		if (rendered.getEncoding() != SchemaEncoding.IDENTITY) {
+			name.append('.').append(rendered.getEncoding().getToken());
+		}
+		return name.toString();
+	}
+
+}
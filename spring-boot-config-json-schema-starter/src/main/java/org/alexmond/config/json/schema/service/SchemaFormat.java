@@ -0,0 +1,163 @@
+package org.alexmond.config.json.schema.service;
+
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaRoot;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.yaml.YAMLMapper;
+
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Serialization formats the schema can be rendered in. Each format builds its mapper,
+ * writers and reader once; they are immutable and shared by all renderings.
+ *
+ * <p>
+ * Binary formats are meant for tools that read the schema often and would rather not
+ * parse text. They have no indented variant, so {@code pretty} is ignored for them.
+ */
+public enum SchemaFormat {
+
+	/**
+	 * JSON, the native format of a JSON Schema document.
+	 */
+	JSON("application/json", false, JsonMapper.builder().addModule(orderedSets()).build()),
+
+	/**
+	 * YAML, for editors that prefer it.
+	 */
+	YAML("application/yaml", false, YAMLMapper.builder().addModule(orderedSets()).build()),
+
+	/**
+	 * CBOR (RFC 8949), a compact binary encoding of the JSON document.
+	 */
+	CBOR("application/cbor", true, CBORMapper.builder().addModule(orderedSets()).build()),
+
+	/**
+	 * Smile, Jackson's binary JSON encoding. Only available when
+	 * {@code jackson-dataformat-smile} is on the classpath. The starter declares it as an
+	 * optional dependency, so applications that want Smile add it themselves.
+	 */
+	SMILE("application/x-jackson-smile", true, optionalMapper("tools.jackson.dataformat.smile.SmileMapper"));
+
+	private final String contentType;
+
+	private final boolean binary;
+
+	private final transient ObjectWriter writer;
+
+	private final transient ObjectWriter prettyWriter;
+
+	private final transient ObjectReader reader;
+
+	SchemaFormat(String contentType, boolean binary, ObjectMapper mapper) {
+		this.contentType = contentType;
+		this.binary = binary;
+		this.writer = (mapper != null) ? mapper.writer() : null;
+		this.prettyWriter = (mapper != null && !binary) ? mapper.writerWithDefaultPrettyPrinter() : writer;
+		this.reader = (mapper != null) ? mapper.readerFor(JsonSchemaRoot.class) : null;
+	}
+
+	private static ObjectMapper optionalMapper(String className) {
+		if (!ClassUtils.isPresent(className, null)) {
+			return null;
+		}
+		ObjectMapper mapper = (ObjectMapper) BeanUtils.instantiateClass(ClassUtils.resolveClassName(className, null));
+		return mapper.rebuild().addModule(orderedSets()).build();
+	}
+
+	/**
+	 * Reads sets such as {@code enum} and {@code required} in document order, so that a
+	 * schema that was read back renders exactly as it was written.
+	 */
+	private static SimpleModule orderedSets() {
+		return new SimpleModule("orderedSets").addAbstractTypeMapping(Set.class, LinkedHashSet.class);
+	}
+
+	/**
+	 * Returns the media type of documents in this format.
+	 * @return the media type, without charset
+	 */
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * Returns whether documents in this format are binary rather than UTF-8 text.
+	 * @return true for binary formats
+	 */
+	public boolean isBinary() {
+		return binary;
+	}
+
+	/**
+	 * Returns whether the data format module of this format is on the classpath.
+	 * @return true if documents can be rendered and read in this format
+	 */
+	public boolean isAvailable() {
+		return writer != null;
+	}
+
+	/**
+	 * Returns the shared writer of this format.
+	 * @param pretty whether the writer indents its output, ignored for binary formats
+	 * @return the writer
+	 * @throws IllegalStateException if the format is not available
+	 */
+	public ObjectWriter writer(boolean pretty) {
+		checkAvailable();
+		return pretty ? prettyWriter : writer;
+	}
+
+	/**
+	 * Renders the given value as a document in this format. Text formats are encoded as
+	 * UTF-8.
+	 * @param value the value to render
+	 * @param pretty whether the output is indented, ignored for binary formats
+	 * @return the rendered document
+	 * @throws IllegalStateException if the format is not available
+	 */
+	public byte[] render(Object value, boolean pretty) {
+		return writer(pretty).writeValueAsBytes(value);
+	}
+
+	/**
+	 * Reads a schema document in this format back into a mutable schema tree. Nested
+	 * schemas are read as {@code JsonSchemaProperties}, other untyped values such as
+	 * {@code additionalProperties} as plain maps, lists and scalars.
+	 * @param document the document to read
+	 * @return the schema
+	 * @throws IllegalStateException if the format is not available
+	 */
+	public JsonSchemaRoot read(byte[] document) {
+		checkAvailable();
+		return reader.readValue(document);
+	}
+
+	/**
+	 * Reads a schema document in this format from the given stream.
+	 * @param in the stream to read from
+	 * @return the schema
+	 * @throws IllegalStateException if the format is not available
+	 * @see #read(byte[])
+	 */
+	public JsonSchemaRoot read(InputStream in) {
+		checkAvailable();
+		return reader.readValue(in);
+	}
+
+	private void checkAvailable() {
+		if (!isAvailable()) {
+			throw new IllegalStateException(
+					name() + " support requires its Jackson data format module on the classpath");
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+package org.alexmond.config.json.schema.service;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.alexmond.config.json.schema.config.JsonConfigSchemaConfig;
+import org.alexmond.config.json.schema.jsonschemamodel.ReferenceStyle;
+
+/**
+ * Per-request overrides of the generator switches in {@link JsonConfigSchemaConfig}.
+ * Options left null keep the configured value. Resolved options are equal when they
+ * select the same schema, so they serve as cache keys for schema variants: the reference
+ * switches are normalized to the {@link ReferenceStyle} they select, as definition
+ * references make no difference once anchor references are on.
+ *
+ * <p>
+ * The reference switches and {@code allowAdditionalProperties} only change how the schema
+ * is presented and are derived from an existing build. The annotation switches change the
+ * content of the schema and need a build of their own, and so does turning both reference
+ * switches off: the generator cuts recursive types short and documents a type only where
+ * it first occurs when it writes every occurrence out, which cannot be recovered from a
+ * build with references.
+ */
+@Getter
+@Builder(toBuilder = true)
+@EqualsAndHashCode
+@ToString
+public final class SchemaOptions {
+
+	/**
+	 * Overrides {@link JsonConfigSchemaConfig#isEnableAnchorRefs()}.
+	 */
+	private final Boolean enableAnchorRefs;
+
+	/**
+	 * Overrides {@link JsonConfigSchemaConfig#isEnableDefinitionRefs()}.
+	 */
+	private final Boolean enableDefinitionRefs;
+
+	/**
+	 * Overrides {@link JsonConfigSchemaConfig#isAllowAdditionalProperties()}.
+	 */
+	private final Boolean allowAdditionalProperties;
+
+	/**
+	 * Overrides {@link JsonConfigSchemaConfig#isUseOpenapi()}.
+	 */
+	private final Boolean useOpenapi;
+
+	/**
+	 * Overrides {@link JsonConfigSchemaConfig#isUseValidation()}.
+	 */
+	private final Boolean useValidation;
+
+	/**
+	 * Returns the options the given configuration builds the schema with.
+	 * @param config the generator configuration
+	 * @return fully resolved options
+	 */
+	public static SchemaOptions of(JsonConfigSchemaConfig config) {
+		return resolved(config.isEnableAnchorRefs(), config.isEnableDefinitionRefs(),
+				config.isAllowAdditionalProperties(), config.isUseOpenapi(), config.isUseValidation());
+	}
+
+	/**
+	 * Fills the options that are not set from the given configuration.
+	 * @param config the generator configuration
+	 * @return fully resolved options
+	 */
+	public SchemaOptions resolve(JsonConfigSchemaConfig config) {
+		SchemaOptions defaults = of(config);
+		return resolved(orElse(enableAnchorRefs, defaults.enableAnchorRefs),
+				orElse(enableDefinitionRefs, defaults.enableDefinitionRefs),
+				orElse(allowAdditionalProperties, defaults.allowAdditionalProperties),
+				orElse(useOpenapi, defaults.useOpenapi), orElse(useValidation, defaults.useValidation));
+	}
+
+	/**
+	 * Creates resolved options with the reference switches normalized to the style they
+	 * select, so that options producing the same schema are equal.
+	 */
+	private static SchemaOptions resolved(boolean anchorRefs, boolean definitionRefs, Boolean allowAdditionalProperties,
+			Boolean useOpenapi, Boolean useValidation) {
+		ReferenceStyle style = ReferenceStyle.of(anchorRefs, definitionRefs);
+		return new SchemaOptions(style == ReferenceStyle.ANCHORS, style != ReferenceStyle.INLINE,
+				allowAdditionalProperties, useOpenapi, useValidation);
+	}
+
+	/**
+	 * Returns the canonical options the presentation of these resolved options can be
+	 * derived from: the same content, referenced through {@code $defs} unless no
+	 * references are used, with the configured {@code additionalProperties}.
+	 * @param config the generator configuration
+	 * @return the canonical options
+	 */
+	SchemaOptions canonical(JsonConfigSchemaConfig config) {
+		boolean definitionRefs = getReferenceStyle() != ReferenceStyle.INLINE;
+		return new SchemaOptions(false, definitionRefs, config.isAllowAdditionalProperties(), useOpenapi,
+				useValidation);
+	}
+
+	/**
+	 * Returns the reference style selected by these resolved options.
+	 * @return the reference style
+	 */
+	public ReferenceStyle getReferenceStyle() {
+		return ReferenceStyle.of(enableAnchorRefs, enableDefinitionRefs);
+	}
+
+	/**
+	 * Applies these resolved options to the given configuration.
+	 * @param config the configuration to update
+	 */
+	void applyTo(JsonConfigSchemaConfig config) {
+		config.setEnableAnchorRefs(enableAnchorRefs);
+		config.setEnableDefinitionRefs(enableDefinitionRefs);
+		config.setAllowAdditionalProperties(allowAdditionalProperties);
+		config.setUseOpenapi(useOpenapi);
+		config.setUseValidation(useValidation);
+	}
+
+	private static Boolean orElse(Boolean value, Boolean fallback) {
+		return (value != null) ? value : fallback;
+	}
+
+}
@@ -0,0 +1,234 @@
+package org.alexmond.config.json.schema.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaProperties;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled lookup of the schema overrides configured in
+ * {@code json-config-schema.json-schema-properties-map}. Keys are either property paths
+ * or type names and may use the following patterns:
+ * <ul>
+ * <li>{@code app.tenants.*.url} - {@code *} matches exactly one segment</li>
+ * <li>{@code spring.datasource.**.password} - {@code **} matches zero or more
+ * segments</li>
+ * <li>{@code type:com.vendor.*}, {@code type:com.vendor.**} - the same wildcards applied
+ * to the package segments of a type name</li>
+ * <li>{@code com.vendor.Base+} - a type and every type assignable to it</li>
+ * </ul>
+ * Patterns without the {@code type:} prefix only match property paths, and patterns with
+ * it only match type names; {@code type:} also restricts an exact key to type names.
+ * Precedence is deterministic: an exact key always wins over a pattern. Among path
+ * patterns the segments are compared left to right and a literal segment wins over
+ * {@code *}, which wins over {@code **}. Among hierarchy patterns the most specific base
+ * type wins, ties being broken by name. Pattern keys are held in a segment trie, so a
+ * lookup walks the path once per viable branch instead of testing every key. Instances
+ * are compiled per schema build and are thread-safe, so overlapping builds may share one;
+ * hierarchy lookups are cached in a concurrent map.
+ */
+@Slf4j
+public final class SchemaOverrideMatcher {
+
+	private static final String ANY_SEGMENT = "*";
+
+	private static final String ANY_SEGMENTS = "**";
+
+	private static final String TYPE_PREFIX = "type:";
+
+	/**
+	 * Exact keys without a prefix, matching either a property path or a type name.
+	 */
+	private final Map<String, JsonSchemaProperties> exact = new HashMap<>();
+
+	private final Map<String, JsonSchemaProperties> exactTypes = new HashMap<>();
+
+	private final Node pathPatterns = new Node();
+
+	private final Node typePatterns = new Node();
+
+	private final List<HierarchyOverride> hierarchy = new ArrayList<>();
+
+	/**
+	 * Hierarchy lookup results per raw type name, with misses cached as
+	 * {@link HierarchyOverride#NONE}.
+	 */
+	private final Map<String, HierarchyOverride> hierarchyMatches = new ConcurrentHashMap<>();
+
+	private SchemaOverrideMatcher() {
+	}
+
+	/**
+	 * Compiles the given override map.
+	 * @param overrides overrides keyed by property path, type name or pattern, may be
+	 * null
+	 * @return the compiled matcher
+	 */
+	public static SchemaOverrideMatcher compile(Map<String, JsonSchemaProperties> overrides) {
+		SchemaOverrideMatcher matcher = new SchemaOverrideMatcher();
+		if (overrides != null) {
+			// Sorted so that hierarchy ties resolve the same way on every build
+			new TreeMap<>(overrides).forEach(matcher::add);
+		}
+		return matcher;
+	}
+
+	private void add(String key, JsonSchemaProperties value) {
+		boolean typeKey = key.startsWith(TYPE_PREFIX);
+		String name = typeKey ? key.substring(TYPE_PREFIX.length()) : key;
+		if (name.endsWith("+")) {
+			String baseName = name.substring(0, name.length() - 1);
+			try {
+				hierarchy.add(new HierarchyOverride(ClassUtils.forName(baseName, null), value));
+			}
+			catch (ClassNotFoundException | LinkageError ex) {
+				log.debug("Cannot load base type {} of schema override {}", baseName, key);
+			}
+		}
+		else if (isPattern(name)) {
+			Node node = typeKey ? typePatterns : pathPatterns;
+			for (String segment : name.split("\\.")) {
+				node = node.children.computeIfAbsent(segment, (child) -> new Node());
+			}
+			node.value = value;
+		}
+		else {
+			(typeKey ? exactTypes : exact).put(name, value);
+		}
+	}
+
+	private static boolean isPattern(String key) {
+		for (String segment : key.split("\\.")) {
+			if (ANY_SEGMENT.equals(segment) || ANY_SEGMENTS.equals(segment)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether no overrides are configured.
+	 * @return true if the matcher never matches
+	 */
+	public boolean isEmpty() {
+		return exact.isEmpty() && exactTypes.isEmpty() && pathPatterns.children.isEmpty()
+				&& typePatterns.children.isEmpty() && hierarchy.isEmpty();
+	}
+
+	/**
+	 * Looks up the override for a property of the given type. Candidates are tried in
+	 * this order: the exact property path, the exact type name, property path patterns,
+	 * {@code type:} package patterns on the raw type name, and finally hierarchy
+	 * patterns.
+	 * @param propertyName the property path, may be null
+	 * @param typeName the type name, possibly with generic arguments, may be null
+	 * @return the matching override, or null
+	 */
+	public JsonSchemaProperties find(String propertyName, String typeName) {
+		if (isEmpty()) {
+			return null;
+		}
+		JsonSchemaProperties value = (propertyName != null) ? exact.get(propertyName) : null;
+		if (value == null && typeName != null) {
+			value = exact.get(typeName);
+			if (value == null) {
+				value = exactTypes.get(typeName);
+			}
+		}
+		if (value == null && propertyName != null && !pathPatterns.children.isEmpty()) {
+			value = match(pathPatterns, propertyName.split("\\."), 0);
+		}
+		if (value == null && typeName != null) {
+			String rawName = ClassNameMatcher.rawName(typeName);
+			if (!typePatterns.children.isEmpty()) {
+				value = match(typePatterns, rawName.split("\\."), 0);
+			}
+			if (value == null && !hierarchy.isEmpty()) {
+				value = matchHierarchy(rawName);
+			}
+		}
+		return value;
+	}
+
+	private static JsonSchemaProperties match(Node node, String[] segments, int idx) {
+		if (idx == segments.length) {
+			if (node.value != null) {
+				return node.value;
+			}
+			Node anySegments = node.children.get(ANY_SEGMENTS);
+			return (anySegments != null) ? match(anySegments, segments, idx) : null;
+		}
+		JsonSchemaProperties value = null;
+		Node literal = node.children.get(segments[idx]);
+		if (literal != null) {
+			value = match(literal, segments, idx + 1);
+		}
+		Node anySegment = node.children.get(ANY_SEGMENT);
+		if (value == null && anySegment != null) {
+			value = match(anySegment, segments, idx + 1);
+		}
+		Node anySegments = node.children.get(ANY_SEGMENTS);
+		for (int next = idx; value == null && anySegments != null && next <= segments.length; next++) {
+			value = match(anySegments, segments, next);
+		}
+		return value;
+	}
+
+	private JsonSchemaProperties matchHierarchy(String rawName) {
+		return hierarchyMatches.computeIfAbsent(rawName, this::resolveHierarchy).value;
+	}
+
+	private HierarchyOverride resolveHierarchy(String rawName) {
+		Class<?> type;
+		try {
+			type = ClassUtils.forName(rawName, null);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			return HierarchyOverride.NONE;
+		}
+		HierarchyOverride best = null;
+		for (HierarchyOverride override : hierarchy) {
+			if (override.base.isAssignableFrom(type)
+					&& (best == null || best.base != override.base && best.base.isAssignableFrom(override.base))) {
+				best = override;
+			}
+		}
+		return (best != null) ? best : HierarchyOverride.NONE;
+	}
+
+	/**
+	 * Node of the pattern trie, one per key segment.
+	 */
+	private static final class Node {
+
+		private final Map<String, Node> children = new HashMap<>();
+
+		private JsonSchemaProperties value;
+
+	}
+
+	/**
+	 * Override applying to a base type and its subtypes.
+	 */
+	@AllArgsConstructor
+	private static final class HierarchyOverride {
+
+		/**
+		 * The result of a lookup no hierarchy override applies to.
+		 */
+		static final HierarchyOverride NONE = new HierarchyOverride(Object.class, null);
+
+		private final Class<?> base;
+
+		private final JsonSchemaProperties value;
+
+	}
+
+}
@@ -0,0 +1,44 @@
+package org.alexmond.config.json.schema.service;
+
+import lombok.RequiredArgsConstructor;
+import org.alexmond.config.json.schema.config.JsonConfigSchemaConfig;
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
+
+/**
+ * Renders schemas the way the configuration asks for: large JSON schemas are serialized
+ * in parallel and YAML with the fast writer if it is enabled.
+ */
+@RequiredArgsConstructor
+final class SchemaRenderer {
+
+	private final JsonConfigSchemaConfig config;
+
+	/**
+	 * Renders a schema, serializing its top-level entries in parallel when the schema is
+	 * large enough.
+	 */
+	byte[] render(CompactSchemaRoot schema, SchemaFormat format, boolean pretty) {
+		if (format == SchemaFormat.JSON
+				&& ParallelSchemaRenderer.shouldRender(schema, config.getParallelRenderThreshold())) {
+			return ParallelSchemaRenderer.render(schema, pretty);
+		}
+		if (format == SchemaFormat.YAML && config.isFastYamlWriter()) {
+			return SchemaYamlWriter.render(schema);
+		}
+		return format.render(schema, pretty);
+	}
+
+	/**
+	 * Renders a plain document, such as a shard, with its content hash.
+	 */
+	static RenderedSchema renderDocument(Object document, SchemaFormat format, boolean pretty, long version) {
+		byte[] bytes = format.render(document, pretty);
+		return RenderedSchema.of(format, SchemaEncoding.IDENTITY, version, bytes, RenderedSchema.sha256(bytes));
+	}
+
+	static RenderedSchema encodeDocument(RenderedSchema plain, SchemaEncoding encoding) {
+		return RenderedSchema.of(plain.getFormat(), encoding, plain.getVersion(), encoding.encode(plain.content),
+				plain.getContentHash());
+	}
+
+}
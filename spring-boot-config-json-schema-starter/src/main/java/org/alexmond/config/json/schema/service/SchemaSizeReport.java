@@ -0,0 +1,50 @@
+package org.alexmond.config.json.schema.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Compares the size of a rendered view of the schema, such as the lean view, with the
+ * size of the full schema rendered in the same format.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class SchemaSizeReport {
+
+	private final SchemaFormat format;
+
+	/**
+	 * Version of the snapshot both documents were rendered from.
+	 */
+	private final long version;
+
+	/**
+	 * Size of the full schema document in bytes.
+	 */
+	private final long fullLength;
+
+	/**
+	 * Size of the view document in bytes.
+	 */
+	private final long viewLength;
+
+	/**
+	 * Returns the number of bytes the view saves over the full schema.
+	 * @return the size difference in bytes
+	 */
+	public long getSavedLength() {
+		return fullLength - viewLength;
+	}
+
+	/**
+	 * Returns the share of the full schema size the view saves.
+	 * @return the reduction between 0 and 1, or 0 for an empty schema
+	 */
+	public double getReduction() {
+		return (fullLength > 0) ? (double) getSavedLength() / fullLength : 0;
+	}
+
+}
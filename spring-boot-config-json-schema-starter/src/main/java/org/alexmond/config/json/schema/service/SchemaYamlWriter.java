@@ -0,0 +1,371 @@
+package org.alexmond.config.json.schema.service;
+
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaMap;
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaNode;
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaFormat;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaType;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes a compact schema as a block-style YAML document straight from the snapshot,
+ * without going through a general-purpose YAML generator. The layout follows Jackson's
+ * YAML output: a {@code ---} document marker, nested mappings indented by two spaces,
+ * sequence items at the indentation of their key and every string double-quoted, so the
+ * document reads back into the same tree. Unlike Jackson, long strings are never folded
+ * over several lines.
+ *
+ * <p>
+ * Each rendering writes into one byte buffer sized after the previous document and
+ * encodes strings to UTF-8 while escaping them, so a rendering of an unchanged schema
+ * allocates little beyond the returned document and nothing is kept between renderings.
+ */
+final class SchemaYamlWriter {
+
+	private static final int INITIAL_CAPACITY = 64 * 1024;
+
+	private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Plain scalars that YAML resolves to booleans or null, so keys spelled like them
+	 * must be quoted to stay strings.
+	 */
+	private static final Set<String> RESERVED = Set.of("true", "false", "null", "yes", "no", "on", "off", "y", "n",
+			"~");
+
+	/**
+	 * Converts values other than strings, numbers, booleans and collections, such as
+	 * {@code x-deprecation}, into plain maps and lists first.
+	 */
+	private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+	/**
+	 * Length of the last rendered document, the buffer size of the next rendering.
+	 */
+	private static final AtomicInteger LAST_LENGTH = new AtomicInteger(INITIAL_CAPACITY);
+
+	private byte[] buffer;
+
+	private int length;
+
+	/**
+	 * Whether the next line continues after a sequence indicator, so that it must not be
+	 * indented.
+	 */
+	private boolean inline;
+
+	private SchemaYamlWriter(int capacity) {
+		buffer = new byte[capacity];
+	}
+
+	/**
+	 * Renders the schema as a UTF-8 YAML document.
+	 * @param root the schema to render
+	 * @return the rendered document
+	 */
+	static byte[] render(CompactSchemaRoot root) {
+		SchemaYamlWriter writer = new SchemaYamlWriter(LAST_LENGTH.get());
+		writer.writeAscii("---\n");
+		writer.writeEntry("$schema", root.getSchema(), 0);
+		writer.writeEntry("$id", root.getId(), 0);
+		writer.writeEntry("title", root.getTitle(), 0);
+		writer.writeEntry("description", root.getDescription(), 0);
+		writer.writeEntry("type", root.getType(), 0);
+		writer.writeEntry("$defs", root.getDefinitions(), 0);
+		writer.writeEntry("properties", root.getProperties(), 0);
+		writer.writeEntry("additionalProperties", root.getAdditionalProperties(), 0);
+		LAST_LENGTH.set(Math.max(writer.length, 1));
+		// An unchanged schema fills the buffer exactly and is returned without a copy
+		return (writer.length == writer.buffer.length) ? writer.buffer : Arrays.copyOf(writer.buffer, writer.length);
+	}
+
+	private void writeEntry(String key, Object value, int indent) {
+		writeIndent(indent);
+		writeKey(key);
+		writeByte(':');
+		Object plain = plain(value);
+		if (fitsOnLine(plain)) {
+			writeByte(' ');
+			writeScalar(plain);
+			writeByte('\n');
+		}
+		else {
+			writeByte('\n');
+			// Sequences sit at the indentation of their key, mappings one level deeper
+			writeContainer(plain, (plain instanceof Collection) ? indent : indent + 2);
+		}
+	}
+
+	private void writeItem(Object value, int indent) {
+		writeIndent(indent);
+		writeAscii("- ");
+		Object plain = plain(value);
+		if (fitsOnLine(plain)) {
+			writeScalar(plain);
+			writeByte('\n');
+		}
+		else {
+			// The first line of a nested block continues behind the indicator
+			inline = true;
+			writeContainer(plain, indent + 2);
+		}
+	}
+
+	private void writeContainer(Object value, int indent) {
+		if (value instanceof CompactSchemaNode node) {
+			node.forEachField((field, fieldValue) -> writeEntry(field.getJsonName(), fieldValue, indent));
+		}
+		else if (value instanceof CompactSchemaMap map) {
+			for (int i = 0; i < map.size(); i++) {
+				writeEntry(map.name(i), map.node(i), indent);
+			}
+		}
+		else if (value instanceof Map<?, ?> map) {
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeEntry(String.valueOf(entry.getKey()), entry.getValue(), indent);
+			}
+		}
+		else {
+			for (Object item : (Collection<?>) value) {
+				writeItem(item, indent);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the value is written on the line of its key or indicator: scalars
+	 * and empty containers, which are written in flow style.
+	 */
+	private static boolean fitsOnLine(Object value) {
+		if (value instanceof CompactSchemaNode node) {
+			return node.mask() == 0;
+		}
+		if (value instanceof CompactSchemaMap map) {
+			return map.isEmpty();
+		}
+		if (value instanceof Map<?, ?> map) {
+			return map.isEmpty();
+		}
+		if (value instanceof Collection<?> collection) {
+			return collection.isEmpty();
+		}
+		return true;
+	}
+
+	/**
+	 * Maps schema enums to their JSON value and converts values the writer has no direct
+	 * representation for into plain maps, lists and scalars.
+	 */
+	private static Object plain(Object value) {
+		if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+				|| value instanceof CompactSchemaNode || value instanceof CompactSchemaMap || value instanceof Map
+				|| value instanceof Collection) {
+			return value;
+		}
+		if (value instanceof JsonSchemaType type) {
+			return type.getJsonValue();
+		}
+		if (value instanceof JsonSchemaFormat format) {
+			return format.getJsonValue();
+		}
+		return MAPPER.convertValue(value, Object.class);
+	}
+
+	private void writeScalar(Object value) {
+		if (value == null) {
+			writeAscii("null");
+		}
+		else if (value instanceof String string) {
+			writeQuoted(string);
+		}
+		else if (value instanceof Map || value instanceof CompactSchemaNode || value instanceof CompactSchemaMap) {
+			writeAscii("{}");
+		}
+		else if (value instanceof Collection) {
+			writeAscii("[]");
+		}
+		else if (value instanceof Double || value instanceof Float) {
+			writeFloatingPoint(((Number) value).doubleValue(), value.toString());
+		}
+		else {
+			writeAscii(value.toString());
+		}
+	}
+
+	/**
+	 * Writes a float so that YAML 1.1 readers resolve it as one too: they require a sign
+	 * on the exponent, which Java leaves out for positive exponents ({@code 1.0E10} would
+	 * read back as a string).
+	 */
+	private void writeFloatingPoint(double value, String text) {
+		if (Double.isNaN(value)) {
+			writeAscii(".nan");
+		}
+		else if (Double.isInfinite(value)) {
+			writeAscii((value > 0) ? ".inf" : "-.inf");
+		}
+		else {
+			int exponent = text.indexOf('E');
+			if (exponent < 0) {
+				writeAscii(text);
+				return;
+			}
+			writeAscii(text.substring(0, exponent));
+			writeAscii((text.charAt(exponent + 1) == '-') ? "e" : "e+");
+			writeAscii(text.substring(exponent + 1));
+		}
+	}
+
+	private void writeKey(String key) {
+		if (isPlainKey(key)) {
+			writeAscii(key);
+		}
+		else {
+			writeQuoted(key);
+		}
+	}
+
+	/**
+	 * Returns whether the key can be written as a plain scalar: it consists of name
+	 * characters only, does not start with a character that could begin a number or an
+	 * indicator, and does not read as a boolean or null.
+	 */
+	private static boolean isPlainKey(String key) {
+		if (key.isEmpty()) {
+			return false;
+		}
+		char first = key.charAt(0);
+		if (!(Character.isLetter(first) && first < 0x80) && first != '$' && first != '_' && first != '/') {
+			return false;
+		}
+		for (int i = 1; i < key.length(); i++) {
+			char c = key.charAt(i);
+			boolean nameChar = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_'
+					|| c == '$' || c == '.' || c == '-' || c == '/';
+			if (!nameChar) {
+				return false;
+			}
+		}
+		return key.length() > 5 || !RESERVED.contains(key.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Writes a double-quoted scalar, encoding it as UTF-8. Quotes, backslashes, line
+	 * breaks and characters YAML does not allow unescaped are written as escape
+	 * sequences; everything else is written as is.
+	 */
+	private void writeQuoted(String value) {
+		// Six bytes per character covers the longest escape sequence
+		ensureCapacity(value.length() * 6 + 2);
+		append('"');
+		int i = 0;
+		while (i < value.length()) {
+			char c = value.charAt(i);
+			i++;
+			if (c < 0x80) {
+				if (c == '"' || c == '\\') {
+					append('\\');
+					append(c);
+				}
+				else if (c >= 0x20 && c != 0x7F) {
+					append(c);
+				}
+				else {
+					appendEscape(c);
+				}
+			}
+			else if (c < 0xA0) {
+				// C1 control characters, including the next-line break U+0085
+				appendEscape(c);
+			}
+			else if (c < 0x800) {
+				append(0xC0 | (c >> 6));
+				append(0x80 | (c & 0x3F));
+			}
+			else if (Character.isHighSurrogate(c) && i < value.length() && Character.isLowSurrogate(value.charAt(i))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(i));
+				i++;
+				append(0xF0 | (codePoint >> 18));
+				append(0x80 | ((codePoint >> 12) & 0x3F));
+				append(0x80 | ((codePoint >> 6) & 0x3F));
+				append(0x80 | (codePoint & 0x3F));
+			}
+			else if (Character.isSurrogate(c)) {
+				// An unpaired surrogate cannot be encoded
+				appendEscape(0xFFFD);
+			}
+			else if (c == 0x2028 || c == 0x2029 || c == 0xFEFF || c >= 0xFFFE) {
+				// Readers would fold the line and paragraph separators and drop the byte
+				// order mark
+				appendEscape(c);
+			}
+			else {
+				append(0xE0 | (c >> 12));
+				append(0x80 | ((c >> 6) & 0x3F));
+				append(0x80 | (c & 0x3F));
+			}
+		}
+		append('"');
+	}
+
+	private void appendEscape(int c) {
+		append('\\');
+		switch (c) {
+			case '\n' -> append('n');
+			case '\t' -> append('t');
+			case '\r' -> append('r');
+			default -> {
+				append('u');
+				append(HEX[(c >> 12) & 0xF]);
+				append(HEX[(c >> 8) & 0xF]);
+				append(HEX[(c >> 4) & 0xF]);
+				append(HEX[c & 0xF]);
+			}
+		}
+	}
+
+	/**
+	 * Appends one byte; callers reserve the capacity beforehand.
+	 */
+	private void append(int b) {
+		buffer[length] = (byte) b;
+		length++;
+	}
+
+	private void writeIndent(int indent) {
+		if (inline) {
+			inline = false;
+			return;
+		}
+		ensureCapacity(indent);
+		Arrays.fill(buffer, length, length + indent, (byte) ' ');
+		length += indent;
+	}
+
+	private void writeAscii(String text) {
+		ensureCapacity(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			append(text.charAt(i));
+		}
+	}
+
+	private void writeByte(char c) {
+		ensureCapacity(1);
+		append(c);
+	}
+
+	private void ensureCapacity(int extra) {
+		if (length + extra > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+		}
+	}
+
+}
@@ -0,0 +1,258 @@
+package org.alexmond.config.json.schema.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A rendering of the schema kept in a file of the {@link SchemaFileStore} rather than on
+ * the heap, together with the response headers it should be served with. Files are named
+ * after their content and never rewritten. The file is opened when it is stored and read
+ * through that channel only, so a stored schema keeps serving the same bytes even after
+ * its file has been deleted following a rebuild, on file systems that keep open files
+ * readable. The channel is closed by a {@link Cleaner} once the stored schema is no
+ * longer reachable, so callers never close it themselves.
+ *
+ * <p>
+ * The document can be served without copying it through the heap: {@link #transferTo}
+ * hands the file to the operating system, {@link #getBuffer()} maps it into memory, and
+ * {@link #getResource()} exposes it as a file resource, which Spring WebFlux on Reactor
+ * Netty writes with zero-copy file transfer.
+ */
+@Slf4j
+@Getter
+public final class StoredSchema {
+
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	private final SchemaFormat format;
+
+	private final SchemaEncoding encoding;
+
+	/**
+	 * Version of the snapshot the document was rendered from.
+	 */
+	private final long version;
+
+	/**
+	 * Hex encoded SHA-256 hash of the plain document, the same for every content encoding
+	 * of it.
+	 */
+	private final String contentHash;
+
+	/**
+	 * The file holding the encoded document.
+	 */
+	private final Path path;
+
+	/**
+	 * Size of the encoded document in bytes.
+	 */
+	private final long contentLength;
+
+	@Getter(AccessLevel.NONE)
+	private final FileChannel channel;
+
+	@Getter(AccessLevel.NONE)
+	private final AtomicReference<ByteBuffer> mapped = new AtomicReference<>();
+
+	StoredSchema(SchemaFormat format, SchemaEncoding encoding, long version, String contentHash, Path path,
+			long contentLength, FileChannel channel) {
+		this.format = format;
+		this.encoding = encoding;
+		this.version = version;
+		this.contentHash = contentHash;
+		this.path = path;
+		this.contentLength = contentLength;
+		this.channel = channel;
+		CLEANER.register(this, new ChannelCloser(channel));
+	}
+
+	/**
+	 * Returns the value of the {@code ETag} header, the same as for the in-memory
+	 * rendering of the document.
+	 * @return the quoted entity tag
+	 * @see RenderedSchema#getETag()
+	 */
+	public String getETag() {
+		return RenderedSchema.entityTag(contentHash, encoding);
+	}
+
+	/**
+	 * Returns whether an {@code If-None-Match} request header matches this document.
+	 * @param ifNoneMatch the header value, may be null
+	 * @return true if the client already has this document
+	 * @see RenderedSchema#isNotModified(String)
+	 */
+	public boolean isNotModified(String ifNoneMatch) {
+		return RenderedSchema.matches(getETag(), ifNoneMatch);
+	}
+
+	/**
+	 * Returns the value of the {@code Content-Type} header.
+	 * @return the media type of the document
+	 */
+	public String getContentType() {
+		return format.getContentType();
+	}
+
+	/**
+	 * Returns the value of the {@code Content-Encoding} header.
+	 * @return the encoding token, or null if the document is not encoded
+	 */
+	public String getContentEncoding() {
+		return (encoding != SchemaEncoding.IDENTITY) ? encoding.getToken() : null;
+	}
+
+	/**
+	 * Returns the file as a resource, for frameworks that serve file resources with
+	 * zero-copy transfer. Unlike the other accessors, the resource opens the file by its
+	 * path, so it should only be used for the current rendering.
+	 * @return a resource for the stored file
+	 */
+	public Resource getResource() {
+		return new FileSystemResource(path);
+	}
+
+	/**
+	 * Returns a stream over the stored file.
+	 * @return a new stream, to be closed by the caller
+	 * @throws IOException if the file cannot be opened
+	 */
+	public InputStream getInputStream() throws IOException {
+		return new PositionalInputStream(channel, contentLength);
+	}
+
+	/**
+	 * Reads the whole document onto the heap.
+	 * @return the document
+	 * @throws IOException if reading fails
+	 */
+	byte[] readContent() throws IOException {
+		try (InputStream in = getInputStream()) {
+			return in.readAllBytes();
+		}
+	}
+
+	/**
+	 * Returns the document as a read-only buffer mapped from the stored file. The file is
+	 * mapped on first use and the mapping is shared; each call returns an independent
+	 * view of it.
+	 * @return a read-only buffer over the whole document
+	 */
+	public ByteBuffer getBuffer() {
+		ByteBuffer buffer = mapped.get();
+		if (buffer == null) {
+			try {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, contentLength);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			if (!mapped.compareAndSet(null, buffer)) {
+				buffer = mapped.get();
+			}
+		}
+		return buffer.duplicate();
+	}
+
+	/**
+	 * Writes the document to the given channel with {@link FileChannel#transferTo}, which
+	 * lets the operating system copy file and socket channels directly. The channel is
+	 * not closed.
+	 * @param target the channel to write to
+	 * @throws IOException if reading or writing fails
+	 */
+	public void transferTo(WritableByteChannel target) throws IOException {
+		// Positional transfers leave the shared channel's position alone
+		long position = 0;
+		while (position < contentLength) {
+			long transferred = channel.transferTo(position, contentLength - position, target);
+			if (transferred <= 0) {
+				throw new IOException("Stored schema " + path + " ended after " + position + " bytes");
+			}
+			position += transferred;
+		}
+	}
+
+	/**
+	 * Reads the shared channel with positional reads, so concurrent streams do not
+	 * interfere.
+	 */
+	private static final class PositionalInputStream extends InputStream {
+
+		private final FileChannel channel;
+
+		private final long length;
+
+		private long position;
+
+		PositionalInputStream(FileChannel channel, long length) {
+			super();
+			this.channel = channel;
+			this.length = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			return (read(single, 0, 1) < 0) ? -1 : (single[0] & 0xFF);
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int count) throws IOException {
+			if (position >= length) {
+				return -1;
+			}
+			int limit = (int) Math.min(count, length - position);
+			int read = channel.read(ByteBuffer.wrap(buffer, offset, limit), position);
+			if (read > 0) {
+				position += read;
+			}
+			return read;
+		}
+
+		@Override
+		public int available() {
+			return (int) Math.min(Integer.MAX_VALUE, length - position);
+		}
+
+	}
+
+	/**
+	 * Closes the channel of a stored schema that is no longer reachable. It must not
+	 * refer to the stored schema itself, or the schema would stay reachable.
+	 */
+	private static final class ChannelCloser implements Runnable {
+
+		private final FileChannel channel;
+
+		ChannelCloser(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public void run() {
+			try {
+				channel.close();
+			}
+			catch (IOException ex) {
+				log.debug("Cannot close the channel of a stored schema", ex);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,92 @@
+package org.alexmond.config.json.schema.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-build table of the property paths and type names seen while building a schema.
+ * Every distinct string is interned once and assigned a dense int id, starting at 0, so
+ * that the builder can track visited types, processed properties and anchors in
+ * {@link java.util.BitSet bit sets} instead of string hash sets. The anchor name of a
+ * type (the type name with {@code $} replaced by {@code :}) is derived once per type and
+ * cached by id. Instances are not thread-safe.
+ */
+public final class SymbolTable {
+
+	private static final int NO_ANCHOR = -1;
+
+	private final Map<String, Integer> ids = new HashMap<>();
+
+	private final List<String> symbols = new ArrayList<>();
+
+	/**
+	 * Anchor symbol id per type symbol id, {@link #NO_ANCHOR} if not yet derived.
+	 */
+	private int[] anchorIds = new int[0];
+
+	/**
+	 * Returns the id of the given symbol, assigning the next free id on first use.
+	 * @param symbol the property path or type name
+	 * @return the id of the symbol
+	 */
+	public int intern(String symbol) {
+		Integer id = ids.get(symbol);
+		if (id == null) {
+			id = symbols.size();
+			ids.put(symbol, id);
+			symbols.add(symbol);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the id of the given symbol without interning it.
+	 * @param symbol the property path or type name
+	 * @return the id of the symbol, or -1 if it has not been interned
+	 */
+	public int find(String symbol) {
+		Integer id = ids.get(symbol);
+		return (id != null) ? id : -1;
+	}
+
+	/**
+	 * Returns the symbol with the given id.
+	 * @param id an id returned by {@link #intern(String)}
+	 * @return the symbol
+	 */
+	public String symbol(int id) {
+		return symbols.get(id);
+	}
+
+	/**
+	 * Returns the id of the anchor name of the given type, interning the anchor name on
+	 * first use.
+	 * @param typeId the id of the type name
+	 * @return the id of the anchor name
+	 */
+	public int anchorId(int typeId) {
+		if (typeId >= anchorIds.length) {
+			int oldLength = anchorIds.length;
+			anchorIds = Arrays.copyOf(anchorIds, Math.max(typeId + 1, oldLength * 2));
+			Arrays.fill(anchorIds, oldLength, anchorIds.length, NO_ANCHOR);
+		}
+		int anchorId = anchorIds[typeId];
+		if (anchorId == NO_ANCHOR) {
+			anchorId = intern(symbol(typeId).replace("$", ":"));
+			anchorIds[typeId] = anchorId;
+		}
+		return anchorId;
+	}
+
+	/**
+	 * Returns the number of interned symbols.
+	 * @return the symbol count
+	 */
+	public int size() {
+		return symbols.size();
+	}
+
+}
@@ -7,10 +7,10 @@ import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaProperties;
 import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaType;
 import org.alexmond.config.json.schema.metamodel.Property;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service responsible for mapping Spring configuration property types to JSON Schema
@@ -21,10 +21,22 @@ import java.util.Set;
 @Slf4j
 public class TypeMappingService {
 
+	/**
+	 * Built-in overrides keyed by property name or type.
+	 */
+	private static final Map<String, JsonSchemaProperties> EXTENDED_TYPE_PROPS = Map.of("java.util.Locale",
+			JsonSchemaProperties.builder().reference("#/$defs/java.util.Locale").build(), "java.nio.charset.Charset",
+			JsonSchemaProperties.builder().reference("#/$defs/java.nio.charset.Charset").build(), "logging.level",
+			JsonSchemaProperties.builder().reference("#/$defs/loggerLevelProp").build(), "logging.threshold.console",
+			JsonSchemaProperties.builder().reference("#/$defs/loggerLevel").build(), "logging.threshold.file",
+			JsonSchemaProperties.builder().reference("#/$defs/loggerLevel").build());
+
 	private final MissingTypeCollector missingTypeCollector;
 
 	private final JsonConfigSchemaConfig jsonConfigSchemaConfig;
 
+	private final AtomicReference<SchemaOverrideMatcher> overrides = new AtomicReference<>();
+
 	public TypeMappingService(MissingTypeCollector missingTypeCollector,
 			JsonConfigSchemaConfig jsonConfigSchemaConfig) {
 		this.missingTypeCollector = missingTypeCollector;
@@ -184,45 +196,36 @@ public class TypeMappingService {
 		}
 	}
 
-	private JsonSchemaProperties extendedTypeProp(String springType, Property prop) {
-
-		Map<String, JsonSchemaProperties> extendedTypeProps = new HashMap<>() {
-			{
-				put("java.util.Locale", JsonSchemaProperties.builder().reference("#/$defs/java.util.Locale").build());
-				put("java.nio.charset.Charset",
-						JsonSchemaProperties.builder().reference("#/$defs/java.nio.charset.Charset").build());
-				put("logging.level", JsonSchemaProperties.builder().reference("#/$defs/loggerLevelProp").build());
-				put("logging.threshold.console",
-						JsonSchemaProperties.builder().reference("#/$defs/loggerLevel").build());
-				put("logging.threshold.file", JsonSchemaProperties.builder().reference("#/$defs/loggerLevel").build());
-			}
-		};
+	/**
+	 * Compiles the configured schema overrides. Called at the start of every schema build
+	 * so that changes to the configuration are picked up; lookups compile on first use if
+	 * this has not been called.
+	 */
+	public void compileOverrides() {
+		overrides.set(SchemaOverrideMatcher.compile(jsonConfigSchemaConfig.getJsonSchemaPropertiesMap()));
+	}
 
-		JsonSchemaProperties JsonSchemaProperties;
-		if (prop != null) {
-			JsonSchemaProperties = jsonConfigSchemaConfig.getJsonSchemaPropertiesMap().get(prop.getName());
-			if (JsonSchemaProperties != null) {
-				return JsonSchemaProperties;
-			}
-		}
-		if (springType != null) {
-			JsonSchemaProperties = jsonConfigSchemaConfig.getJsonSchemaPropertiesMap().get(springType);
-			if (JsonSchemaProperties != null) {
-				return JsonSchemaProperties;
-			}
+	/**
+	 * Looks up a configured or built-in schema override. Configured overrides are tried
+	 * first, in the order described by {@link SchemaOverrideMatcher#find}; then the
+	 * built-in overrides by property name and type. The result is a copy that the caller
+	 * may modify.
+	 */
+	private JsonSchemaProperties extendedTypeProp(String springType, Property prop) {
+		SchemaOverrideMatcher matcher = overrides.get();
+		if (matcher == null) {
+			compileOverrides();
+			matcher = overrides.get();
 		}
-		if (prop != null) {
-			JsonSchemaProperties = extendedTypeProps.get(prop.getName());
-			if (JsonSchemaProperties != null) {
-				return JsonSchemaProperties;
-			}
+		String propName = (prop != null) ? prop.getName() : null;
+		JsonSchemaProperties override = matcher.find(propName, springType);
+		if (override == null && propName != null) {
+			override = EXTENDED_TYPE_PROPS.get(propName);
 		}
-		if (springType != null) {
-			JsonSchemaProperties = extendedTypeProps.get(springType);
-			return JsonSchemaProperties;
+		if (override == null && springType != null) {
+			override = EXTENDED_TYPE_PROPS.get(springType);
 		}
-
-		return null;
+		return (override != null) ? override.deepCopy() : null;
 	}
 
 	/**
@@ -0,0 +1,110 @@
+package org.alexmond.config.json.schema.web;
+
+import org.alexmond.config.json.schema.service.RenderedSchema;
+import org.alexmond.config.json.schema.service.StoredSchema;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.channels.Channels;
+import java.time.Duration;
+
+/**
+ * Builds Spring MVC responses for rendered and stored schema documents, so that
+ * controllers serving the schema only pick the document. Responses carry the content
+ * type, encoding and length of the document and its entity tag, vary by
+ * {@code Accept-Encoding}, and are answered with {@code 304 Not Modified} when the client
+ * already has the document. Requires Spring MVC on the classpath.
+ */
+public final class SchemaResponses {
+
+	/**
+	 * Cache control for documents addressed by their content hash, which never change.
+	 */
+	private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+	private SchemaResponses() {
+	}
+
+	/**
+	 * Serves a document that may change with the next build, so clients revalidate it on
+	 * every use.
+	 * @param rendered the document, or null if there is none
+	 * @param ifNoneMatch the {@code If-None-Match} request header, may be null
+	 * @return the response, or {@code 404 Not Found} if there is no document
+	 */
+	public static ResponseEntity<StreamingResponseBody> serve(RenderedSchema rendered, String ifNoneMatch) {
+		return serve(rendered, ifNoneMatch, CacheControl.noCache());
+	}
+
+	/**
+	 * Serves a document addressed by its content hash, which clients may cache for good.
+	 * @param rendered the document, or null if no document has the requested hash
+	 * @param ifNoneMatch the {@code If-None-Match} request header, may be null
+	 * @return the response, or {@code 404 Not Found} if there is no document
+	 */
+	public static ResponseEntity<StreamingResponseBody> serveImmutable(RenderedSchema rendered, String ifNoneMatch) {
+		return serve(rendered, ifNoneMatch, IMMUTABLE);
+	}
+
+	/**
+	 * Serves a document kept in the render directory, handing the file to the operating
+	 * system rather than copying it through the heap. Clients revalidate it on every use.
+	 * @param stored the document, or null if there is none
+	 * @param ifNoneMatch the {@code If-None-Match} request header, may be null
+	 * @return the response, or {@code 404 Not Found} if there is no document
+	 */
+	public static ResponseEntity<StreamingResponseBody> serve(StoredSchema stored, String ifNoneMatch) {
+		if (stored == null) {
+			return ResponseEntity.notFound().build();
+		}
+		if (stored.isNotModified(ifNoneMatch)) {
+			return notModified(stored.getETag(), CacheControl.noCache());
+		}
+		return ok(stored.getContentType(), stored.getContentEncoding(), stored.getContentLength(), stored.getETag(),
+				CacheControl.noCache())
+			.body((out) -> {
+				stored.transferTo(Channels.newChannel(out));
+				out.flush();
+			});
+	}
+
+	private static ResponseEntity<StreamingResponseBody> serve(RenderedSchema rendered, String ifNoneMatch,
+			CacheControl cacheControl) {
+		if (rendered == null) {
+			return ResponseEntity.notFound().build();
+		}
+		if (rendered.isNotModified(ifNoneMatch)) {
+			return notModified(rendered.getETag(), cacheControl);
+		}
+		return ok(rendered.getContentType(), rendered.getContentEncoding(), rendered.getContentLength(),
+				rendered.getETag(), cacheControl)
+			.body(rendered::writeTo);
+	}
+
+	private static ResponseEntity<StreamingResponseBody> notModified(String eTag, CacheControl cacheControl) {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+			.eTag(eTag)
+			.cacheControl(cacheControl)
+			.varyBy(HttpHeaders.ACCEPT_ENCODING)
+			.build();
+	}
+
+	private static ResponseEntity.BodyBuilder ok(String contentType, String contentEncoding, long contentLength,
+			String eTag, CacheControl cacheControl) {
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+			.contentType(MediaType.parseMediaType(contentType))
+			.contentLength(contentLength)
+			.eTag(eTag)
+			.cacheControl(cacheControl)
+			.varyBy(HttpHeaders.ACCEPT_ENCODING);
+		if (contentEncoding != null) {
+			response.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+		}
+		return response;
+	}
+
+}
@@ -0,0 +1,152 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactSchemaNodeTest {
+
+	static JsonSchemaProperties fullyPopulated() {
+		var leaf = JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build();
+		Map<String, JsonSchemaProperties> properties = new TreeMap<>();
+		properties.put("b", leaf);
+		properties.put("a", JsonSchemaProperties.builder().type(JsonSchemaType.INTEGER).minimum(1).build());
+		Map<String, JsonSchemaProperties> patternProperties = new LinkedHashMap<>();
+		patternProperties.put("z.*", leaf);
+		patternProperties.put("a.*", leaf);
+		return JsonSchemaProperties.builder()
+			.type(JsonSchemaType.OBJECT)
+			.description("d")
+			.pattern("p")
+			.format(JsonSchemaFormat.URI)
+			.reference("r")
+			.enumValues(Set.of("a"))
+			.minimum(1)
+			.maximum(2.5)
+			.exclusiveMinimum(3)
+			.exclusiveMaximum(4)
+			.minLength(5)
+			.maxLength(6)
+			.defaultValue("dv")
+			.deprecated(true)
+			.examples(List.of("e1", "e2"))
+			.properties(properties)
+			.title("t")
+			.comment("c")
+			.anchor("a")
+			.constValue("cv")
+			.readOnly(true)
+			.writeOnly(false)
+			.multipleOf(7)
+			.minItems(8)
+			.maxItems(9)
+			.uniqueItems(true)
+			.prefixItems(List.of(leaf, leaf))
+			.items(leaf)
+			.contains(leaf)
+			.minContains(10)
+			.maxContains(11)
+			.minProperties(12)
+			.maxProperties(13)
+			.requiredProperties(Set.of("rq"))
+			.dependentRequired(Map.of("x", Set.of("y")))
+			.dependentSchemas(Map.of("ds", leaf))
+			.patternProperties(patternProperties)
+			.propertyNames(leaf)
+			.additionalProperties(leaf)
+			.ifSchema(leaf)
+			.thenSchema(leaf)
+			.elseSchema(leaf)
+			.allOf(List.of(leaf))
+			.anyOf(List.of(leaf))
+			.oneOf(List.of(leaf))
+			.not(leaf)
+			.contentEncoding("ce")
+			.contentMediaType("cm")
+			.contentSchema(leaf)
+			.xDeprecation(XDeprecation.builder().reason("r").build())
+			.htmlDescription("h")
+			.build();
+	}
+
+	@Test
+	void serializesLikeJsonSchemaProperties() {
+		var mapper = JsonMapper.builder().build();
+		JsonSchemaProperties properties = fullyPopulated();
+		assertEquals(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(properties),
+				mapper.writerWithDefaultPrettyPrinter().writeValueAsString(CompactSchemaNode.of(properties)));
+	}
+
+	@Test
+	void roundTripsToProperties() {
+		JsonSchemaProperties properties = fullyPopulated();
+		assertEquals(properties, CompactSchemaNode.of(properties).toProperties());
+	}
+
+	@Test
+	void storesOnlyPresentFields() {
+		CompactSchemaNode node = CompactSchemaNode
+			.of(JsonSchemaProperties.builder().type(JsonSchemaType.STRING).description("d").build());
+		assertEquals(JsonSchemaField.TYPE.bit() | JsonSchemaField.DESCRIPTION.bit(), node.mask());
+		assertTrue(node.has(JsonSchemaField.DESCRIPTION));
+		assertFalse(node.has(JsonSchemaField.PROPERTIES));
+		assertEquals(JsonSchemaType.STRING, node.getType());
+		assertEquals("d", node.getDescription());
+		assertNull(node.getProperties());
+	}
+
+	@Test
+	void looksUpChildren() {
+		CompactSchemaNode node = CompactSchemaNode.of(fullyPopulated());
+		CompactSchemaMap properties = node.getProperties();
+		assertEquals(2, properties.size());
+		assertEquals("a", properties.name(0));
+		assertEquals(JsonSchemaType.INTEGER, properties.get("a").getType());
+		assertNull(properties.get("c"));
+
+		CompactSchemaMap patternProperties = (CompactSchemaMap) node.get(JsonSchemaField.PATTERN_PROPERTIES);
+		assertEquals("z.*", patternProperties.name(0));
+		assertTrue(patternProperties.containsKey("a.*"));
+		assertSame(LinkedHashMap.class, patternProperties.toMap().getClass());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void isDetachedFromSourceAndCallers() {
+		List<Object> defaults = new ArrayList<>(List.of("x"));
+		XDeprecation deprecation = XDeprecation.builder().reason("r").build();
+		JsonSchemaProperties properties = JsonSchemaProperties.builder()
+			.defaultValue(defaults)
+			.examples(new ArrayList<>(List.of("e")))
+			.xDeprecation(deprecation)
+			.build();
+		CompactSchemaNode node = CompactSchemaNode.of(properties);
+		String before = JsonMapper.builder().build().writeValueAsString(node);
+
+		defaults.add("y");
+		properties.getExamples().add("f");
+		deprecation.setReason("changed");
+		((XDeprecation) node.get(JsonSchemaField.X_DEPRECATION)).setLevel("error");
+		node.toProperties().getExamples().add("g");
+
+		assertEquals(before, JsonMapper.builder().build().writeValueAsString(node));
+		assertThrows(UnsupportedOperationException.class,
+				() -> ((List<Object>) node.get(JsonSchemaField.EXAMPLES)).add("h"));
+		assertThrows(UnsupportedOperationException.class,
+				() -> ((List<Object>) node.get(JsonSchemaField.DEFAULT)).add("h"));
+	}
+
+}
@@ -0,0 +1,153 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JsonSchemaMergerTest {
+
+	@Test
+	void overwritesScalarsAndKeepsUnsetFields() {
+		JsonSchemaProperties target = JsonSchemaProperties.builder()
+			.type(JsonSchemaType.STRING)
+			.description("old")
+			.pattern("p")
+			.build();
+		JsonSchemaProperties source = JsonSchemaProperties.builder().description("new").minLength(1).build();
+
+		assertSame(target, target.merge(source));
+		assertEquals(JsonSchemaType.STRING, target.getType());
+		assertEquals("new", target.getDescription());
+		assertEquals("p", target.getPattern());
+		assertEquals(1, target.getMinLength());
+		assertNull(target.merge(null).getFormat());
+	}
+
+	@Test
+	void mergesListsAndSets() {
+		JsonSchemaProperties target = JsonSchemaProperties.builder()
+			.examples(List.of("a", "b", "c", "b"))
+			.enumValues(new LinkedHashSet<>(List.of("x", "y")))
+			.build();
+		JsonSchemaProperties source = JsonSchemaProperties.builder()
+			.examples(List.of("b", "d"))
+			.enumValues(Set.of("z"))
+			.build();
+
+		target.merge(source);
+		assertEquals(List.of("a", "c", "b", "d"), target.getExamples());
+		assertEquals(List.of("x", "y", "z"), new ArrayList<>(target.getEnumValues()));
+	}
+
+	@Test
+	void mergesNestedSchemasAndOverwritesItems() {
+		Map<String, JsonSchemaProperties> properties = new TreeMap<>();
+		properties.put("b", JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build());
+		JsonSchemaProperties target = JsonSchemaProperties.builder()
+			.properties(properties)
+			.items(JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build())
+			.not(JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build())
+			.build();
+		JsonSchemaProperties source = JsonSchemaProperties.builder()
+			.properties(Map.of("b", JsonSchemaProperties.builder().description("d").build(), "a",
+					JsonSchemaProperties.builder().type(JsonSchemaType.BOOLEAN).build()))
+			.items(JsonSchemaProperties.builder().description("i").build())
+			.not(JsonSchemaProperties.builder().description("n").build())
+			.build();
+
+		target.merge(source);
+		assertInstanceOf(TreeMap.class, target.getProperties());
+		assertEquals(List.of("a", "b"), new ArrayList<>(target.getProperties().keySet()));
+		assertEquals(JsonSchemaType.STRING, target.getProperties().get("b").getType());
+		assertEquals("d", target.getProperties().get("b").getDescription());
+		assertNull(target.getItems().getType());
+		assertEquals(JsonSchemaType.STRING, target.getNot().getType());
+		assertEquals("n", target.getNot().getDescription());
+	}
+
+	@Test
+	void doesNotShareStateWithSource() {
+		JsonSchemaProperties child = JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build();
+		JsonSchemaProperties source = JsonSchemaProperties.builder()
+			.properties(new TreeMap<>(Map.of("c", child)))
+			.examples(new ArrayList<>(List.of("e")))
+			.xDeprecation(XDeprecation.builder().reason("r").build())
+			.build();
+		JsonSchemaProperties target = new JsonSchemaProperties().merge(source);
+
+		target.getProperties().get("c").setDescription("changed");
+		target.getProperties().put("d", child);
+		target.getExamples().add("f");
+		target.getxDeprecation().setReason("changed");
+
+		assertNull(child.getDescription());
+		assertEquals(1, source.getProperties().size());
+		assertEquals(List.of("e"), source.getExamples());
+		assertEquals("r", source.getxDeprecation().getReason());
+	}
+
+	@Test
+	void doesNotModifyStructureSharedWithTarget() {
+		JsonSchemaProperties sharedChild = JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build();
+		Map<String, JsonSchemaProperties> sharedMap = new TreeMap<>(Map.of("c", sharedChild));
+		Set<String> sharedSet = new LinkedHashSet<>(Set.of("x"));
+		JsonSchemaProperties target = JsonSchemaProperties.builder()
+			.properties(sharedMap)
+			.enumValues(sharedSet)
+			.build();
+		JsonSchemaProperties source = JsonSchemaProperties.builder()
+			.properties(Map.of("c", JsonSchemaProperties.builder().description("d").build(), "e",
+					new JsonSchemaProperties()))
+			.enumValues(Set.of("y"))
+			.build();
+
+		target.merge(source);
+		assertNotSame(sharedMap, target.getProperties());
+		assertEquals(1, sharedMap.size());
+		assertNull(sharedChild.getDescription());
+		assertEquals(Set.of("x"), sharedSet);
+		assertEquals("d", target.getProperties().get("c").getDescription());
+	}
+
+	@Test
+	void deepCopyMatchesOriginal() {
+		JsonSchemaProperties properties = CompactSchemaNodeTest.fullyPopulated();
+		JsonSchemaProperties copy = properties.deepCopy();
+		assertEquals(properties, copy);
+		assertNotSame(properties.getProperties(), copy.getProperties());
+		assertNotSame(properties.getItems(), copy.getItems());
+	}
+
+	@Test
+	void nodesKeepTheirPresenceMaskUpToDate() {
+		JsonSchemaProperties node = JsonSchemaProperties.builder().type(JsonSchemaType.OBJECT).description("d").build();
+		assertEquals(JsonSchemaField.TYPE.bit() | JsonSchemaField.DESCRIPTION.bit(),
+				JsonSchemaField.presenceMask(node));
+
+		node.setDescription(null);
+		node.setItems(new JsonSchemaProperties());
+		JsonSchemaField.X_DEPRECATION.set(node, new XDeprecation("r", null, null, null));
+		assertEquals(JsonSchemaField.TYPE.bit() | JsonSchemaField.ITEMS.bit() | JsonSchemaField.X_DEPRECATION.bit(),
+				JsonSchemaField.presenceMask(node));
+		assertEquals(JsonSchemaField.presenceMask(node), JsonSchemaField.presenceMask(node.toBuilder().build()));
+		assertEquals(0, JsonSchemaField.presenceMask(new JsonSchemaProperties()));
+
+		JsonSchemaProperties merged = new JsonSchemaProperties().merge(node);
+		for (JsonSchemaField field : JsonSchemaField.values()) {
+			assertEquals(field.get(merged) != null, (JsonSchemaField.presenceMask(merged) & field.bit()) != 0,
+					field.name());
+		}
+	}
+
+}
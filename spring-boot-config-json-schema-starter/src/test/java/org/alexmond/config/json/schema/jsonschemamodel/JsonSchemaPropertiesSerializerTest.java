@@ -0,0 +1,114 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonSchemaPropertiesSerializerTest {
+
+	private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+	private static final JsonMapper BEAN_MAPPER = JsonMapper.builder()
+		.addMixIn(JsonSchemaProperties.class, BeanSerialized.class)
+		.addMixIn(JsonSchemaRoot.class, BeanSerialized.class)
+		.build();
+
+	private static JsonSchemaProperties string() {
+		return JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build();
+	}
+
+	private static JsonSchemaProperties everyField() {
+		Map<String, JsonSchemaProperties> properties = new LinkedHashMap<>();
+		properties.put("name", string());
+		properties.put("empty", null);
+		return JsonSchemaProperties.builder()
+			.type(JsonSchemaType.OBJECT)
+			.format(JsonSchemaFormat.DATE_TIME)
+			.reference("#/$defs/Type")
+			.anchor("Type")
+			.title("Title")
+			.description("Description")
+			.comment("Comment")
+			.deprecated(true)
+			.defaultValue(Map.of("key", List.of(1, 2)))
+			.examples(List.of("a", "b"))
+			.enumValues(new LinkedHashSet<>(List.of("x", "y")))
+			.pattern("^[a-z]+$")
+			.minimum(1)
+			.maximum(new BigDecimal("10.50"))
+			.exclusiveMinimum(0L)
+			.exclusiveMaximum(11.5d)
+			.multipleOf(0.5f)
+			.minLength(1)
+			.maxLength(20)
+			.minItems(0)
+			.maxItems(5)
+			.uniqueItems(false)
+			.prefixItems(List.of(string(), string()))
+			.contains(string())
+			.minContains(1)
+			.maxContains(2)
+			.properties(properties)
+			.patternProperties(Map.of("^x-", string()))
+			.propertyNames(string())
+			.requiredProperties(new LinkedHashSet<>(List.of("name")))
+			.minProperties(1)
+			.maxProperties(3)
+			.dependentRequired(Map.of("name", Set.of("other")))
+			.dependentSchemas(Map.of("name", string()))
+			.additionalProperties(string())
+			.ifSchema(string())
+			.thenSchema(string())
+			.elseSchema(string())
+			.allOf(List.of(string()))
+			.anyOf(List.of(string()))
+			.oneOf(List.of(string()))
+			.not(string())
+			.contentEncoding("base64")
+			.contentMediaType("text/plain")
+			.contentSchema(string())
+			.constValue("fixed")
+			.readOnly(true)
+			.writeOnly(false)
+			.items(string())
+			.xDeprecation(XDeprecation.builder().reason("Old").replacement("new.name").build())
+			.htmlDescription("<p>Description</p>")
+			.build();
+	}
+
+	@Test
+	void writesEveryFieldLikeTheBeanSerializer() {
+		JsonSchemaProperties properties = everyField();
+		assertEquals(BEAN_MAPPER.writeValueAsString(properties), MAPPER.writeValueAsString(properties));
+		assertEquals(BEAN_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(properties),
+				MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(properties));
+	}
+
+	@Test
+	void writesRootsLikeTheBeanSerializer() {
+		JsonSchemaRoot root = JsonSchemaRoot.builder()
+			.definitions(Map.of("Type", everyField()))
+			.properties(Map.of("name", string(), "flag", JsonSchemaProperties.builder().build()))
+			.additionalProperties(false)
+			.build();
+		assertEquals(BEAN_MAPPER.writeValueAsString(root), MAPPER.writeValueAsString(root));
+		JsonSchemaRoot empty = JsonSchemaRoot.builder().schema(null).type(null).build();
+		assertEquals(BEAN_MAPPER.writeValueAsString(empty), MAPPER.writeValueAsString(empty));
+	}
+
+	@JsonSerialize(using = ValueSerializer.None.class)
+	abstract static class BeanSerialized {
+
+	}
+
+}
@@ -0,0 +1,80 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReferenceStyleTest {
+
+	private static JsonSchemaProperties ref(String definition) {
+		return JsonSchemaProperties.builder().reference("#/$defs/" + definition).build();
+	}
+
+	private static CompactSchemaRoot schema() {
+		JsonSchemaProperties node = JsonSchemaProperties.builder()
+			.type(JsonSchemaType.OBJECT)
+			.anchor("Node")
+			.properties(new TreeMap<>(Map.of("name", JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build(),
+					"next", ref("Node"))))
+			.build();
+		JsonSchemaProperties level = JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build();
+		Map<String, JsonSchemaProperties> properties = new LinkedHashMap<>();
+		properties.put("first", ref("Node"));
+		properties.put("second",
+				JsonSchemaProperties.builder().reference("#/$defs/Node").description("Second").build());
+		properties.put("level", ref("level"));
+		return CompactSchemaRoot.of(JsonSchemaRoot.builder()
+			.definitions(new TreeMap<>(Map.of("Node", node, "level", level)))
+			.properties(properties)
+			.additionalProperties(true)
+			.build());
+	}
+
+	@Test
+	void selectsStyleFromConfigurationSwitches() {
+		assertEquals(ReferenceStyle.ANCHORS, ReferenceStyle.of(true, true));
+		assertEquals(ReferenceStyle.DEFINITIONS, ReferenceStyle.of(false, true));
+		assertEquals(ReferenceStyle.INLINE, ReferenceStyle.of(false, false));
+	}
+
+	@Test
+	void anchorsPlaceTheDefinitionAtItsFirstOccurrence() {
+		CompactSchemaRoot anchored = schema().withReferenceStyle(ReferenceStyle.ANCHORS);
+
+		CompactSchemaNode first = anchored.getProperties().get("first");
+		assertEquals("Node", first.getAnchor());
+		assertNull(first.getReference());
+		assertEquals("#Node", first.getProperties().get("next").getReference());
+		CompactSchemaNode second = anchored.getProperties().get("second");
+		assertEquals("#Node", second.getReference());
+		assertEquals("Second", second.getDescription());
+		assertEquals("#/$defs/level", anchored.getProperties().get("level").getReference());
+		assertEquals(List.of("level"), List.copyOf(anchored.getDefinitions().toMap().keySet()));
+	}
+
+	@Test
+	void inlineExpandsDefinitionsAndKeepsRecursiveOnes() {
+		CompactSchemaRoot inline = schema().withReferenceStyle(ReferenceStyle.INLINE);
+
+		CompactSchemaNode first = inline.getProperties().get("first");
+		assertNull(first.getAnchor());
+		assertEquals(JsonSchemaType.OBJECT, first.getType());
+		assertEquals("#/$defs/Node", first.getProperties().get("next").getReference());
+		assertEquals("Second", inline.getProperties().get("second").getDescription());
+		assertEquals(List.of("Node", "level"), List.copyOf(inline.getDefinitions().toMap().keySet()));
+	}
+
+	@Test
+	void definitionStyleIsTheSchemaItself() {
+		CompactSchemaRoot source = schema();
+		assertSame(source, source.withReferenceStyle(ReferenceStyle.DEFINITIONS));
+	}
+
+}
@@ -0,0 +1,69 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SchemaCanonicalizerTest {
+
+	private final JsonMapper mapper = JsonMapper.builder().build();
+
+	private static JsonSchemaRoot schema(List<String> order, Number maximum) {
+		Map<String, JsonSchemaProperties> properties = new LinkedHashMap<>();
+		Map<String, JsonSchemaProperties> definitions = new LinkedHashMap<>();
+		for (String name : order) {
+			JsonSchemaProperties child = JsonSchemaProperties.builder()
+				.type(JsonSchemaType.STRING)
+				.enumValues(new LinkedHashSet<>(order))
+				.build();
+			properties.put(name,
+					JsonSchemaProperties.builder()
+						.type(JsonSchemaType.OBJECT)
+						.properties(new LinkedHashMap<>(Map.of(name, child)))
+						.requiredProperties(new LinkedHashSet<>(order))
+						.maximum(maximum)
+						.build());
+			definitions.put(name, child);
+		}
+		return JsonSchemaRoot.builder()
+			.type(JsonSchemaType.OBJECT)
+			.properties(properties)
+			.definitions(definitions)
+			.build();
+	}
+
+	@Test
+	void sameSchemaIsWrittenIdenticallyRegardlessOfOrder() {
+		JsonSchemaRoot first = schema(List.of("b", "c", "a"), 10);
+		JsonSchemaRoot second = schema(List.of("a", "b", "c"), new BigDecimal("10.00"));
+
+		SchemaCanonicalizer.canonicalize(first);
+		SchemaCanonicalizer.canonicalize(second);
+
+		String json = mapper.writeValueAsString(first);
+		assertEquals(json, mapper.writeValueAsString(second));
+		assertEquals(List.of("a", "b", "c"), List.copyOf(first.getProperties().keySet()));
+		assertEquals(List.of("a", "b", "c"), List.copyOf(first.getDefinitions().keySet()));
+		assertEquals(List.of("a", "b", "c"), List.copyOf(first.getProperties().get("b").getRequiredProperties()));
+		assertEquals(List.of("a", "b", "c"), List.copyOf(first.getDefinitions().get("c").getEnumValues()));
+	}
+
+	@Test
+	void normalizesNumbers() {
+		assertEquals(1L, SchemaCanonicalizer.normalize(1.0));
+		assertEquals(1L, SchemaCanonicalizer.normalize(new BigDecimal("1.00")));
+		assertEquals(0.5, SchemaCanonicalizer.normalize(0.5f));
+		assertEquals(0.5, SchemaCanonicalizer.normalize(new BigDecimal("0.50")));
+		assertEquals(0.1, SchemaCanonicalizer.normalize(0.1f));
+		assertEquals(7, SchemaCanonicalizer.normalize(7));
+		assertEquals(Double.NaN, SchemaCanonicalizer.normalize(Double.NaN));
+	}
+
+}
@@ -0,0 +1,58 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaShardsTest {
+
+	private static JsonSchemaProperties string() {
+		return JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build();
+	}
+
+	private static String reference(SchemaShards shards, String prefix) {
+		Map<?, ?> properties = (Map<?, ?>) shards.getDocument(SchemaShards.INDEX).get("properties");
+		return ((CompactSchemaNode) properties.get(prefix)).getReference();
+	}
+
+	@Test
+	void documentNamesAreSafeAndDistinct() {
+		assertEquals("logging", SchemaShards.documentName("logging"));
+		assertEquals("my-app.v2_x", SchemaShards.documentName("my-app.v2_x"));
+		assertEquals("~5Fdefs", SchemaShards.documentName(SchemaShards.DEFINITIONS));
+		assertEquals("~5Findex", SchemaShards.documentName(SchemaShards.INDEX));
+		assertEquals("~2E.", SchemaShards.documentName(".."));
+		assertEquals("a~2Fb~7Ec", SchemaShards.documentName("a/b~c"));
+		assertEquals("~C3~A9t~C3~A9", SchemaShards.documentName("été"));
+	}
+
+	@Test
+	void prefixesCollidingWithReservedNamesGetTheirOwnDocuments() {
+		Map<String, JsonSchemaProperties> properties = new LinkedHashMap<>();
+		properties.put("_defs", JsonSchemaProperties.builder().type(JsonSchemaType.STRING).anchor("shared").build());
+		properties.put("_index", string());
+		properties.put("a/b~c", JsonSchemaProperties.builder().reference("#shared").build());
+		properties.put("map[*] x", string());
+		SchemaShards shards = SchemaShards.of(new SchemaSnapshot(CompactSchemaRoot
+			.of(JsonSchemaRoot.builder().definitions(Map.of("locale", string())).properties(properties).build()), 1));
+
+		assertEquals(List.of("~5Fdefs", "~5Findex", "a~2Fb~7Ec", "map~5B~2A~5D~20x", SchemaShards.DEFINITIONS,
+				SchemaShards.INDEX), shards.getNames());
+		assertTrue(shards.getDocument(SchemaShards.DEFINITIONS).containsKey("$defs"));
+		assertEquals(properties.keySet(),
+				((Map<?, ?>) shards.getDocument(SchemaShards.INDEX).get("properties")).keySet());
+		assertTrue(((Map<?, ?>) shards.getDocument("~5Fdefs").get("properties")).containsKey("_defs"));
+
+		assertEquals("~5Fdefs.json#/properties/_defs", reference(shards, "_defs"));
+		assertEquals("a~2Fb~7Ec.json#/properties/a~1b~0c", reference(shards, "a/b~c"));
+		assertEquals("map~5B~2A~5D~20x.json#/properties/map%5B*%5D%20x", reference(shards, "map[*] x"));
+		Map<?, ?> slashed = (Map<?, ?>) shards.getDocument("a~2Fb~7Ec").get("properties");
+		assertEquals("~5Fdefs.json#shared", ((CompactSchemaNode) slashed.get("a/b~c")).getReference());
+	}
+
+}
@@ -0,0 +1,150 @@
+package org.alexmond.config.json.schema.jsonschemamodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaViewTest {
+
+	private static JsonSchemaProperties object(Map<String, JsonSchemaProperties> children) {
+		return JsonSchemaProperties.builder()
+			.type(JsonSchemaType.OBJECT)
+			.properties(new TreeMap<>(children))
+			.requiredProperties(new LinkedHashSet<>(children.keySet()))
+			.build();
+	}
+
+	private static JsonSchemaProperties ref(String definition) {
+		return JsonSchemaProperties.builder().reference("#/$defs/" + definition).build();
+	}
+
+	private static CompactSchemaRoot schema() {
+		JsonSchemaProperties datasource = object(
+				Map.of("url", JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build(), "pool", ref("pool")));
+		JsonSchemaProperties legacy = JsonSchemaProperties.builder()
+			.type(JsonSchemaType.STRING)
+			.deprecated(true)
+			.build();
+		JsonSchemaProperties spring = object(Map.of("datasource", datasource, "legacy", legacy));
+		JsonSchemaProperties server = object(Map.of("port",
+				JsonSchemaProperties.builder().type(JsonSchemaType.INTEGER).build(), "locale", ref("locale")));
+		JsonSchemaProperties pool = object(Map.of("size", ref("size")));
+		return CompactSchemaRoot
+			.of(JsonSchemaRoot.builder()
+				.definitions(new TreeMap<>(Map.of("pool", pool, "size",
+						JsonSchemaProperties.builder().type(JsonSchemaType.INTEGER).build(), "locale",
+						JsonSchemaProperties.builder().type(JsonSchemaType.STRING).build())))
+				.properties(new TreeMap<>(Map.of("spring", spring, "server", server)))
+				.additionalProperties(true)
+				.build());
+	}
+
+	@Test
+	void specsAreNormalized() {
+		ViewSpec spec = ViewSpec.builder()
+			.includePrefixes(List.of(" spring.datasource ", "spring.", "server.port", "spring"))
+			.excludePrefixes(List.of("", "logging"))
+			.maxDepth(-1)
+			.build();
+		assertEquals(List.of("server.port", "spring"), List.copyOf(spec.getIncludePrefixes()));
+		assertEquals(List.of("logging"), List.copyOf(spec.getExcludePrefixes()));
+		assertEquals(0, spec.getMaxDepth());
+		assertEquals(spec,
+				ViewSpec.builder()
+					.includePrefixes(List.of("spring", "server.port"))
+					.excludePrefixes(List.of("logging."))
+					.build());
+		assertTrue(ViewSpec.builder().includePrefixes(List.of(".")).build().isAll());
+	}
+
+	@Test
+	void keepsAncestorsOfIncludedPrefixesAndReferencedDefinitions() {
+		CompactSchemaRoot source = schema();
+		CompactSchemaRoot view = source.view(ViewSpec.builder().includePrefixes(List.of("spring.datasource")).build());
+
+		assertEquals(List.of("spring"), List.copyOf(view.getProperties().toMap().keySet()));
+		CompactSchemaNode spring = view.getProperties().get("spring");
+		assertEquals(List.of("datasource"), List.copyOf(spring.getProperties().toMap().keySet()));
+		assertEquals(List.of("datasource"), List.copyOf((Set<?>) spring.get(JsonSchemaField.REQUIRED)));
+		assertSame(source.getProperties().get("spring").getProperties().get("datasource"),
+				spring.getProperties().get("datasource"));
+		assertEquals(List.of("pool", "size"), List.copyOf(view.getDefinitions().toMap().keySet()));
+		assertEquals(true, view.getAdditionalProperties());
+	}
+
+	@Test
+	void excludesPrefixesAndDeprecatedProperties() {
+		CompactSchemaRoot view = schema()
+			.view(ViewSpec.builder().excludePrefixes(List.of("spring.datasource")).excludeDeprecated(true).build());
+
+		assertFalse(view.getProperties().get("spring").getProperties().containsKey("legacy"));
+		assertTrue(view.getProperties().get("spring").getProperties().isEmpty());
+		assertEquals(List.of("locale"), List.copyOf(view.getDefinitions().toMap().keySet()));
+	}
+
+	@Test
+	void cutsPropertiesBelowMaxDepth() {
+		CompactSchemaRoot view = schema().view(ViewSpec.builder().maxDepth(2).build());
+
+		CompactSchemaNode datasource = view.getProperties().get("spring").getProperties().get("datasource");
+		assertEquals(JsonSchemaType.OBJECT, datasource.getType());
+		assertNull(datasource.getProperties());
+		assertNull(datasource.get(JsonSchemaField.REQUIRED));
+		assertTrue(view.getDefinitions().containsKey("locale"));
+		assertFalse(view.getDefinitions().containsKey("pool"));
+	}
+
+	@Test
+	void viewOfEverythingIsTheSchemaItself() {
+		CompactSchemaRoot source = schema();
+		assertSame(source, source.view(ViewSpec.ALL));
+		assertSame(source, source.view(ViewSpec.builder().build()));
+	}
+
+	@Test
+	void leanViewsLeaveOutDocumentation() {
+		JsonSchemaProperties documented = JsonSchemaProperties.builder()
+			.type(JsonSchemaType.STRING)
+			.description("Level")
+			.htmlDescription("<p>Level</p>")
+			.comment("Comment")
+			.examples(List.of("info"))
+			.xDeprecation(XDeprecation.builder().reason("Old").build())
+			.deprecated(true)
+			.enumValues(new LinkedHashSet<>(List.of("info", "debug")))
+			.build();
+		JsonSchemaProperties undocumented = JsonSchemaProperties.builder().type(JsonSchemaType.INTEGER).build();
+		CompactSchemaRoot source = CompactSchemaRoot.of(JsonSchemaRoot.builder()
+			.description("Root")
+			.definitions(Map.of("level", documented))
+			.properties(new TreeMap<>(Map.of("logging",
+					object(Map.of("level", JsonSchemaProperties.builder().allOf(List.of(documented)).build())), "root",
+					ref("level"), "port", undocumented)))
+			.build());
+
+		CompactSchemaRoot lean = source.view(ViewSpec.LEAN);
+		assertNull(lean.getDescription());
+		CompactSchemaNode level = lean.getDefinitions().get("level");
+		assertEquals(JsonSchemaField.TYPE.bit() | JsonSchemaField.DEPRECATED.bit() | JsonSchemaField.ENUM.bit(),
+				level.mask());
+		List<?> allOf = (List<?>) lean.getProperties()
+			.get("logging")
+			.getProperties()
+			.get("level")
+			.get(JsonSchemaField.ALL_OF);
+		assertEquals(level.mask(), ((CompactSchemaNode) allOf.get(0)).mask());
+		assertSame(source.getProperties().get("port"), lean.getProperties().get("port"));
+		assertFalse(ViewSpec.LEAN.isAll());
+	}
+
+}
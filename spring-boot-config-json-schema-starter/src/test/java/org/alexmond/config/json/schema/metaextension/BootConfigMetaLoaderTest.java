@@ -0,0 +1,54 @@
+package org.alexmond.config.json.schema.metaextension;
+
+import org.alexmond.config.json.schema.metamodel.BootConfigMeta;
+import org.alexmond.config.json.schema.metamodel.Property;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BootConfigMetaLoaderTest {
+
+	private final BootConfigMetaLoader loader = new BootConfigMetaLoader();
+
+	@Test
+	void sharesRepeatedMetadataAcrossFiles() {
+		Map<String, Property> merged = loader.mergeConfig(List.of(load("""
+				{"properties": [{"name": "a.enabled", "type": "java.lang.Boolean",
+				  "sourceType": "com.example.AProperties", "description": "Whether enabled.",
+				  "deprecated": true, "deprecation": {"reason": "Unused.", "level": "warning"}}],
+				 "hints": [{"name": "a.enabled", "values": [{"value": "true"}, {"value": "false"}]}]}
+				"""), load("""
+				{"properties": [{"name": "b.enabled", "type": "java.lang.Boolean",
+				  "sourceType": "com.example.BProperties", "description": "Whether enabled.",
+				  "deprecated": true, "deprecation": {"reason": "Unused.", "level": "warning"}},
+				 {"name": "b.ignored", "type": "java.lang.String"}],
+				 "hints": [{"name": "b.enabled", "values": [{"value": "true"}, {"value": "false"}]}],
+				 "ignored": {"properties": [{"name": "b.ignored"}]}}
+				""")));
+
+		Property a = merged.get("a.enabled");
+		Property b = merged.get("b.enabled");
+		assertEquals(List.of("a.enabled", "b.enabled"), List.copyOf(merged.keySet()));
+		assertSame(a.getType(), b.getType());
+		assertSame(a.getDescription(), b.getDescription());
+		assertSame(a.getDeprecation(), b.getDeprecation());
+		assertSame(a.getHint().getValues().get(0), b.getHint().getValues().get(0));
+		assertEquals("a.enabled", a.getHint().getName());
+		assertEquals("com.example.BProperties", b.getSourceType());
+		assertTrue(b.getDeprecated());
+		assertFalse(b.isGroupProperty());
+	}
+
+	private BootConfigMeta load(String json) {
+		return loader.loadFromStream(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
@@ -0,0 +1,52 @@
+package org.alexmond.config.json.schema.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassNameMatcherTest {
+
+	private final ClassNameMatcher matcher = ClassNameMatcher.compile(
+			List.of("java.lang.ClassLoader", "com.vendor.api.*", "com.vendor.internal.**"),
+			List.of("java.util.AbstractMap+"));
+
+	/**
+	 * Tests matching of exact names, package wildcards and type hierarchies.
+	 * @param typeName The type name to match
+	 * @param expected Whether the type name should match
+	 */
+	@ParameterizedTest
+	@CsvSource(value = { "java.lang.ClassLoader;true", "java.lang.ClassLoaderX;false", "java.lang.Object;false",
+			"com.vendor.api.Client;true", "com.vendor.api.Client$Inner;true", "com.vendor.api.v2.Client;false",
+			"com.vendor.Client;false", "com.vendor.internal.Impl;true", "com.vendor.internal.deep.Impl;true",
+			"com.vendor.internalx.Impl;false", "com.vendor.api.Client[];true",
+			"com.vendor.internal.Box<java.lang.String>;true", "java.util.HashMap;true",
+			"java.util.TreeMap<java.lang.String, java.lang.Integer>;true", "java.util.AbstractMap;true",
+			"java.util.ArrayList;false", "Unqualified;false" }, delimiter = ';')
+	void testMatches(String typeName, boolean expected) {
+		assertEquals(expected, matcher.matches(typeName));
+	}
+
+	@Test
+	void testExactNamesCompareGenericsAsWritten() {
+		ClassNameMatcher exact = ClassNameMatcher.compile(List.of("java.util.List<java.lang.String>", "java.util.Set"));
+		assertTrue(exact.matches("java.util.List<java.lang.String>"));
+		assertFalse(exact.matches("java.util.List<java.lang.Integer>"));
+		assertFalse(exact.matches("java.util.Set<java.lang.String>"));
+		assertFalse(exact.matches(null));
+	}
+
+	@Test
+	void testIgnoresMissingBaseTypes() {
+		ClassNameMatcher missing = ClassNameMatcher.compile(List.of("com.example.Missing+"), null);
+		assertTrue(missing.matches("com.example.Missing"));
+		assertFalse(missing.matches("java.lang.String"));
+	}
+
+}
@@ -0,0 +1,28 @@
+package org.alexmond.config.json.schema.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonSchemaBuilderHelperTest {
+
+	/**
+	 * Tests that the case-insensitive enum pattern accepts the relaxed spellings Spring
+	 * Boot binds to an enum constant and nothing else.
+	 * @param name The enum constant name
+	 * @param value The configured value
+	 * @param matches Whether the value should match
+	 */
+	@ParameterizedTest
+	@CsvSource({ "DEBUG, DEBUG, true", "DEBUG, debug, true", "DEBUG, Debug, true", "DEBUG, debugs, false",
+			"READ_ONLY, read-only, true", "READ_ONLY, Read_Only, true", "READ_ONLY, readonly, false",
+			"HTTP2, http2, true", "HTTP2, http, false", "A.B, a.b, true", "A.B, aXb, false" })
+	void testCaseInsensitivePattern(String name, String value, boolean matches) {
+		String pattern = "^" + JsonSchemaBuilderHelper.caseInsensitivePattern(name) + "$";
+		assertEquals(matches, Pattern.matches(pattern, value));
+	}
+
+}
@@ -1,9 +1,18 @@
 package org.alexmond.config.json.schema.service;
 
+import org.alexmond.config.json.schema.config.JsonConfigSchemaConfig;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaProperties;
+import org.alexmond.config.json.schema.metamodel.Property;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class JsonSchemaBuilderTest {
 
@@ -54,4 +63,29 @@ class JsonSchemaBuilderTest {
 		assertEquals(expected, result);
 	}
 
-}
\ No newline at end of file
+	@Test
+	@SuppressWarnings("deprecation")
+	void processComplexTypeWorksOutsideABuild() {
+		JsonConfigSchemaConfig config = new JsonConfigSchemaConfig();
+		JsonSchemaBuilder builder = new JsonSchemaBuilder(config,
+				new TypeMappingService(new MissingTypeCollector(), config));
+		Property prop = Property.builder().name("app.nested").type(Nested.class.getName()).build();
+		Set<String> visited = new HashSet<>(Set.of("java.lang.Object"));
+
+		Map<String, JsonSchemaProperties> properties = builder.processComplexType(Nested.class.getName(), prop,
+				visited);
+
+		assertEquals(Set.of("host-name", "port"), properties.keySet());
+		assertEquals(Set.of("java.lang.Object"), visited);
+		assertNull(builder.processComplexType(Nested.class.getName(), prop, Set.of(Nested.class.getName())));
+	}
+
+	static class Nested {
+
+		private String hostName;
+
+		private int port;
+
+	}
+
+}
@@ -0,0 +1,82 @@
+package org.alexmond.config.json.schema.service;
+
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaProperties;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaRoot;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelSchemaRendererTest {
+
+	private static JsonSchemaProperties leaf(JsonSchemaType type, String description) {
+		return JsonSchemaProperties.builder().type(type).description(description).build();
+	}
+
+	private static CompactSchemaRoot schema(Object additionalProperties) {
+		Map<String, JsonSchemaProperties> definitions = new LinkedHashMap<>();
+		definitions.put("Pool",
+				JsonSchemaProperties.builder()
+					.type(JsonSchemaType.OBJECT)
+					.anchor("Pool")
+					.properties(new LinkedHashMap<>(Map.of("size", leaf(JsonSchemaType.INTEGER, "Pool size"))))
+					.requiredProperties(new LinkedHashSet<>(List.of("size")))
+					.build());
+		definitions.put("Empty", JsonSchemaProperties.builder().properties(new LinkedHashMap<>()).build());
+		Map<String, JsonSchemaProperties> properties = new LinkedHashMap<>();
+		for (int i = 0; i < 50; i++) {
+			properties.put("group" + i, JsonSchemaProperties.builder()
+				.type(JsonSchemaType.OBJECT)
+				.properties(new LinkedHashMap<>(Map.of("name", leaf(JsonSchemaType.STRING, "Line one\nline \"two\" ü"),
+						"pool", JsonSchemaProperties.builder().reference("#/$defs/Pool").build())))
+				.allOf(List.of(leaf(JsonSchemaType.OBJECT, null), leaf(JsonSchemaType.NULL, "none")))
+				.examples(List.of("a", "b"))
+				.build());
+		}
+		return CompactSchemaRoot.of(JsonSchemaRoot.builder()
+			.id("urn:test")
+			.title("Test")
+			.definitions(definitions)
+			.properties(properties)
+			.additionalProperties(additionalProperties)
+			.build());
+	}
+
+	private static void assertSameRendering(CompactSchemaRoot root) {
+		for (boolean pretty : new boolean[] { true, false }) {
+			assertEquals(new String(SchemaFormat.JSON.render(root, pretty), StandardCharsets.UTF_8),
+					new String(ParallelSchemaRenderer.render(root, pretty), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void rendersTheSameBytesAsSequentialSerialization() {
+		assertSameRendering(schema(false));
+		assertSameRendering(schema(leaf(JsonSchemaType.STRING, "Any other property")));
+	}
+
+	@Test
+	void rendersSchemasWithoutEntries() {
+		assertSameRendering(CompactSchemaRoot.of(JsonSchemaRoot.builder().build()));
+		assertSameRendering(CompactSchemaRoot
+			.of(JsonSchemaRoot.builder().definitions(new LinkedHashMap<>()).properties(new LinkedHashMap<>()).build()));
+	}
+
+	@Test
+	void onlyLargeSchemasAreRenderedInParallel() {
+		CompactSchemaRoot root = schema(true);
+		assertFalse(ParallelSchemaRenderer.shouldRender(root, 0));
+		assertTrue(ParallelSchemaRenderer.shouldRender(root, 52));
+		assertFalse(ParallelSchemaRenderer.shouldRender(root, 53));
+	}
+
+}
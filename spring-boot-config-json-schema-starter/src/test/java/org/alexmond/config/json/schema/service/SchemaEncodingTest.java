@@ -0,0 +1,43 @@
+package org.alexmond.config.json.schema.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SchemaEncodingTest {
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', nullValues = "null",
+			value = { "null|IDENTITY", "''|IDENTITY", "gzip|GZIP", "deflate|DEFLATE", "gzip, deflate, br|GZIP",
+					"deflate, gzip|GZIP", "gzip;q=0.5, deflate|DEFLATE", "x-gzip|GZIP", "br|IDENTITY", "*|GZIP",
+					"gzip;q=0, *|DEFLATE", "gzip;q=0, deflate;q=0, *|IDENTITY", "identity|IDENTITY",
+					"GZIP ; q=0.8|GZIP", "gzip;q=abc|IDENTITY" })
+	void selectsPreferredEncoding(String acceptEncoding, SchemaEncoding expected) {
+		assertEquals(expected, SchemaEncoding.select(acceptEncoding));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SchemaEncoding.class)
+	void encodedDocumentDecodesToOriginal(SchemaEncoding encoding) throws Exception {
+		byte[] document = "{\"type\":\"object\"}".repeat(100).getBytes(StandardCharsets.UTF_8);
+		byte[] encoded = encoding.encode(document);
+		InputStream in = switch (encoding) {
+			case IDENTITY -> new ByteArrayInputStream(encoded);
+			case GZIP -> new GZIPInputStream(new ByteArrayInputStream(encoded));
+			case DEFLATE -> new InflaterInputStream(new ByteArrayInputStream(encoded));
+		};
+		try (in) {
+			assertArrayEquals(document, in.readAllBytes());
+		}
+	}
+
+}
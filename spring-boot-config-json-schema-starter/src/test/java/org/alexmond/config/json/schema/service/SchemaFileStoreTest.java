@@ -0,0 +1,91 @@
+package org.alexmond.config.json.schema.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaFileStoreTest {
+
+	@TempDir
+	Path directory;
+
+	private static RenderedSchema rendering(String document, long version) {
+		byte[] content = document.getBytes(StandardCharsets.UTF_8);
+		return RenderedSchema.of(SchemaFormat.JSON, SchemaEncoding.IDENTITY, version, content,
+				RenderedSchema.sha256(content));
+	}
+
+	@Test
+	void replacedSchemaKeepsServingAfterItsFileIsRemoved() throws Exception {
+		SchemaFileStore store = new SchemaFileStore(directory);
+		RenderedSchema first = rendering("{\"title\":\"first\"}", 1);
+		StoredSchema held = store.store(first, true);
+		store.store(rendering("{\"title\":\"second\"}", 2), true);
+
+		store.remove(held);
+
+		assertFalse(Files.exists(held.getPath()));
+		ByteArrayOutputStream transferred = new ByteArrayOutputStream();
+		held.transferTo(Channels.newChannel(transferred));
+		assertArrayEquals(first.content, transferred.toByteArray());
+		try (InputStream in = held.getInputStream()) {
+			assertArrayEquals(first.content, in.readAllBytes());
+		}
+		ByteBuffer mapped = held.getBuffer();
+		byte[] mappedContent = new byte[mapped.remaining()];
+		mapped.get(mappedContent);
+		assertArrayEquals(first.content, mappedContent);
+	}
+
+	@Test
+	void removesFilesLeftOverByEarlierProcesses() throws Exception {
+		Path leftover = Files.writeString(directory.resolve("config-schema-0123.json"), "{}");
+		Path abandoned = Files.writeString(directory.resolve("config-schema-4567.tmp"), "{");
+		Path unrelated = Files.writeString(directory.resolve("notes.txt"), "kept");
+		FileTime old = FileTime.from(Instant.now().minus(1, ChronoUnit.DAYS));
+		for (Path file : new Path[] { leftover, abandoned, unrelated }) {
+			Files.setLastModifiedTime(file, old);
+		}
+		Path recent = Files.writeString(directory.resolve("config-schema-89ab.yaml"), "---");
+		Files.setLastModifiedTime(recent, FileTime.from(Instant.now().plus(1, ChronoUnit.MINUTES)));
+
+		new SchemaFileStore(directory);
+
+		assertFalse(Files.exists(leftover));
+		assertFalse(Files.exists(abandoned));
+		assertTrue(Files.exists(unrelated));
+		assertTrue(Files.exists(recent));
+	}
+
+	@Test
+	void keepsFilesOfOtherRunningProcesses() throws Exception {
+		long running = ProcessHandle.current().parent().orElseThrow().pid();
+		Path shared = Files.writeString(directory.resolve("config-schema-" + running + "-0123.json"), "{}");
+		Path orphaned = Files.writeString(directory.resolve("config-schema-999999999-4567.json"), "{}");
+		Files.setLastModifiedTime(shared, FileTime.from(Instant.now().minus(1, ChronoUnit.DAYS)));
+
+		SchemaFileStore store = new SchemaFileStore(directory);
+		StoredSchema stored = store.store(rendering("{}", 1), true);
+
+		assertTrue(Files.exists(shared));
+		assertFalse(Files.exists(orphaned));
+		assertEquals(ProcessHandle.current().pid(), SchemaFileStore.owner(stored.getPath().getFileName().toString()));
+		assertEquals(-1, SchemaFileStore.owner("config-schema-89ab.yaml"));
+	}
+
+}
@@ -0,0 +1,60 @@
+package org.alexmond.config.json.schema.service;
+
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaOverrideMatcherTest {
+
+	private final SchemaOverrideMatcher matcher = SchemaOverrideMatcher.compile(overrides("app.tenants.main.url",
+			"app.tenants.*.url", "app.*.*.url", "app.**.url", "spring.datasource.**.password", "java.lang.String",
+			"type:com.vendor.**", "type:app.Exact", "java.util.AbstractMap+", "java.util.HashMap+", "java.util.Map+"));
+
+	private static Map<String, JsonSchemaProperties> overrides(String... keys) {
+		Map<String, JsonSchemaProperties> overrides = new LinkedHashMap<>();
+		for (String key : keys) {
+			overrides.put(key, JsonSchemaProperties.builder().description(key).build());
+		}
+		return overrides;
+	}
+
+	/**
+	 * Tests override precedence for property paths and types.
+	 * @param propertyName The property path
+	 * @param typeName The property type
+	 * @param expected The key of the expected override, or null for no match
+	 */
+	@ParameterizedTest
+	@CsvSource(value = { "app.tenants.main.url;;app.tenants.main.url", "app.tenants.other.url;;app.tenants.*.url",
+			"app.regions.eu.url;;app.*.*.url", "app.url;;app.**.url", "app.a.b.c.url;;app.**.url",
+			"app.tenants.main.name;;", "spring.datasource.password;;spring.datasource.**.password",
+			"spring.datasource.hikari.password;;spring.datasource.**.password",
+			"spring.datasource.hikari.user;java.lang.String;java.lang.String",
+			"app.tenants.x.url;java.lang.String;java.lang.String", "x.y;com.vendor.api.Client;type:com.vendor.**",
+			"com.vendor.x;;", "x.y;app.tenants.other.url;", "app.Exact;;", "x.y;app.Exact;type:app.Exact",
+			"x.y;java.util.List<com.vendor.Item>;", "x.y;java.util.LinkedHashMap;java.util.HashMap+",
+			"x.y;java.util.TreeMap<java.lang.String, java.lang.Integer>;java.util.AbstractMap+",
+			"x.y;java.util.AbstractMap;java.util.AbstractMap+",
+			"x.y;java.util.Collections$UnmodifiableMap;java.util.Map+", "x.y;java.lang.Integer;", ";;" },
+			delimiter = ';')
+	void testFind(String propertyName, String typeName, String expected) {
+		JsonSchemaProperties found = matcher.find(propertyName, typeName);
+		assertEquals(expected, (found != null) ? found.getDescription() : null);
+	}
+
+	@Test
+	void testEmpty() {
+		SchemaOverrideMatcher empty = SchemaOverrideMatcher.compile(null);
+		assertTrue(empty.isEmpty());
+		assertNull(empty.find("a.b", "java.lang.String"));
+	}
+
+}
@@ -0,0 +1,153 @@
+package org.alexmond.config.json.schema.service;
+
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaFormat;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaProperties;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaRoot;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaType;
+import org.alexmond.config.json.schema.jsonschemamodel.XDeprecation;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.yaml.snakeyaml.Yaml;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.yaml.YAMLMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the schema YAML writer against Jackson's YAML output. The timing comparison only
+ * runs when requested, e.g.
+ * {@code mvn test -Dschema.benchmark=true -Dtest=SchemaYamlWriterTest}.
+ */
+@Slf4j
+class SchemaYamlWriterTest {
+
+	private static final YAMLMapper YAML = YAMLMapper.builder().build();
+
+	private static final int WARMUP = 200;
+
+	private static final int ITERATIONS = 1000;
+
+	private static final String TRICKY = "Say \"hi\" to C:\\temp\n\tthen: wait # not a comment\r\n- ü € 😀 \u0001\u0085\u2028\ufeff"
+			+ " " + "long ".repeat(40);
+
+	private static JsonSchemaProperties leaf(JsonSchemaType type, String description) {
+		return JsonSchemaProperties.builder().type(type).description(description).build();
+	}
+
+	private static CompactSchemaRoot schema() {
+		Map<String, JsonSchemaProperties> properties = new LinkedHashMap<>();
+		properties.put("plain.name", leaf(JsonSchemaType.STRING, TRICKY));
+		properties.put("true", leaf(JsonSchemaType.BOOLEAN, ""));
+		properties.put("1", leaf(JsonSchemaType.INTEGER, "- leading dash"));
+		properties.put("with space", leaf(JsonSchemaType.NUMBER, "'single'"));
+		properties.put("map[*]", JsonSchemaProperties.builder().build());
+		properties.put("", leaf(JsonSchemaType.NULL, null));
+		properties.put("complex", JsonSchemaProperties.builder()
+			.type(JsonSchemaType.OBJECT)
+			.format(JsonSchemaFormat.DATE_TIME)
+			.deprecated(true)
+			.defaultValue(
+					Map.of("key", List.of(1, 1.5d, true, List.of(2, 3), Map.of("nested", "v"), List.of(), Map.of())))
+			.examples(List.of("a", "1.5", "~"))
+			.enumValues(new LinkedHashSet<>(List.of("x", "null", "yes")))
+			.minimum(new BigDecimal("10.50"))
+			.maximum(1e300)
+			.multipleOf(0.5f)
+			.allOf(List.of(leaf(JsonSchemaType.OBJECT, null), JsonSchemaProperties.builder().build()))
+			.properties(new LinkedHashMap<>(Map.of("inner", leaf(JsonSchemaType.STRING, "Inner"))))
+			.requiredProperties(new LinkedHashSet<>(List.of("inner")))
+			.xDeprecation(XDeprecation.builder().reason("Old \"one\"").replacement("new.name").build())
+			.build());
+		return CompactSchemaRoot.of(JsonSchemaRoot.builder()
+			.id("urn:test")
+			.definitions(Map.of("Type", leaf(JsonSchemaType.STRING, "A type")))
+			.properties(properties)
+			.additionalProperties(false)
+			.build());
+	}
+
+	@Test
+	void readsBackLikeTheYamlMapperOutput() {
+		CompactSchemaRoot root = schema();
+		JsonNode written = YAML.readTree(SchemaYamlWriter.render(root));
+		assertEquals(YAML.readTree(SchemaFormat.YAML.render(root, true)), written);
+		assertEquals(TRICKY, written.at("/properties/plain.name/description").asString());
+	}
+
+	@Test
+	void writesBlockStyleLikeTheYamlMapper() {
+		CompactSchemaRoot root = CompactSchemaRoot.of(JsonSchemaRoot.builder()
+			.properties(Map.of("name",
+					JsonSchemaProperties.builder()
+						.type(JsonSchemaType.STRING)
+						.enumValues(new LinkedHashSet<>(List.of("a", "b")))
+						.allOf(List.of(leaf(JsonSchemaType.STRING, "One")))
+						.build()))
+			.build());
+		String expected = new String(SchemaFormat.YAML.render(root, true), StandardCharsets.UTF_8);
+		assertEquals(expected, new String(SchemaYamlWriter.render(root), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void writesExponentsThatYaml11ReadsAsNumbers() {
+		Map<String, JsonSchemaProperties> properties = new LinkedHashMap<>();
+		properties.put("large", JsonSchemaProperties.builder().minimum(1.0e10).maximum(1e300).build());
+		properties.put("small", JsonSchemaProperties.builder().minimum(-2.5e-7).maximum(3.0e12f).build());
+		CompactSchemaRoot root = CompactSchemaRoot.of(JsonSchemaRoot.builder().properties(properties).build());
+		String written = new String(SchemaYamlWriter.render(root), StandardCharsets.UTF_8);
+		assertTrue(written.contains("minimum: 1.0e+10\n"), written);
+
+		Map<String, Map<String, Map<String, Object>>> document = new Yaml().load(written);
+		Map<String, Object> large = document.get("properties").get("large");
+		Map<String, Object> small = document.get("properties").get("small");
+		assertEquals(1.0e10, large.get("minimum"));
+		assertEquals(1e300, large.get("maximum"));
+		assertEquals(-2.5e-7, small.get("minimum"));
+		// Floats are written as their shortest decimal, not widened to double first
+		assertEquals(Double.valueOf(Float.toString(3.0e12f)), small.get("maximum"));
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "schema.benchmark", matches = "true")
+	void compareWithTheYamlMapper() {
+		Map<String, JsonSchemaProperties> properties = new LinkedHashMap<>();
+		for (int i = 0; i < 2000; i++) {
+			properties.put("group" + (i % 40) + ".property" + i,
+					JsonSchemaProperties.builder()
+						.type(JsonSchemaType.STRING)
+						.description("Description of property " + i + ", with \"quotes\" and a second sentence.")
+						.defaultValue("value" + i)
+						.enumValues(new LinkedHashSet<>(List.of("first", "second", "third")))
+						.build());
+		}
+		CompactSchemaRoot root = CompactSchemaRoot.of(JsonSchemaRoot.builder().properties(properties).build());
+		log.info("YAML mapper: {} us per document", measure(() -> SchemaFormat.YAML.render(root, true)));
+		log.info("Schema YAML writer: {} us per document", measure(() -> SchemaYamlWriter.render(root)));
+	}
+
+	private static long measure(Supplier<byte[]> render) {
+		for (int i = 0; i < WARMUP; i++) {
+			render.get();
+		}
+		long start = System.nanoTime();
+		long size = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			size += render.get().length;
+		}
+		assertTrue(size > 0);
+		return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ITERATIONS;
+	}
+
+}
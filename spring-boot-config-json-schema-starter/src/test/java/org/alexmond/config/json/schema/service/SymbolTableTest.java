@@ -0,0 +1,48 @@
+package org.alexmond.config.json.schema.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SymbolTableTest {
+
+	@Test
+	void assignsDenseIdsOncePerSymbol() {
+		SymbolTable symbols = new SymbolTable();
+		int first = symbols.intern("server.port");
+		int second = symbols.intern("java.lang.Integer");
+
+		assertEquals(0, first);
+		assertEquals(1, second);
+		assertEquals(first, symbols.intern("server.port"));
+		assertEquals("java.lang.Integer", symbols.symbol(second));
+		assertEquals(-1, symbols.find("server.address"));
+		assertEquals(2, symbols.size());
+	}
+
+	@Test
+	void derivesAnchorNamesOnce() {
+		SymbolTable symbols = new SymbolTable();
+		int nested = symbols.intern("com.example.Outer$Inner");
+		int plain = symbols.intern("com.example.Outer");
+
+		int anchor = symbols.anchorId(nested);
+		assertNotEquals(nested, anchor);
+		assertEquals("com.example.Outer:Inner", symbols.symbol(anchor));
+		assertEquals(anchor, symbols.anchorId(nested));
+		assertEquals(plain, symbols.anchorId(plain));
+		assertEquals(3, symbols.size());
+	}
+
+	@Test
+	void growsAnchorCacheForLateSymbols() {
+		SymbolTable symbols = new SymbolTable();
+		for (int i = 0; i < 100; i++) {
+			symbols.intern("type" + i);
+		}
+		assertEquals(99, symbols.anchorId(99));
+		assertEquals(0, symbols.anchorId(0));
+	}
+
+}
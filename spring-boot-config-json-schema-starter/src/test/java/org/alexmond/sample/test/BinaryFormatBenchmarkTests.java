@@ -0,0 +1,59 @@
+package org.alexmond.sample.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaRoot;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.SchemaEncoding;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compares document size and parse time of the schema in each available format. Only runs
+ * when requested, e.g. {@code mvn test -Dschema.benchmark=true
+ * -Dtest=BinaryFormatBenchmarkTests}, since timings are meaningless on a busy build.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@EnabledIfSystemProperty(named = "schema.benchmark", matches = "true")
+@Slf4j
+class BinaryFormatBenchmarkTests {
+
+	private static final int WARMUP = 200;
+
+	private static final int ITERATIONS = 1000;
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Test
+	void compareFormats() {
+		for (SchemaFormat format : SchemaFormat.values()) {
+			if (!format.isAvailable()) {
+				log.info("{}: not available", format);
+				continue;
+			}
+			byte[] document = jsonSchemaService.getSchemaBytes(format, false);
+			int gzipped = jsonSchemaService.getRenderedSchema(format, false, SchemaEncoding.GZIP).getContentLength();
+			for (int i = 0; i < WARMUP; i++) {
+				format.read(document);
+			}
+			long start = System.nanoTime();
+			JsonSchemaRoot schema = null;
+			for (int i = 0; i < ITERATIONS; i++) {
+				schema = format.read(document);
+			}
+			long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ITERATIONS;
+			assertNotNull(schema);
+			log.info("{}: {} bytes, {} bytes gzipped, {} us per parse", format, document.length, gzipped, micros);
+		}
+	}
+
+}
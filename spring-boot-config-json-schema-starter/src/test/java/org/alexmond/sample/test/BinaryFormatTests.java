@@ -0,0 +1,70 @@
+package org.alexmond.sample.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the size of the schema and the time to write and read it in the binary formats
+ * against JSON. Only runs when requested, e.g.
+ * {@code mvn test -Dschema.benchmark=true -Dtest=BinaryFormatTests}.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@Slf4j
+@EnabledIfSystemProperty(named = "schema.benchmark", matches = "true")
+class BinaryFormatTests {
+
+	private static final int WARMUP = 200;
+
+	private static final int ITERATIONS = 1000;
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Test
+	void compareBinaryFormatsWithJson() {
+		CompactSchemaRoot schema = jsonSchemaService.getCompactSchema();
+		for (SchemaFormat format : new SchemaFormat[] { SchemaFormat.JSON, SchemaFormat.CBOR, SchemaFormat.SMILE }) {
+			byte[] document = format.render(schema, false);
+			log.info("{}: {} bytes, {} us to write, {} us to read", format, document.length,
+					measureWrite(format, schema), measureRead(format, document));
+		}
+	}
+
+	private static long measureWrite(SchemaFormat format, CompactSchemaRoot schema) {
+		for (int i = 0; i < WARMUP; i++) {
+			format.render(schema, false);
+		}
+		long start = System.nanoTime();
+		long size = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			size += format.render(schema, false).length;
+		}
+		assertTrue(size > 0);
+		return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ITERATIONS;
+	}
+
+	private static long measureRead(SchemaFormat format, byte[] document) {
+		for (int i = 0; i < WARMUP; i++) {
+			format.read(document);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			assertNotNull(format.read(document));
+		}
+		return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ITERATIONS;
+	}
+
+}
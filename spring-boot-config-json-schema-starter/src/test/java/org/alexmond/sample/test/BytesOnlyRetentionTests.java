@@ -0,0 +1,59 @@
+package org.alexmond.sample.test;
+
+import org.alexmond.config.json.schema.jsonschemamodel.SchemaSnapshot;
+import org.alexmond.config.json.schema.jsonschemamodel.ViewSpec;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.yaml.YAMLMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "json-config-schema.schema-retention=bytes-only")
+class BytesOnlyRetentionTests {
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Test
+	void servesRetainedDocuments() {
+		String json = jsonSchemaService.generateFullSchemaJson();
+		String yaml = jsonSchemaService.generateFullSchemaYaml();
+		SchemaSnapshot snapshot = jsonSchemaService.getSnapshot();
+
+		assertEquals(
+				JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValueAsString(snapshot.getSchema()),
+				json);
+		assertEquals(
+				YAMLMapper.builder().build().writerWithDefaultPrettyPrinter().writeValueAsString(snapshot.getSchema()),
+				yaml);
+		assertEquals(json, jsonSchemaService.generateFullSchemaJson());
+	}
+
+	@Test
+	void regeneratesTreeWithPublishedVersion() {
+		SchemaSnapshot first = jsonSchemaService.getSnapshot();
+		SchemaSnapshot second = jsonSchemaService.getSnapshot();
+		assertEquals(first.getVersion(), second.getVersion());
+
+		SchemaSnapshot refreshed = jsonSchemaService.refresh();
+		assertEquals(first.getVersion() + 1, refreshed.getVersion());
+		assertEquals(refreshed.getVersion(), jsonSchemaService.getSnapshot().getVersion());
+	}
+
+	@Test
+	void keepsRegeneratedTreeWhileItIsInUse() {
+		SchemaSnapshot snapshot = jsonSchemaService.getSnapshot();
+		assertSame(snapshot, jsonSchemaService.getSnapshot());
+		assertSame(snapshot.getSchema(), jsonSchemaService.getCompactSchema());
+		jsonSchemaService.getView(ViewSpec.LEAN);
+		jsonSchemaService.getSchemaShards();
+		assertSame(snapshot, jsonSchemaService.getSnapshot());
+	}
+
+}
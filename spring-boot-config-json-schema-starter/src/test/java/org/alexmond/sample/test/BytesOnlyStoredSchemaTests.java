@@ -0,0 +1,56 @@
+package org.alexmond.sample.test;
+
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.RenderedSchema;
+import org.alexmond.config.json.schema.service.SchemaEncoding;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "json-config-schema.schema-retention=bytes-only")
+class BytesOnlyStoredSchemaTests {
+
+	@TempDir
+	static Path renderDirectory;
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@DynamicPropertySource
+	static void renderDirectory(DynamicPropertyRegistry registry) {
+		registry.add("json-config-schema.render-directory", renderDirectory::toString);
+	}
+
+	@Test
+	void keepsRetainedDocumentsInTheRenderDirectory() throws Exception {
+		jsonSchemaService.refresh();
+		try (Stream<Path> files = Files.list(renderDirectory)) {
+			assertEquals(2, files.count());
+		}
+
+		RenderedSchema json = jsonSchemaService.getRenderedSchema(SchemaFormat.JSON, true, SchemaEncoding.IDENTITY);
+		RenderedSchema yaml = jsonSchemaService.getRenderedSchema(SchemaFormat.YAML, true, SchemaEncoding.IDENTITY);
+		assertArrayEquals(
+				Files.readAllBytes(renderDirectory
+					.resolve("config-schema-" + ProcessHandle.current().pid() + "-" + json.getContentHash() + ".json")),
+				jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, true));
+		assertArrayEquals(
+				Files.readAllBytes(renderDirectory
+					.resolve("config-schema-" + ProcessHandle.current().pid() + "-" + yaml.getContentHash() + ".yaml")),
+				jsonSchemaService.getSchemaBytes(SchemaFormat.YAML, true));
+	}
+
+}
@@ -0,0 +1,115 @@
+package org.alexmond.sample.test;
+
+import org.alexmond.config.json.schema.config.JsonConfigSchemaConfig;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaRoot;
+import org.alexmond.config.json.schema.metamodel.Property;
+import org.alexmond.config.json.schema.service.ConfigurationPropertyCollector;
+import org.alexmond.config.json.schema.service.JsonSchemaBuilder;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.MissingTypeCollector;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.alexmond.config.json.schema.service.TypeMappingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Renders the schema from independent builds with canonical output enabled and checks
+ * that the bytes are identical.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = "json-config-schema.canonical-output=true")
+class CanonicalOutputTests {
+
+	private static final List<SchemaFormat> FORMATS = List.of(SchemaFormat.JSON, SchemaFormat.YAML);
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Autowired
+	private JsonConfigSchemaConfig config;
+
+	@Autowired
+	private ConfigurationPropertyCollector propertyCollector;
+
+	@Autowired
+	private TypeMappingService typeMappingService;
+
+	@Autowired
+	private MissingTypeCollector missingTypeCollector;
+
+	@Test
+	void refreshedSchemaRendersToTheSameBytes() {
+		long version = jsonSchemaService.getSnapshot().getVersion();
+		List<byte[]> before = render(jsonSchemaService);
+
+		jsonSchemaService.refresh();
+
+		assertNotEquals(version, jsonSchemaService.getSnapshot().getVersion());
+		List<byte[]> after = render(jsonSchemaService);
+		for (int i = 0; i < before.size(); i++) {
+			assertArrayEquals(before.get(i), after.get(i));
+		}
+	}
+
+	@Test
+	void buildsFromShuffledMetadataRenderToTheSameBytes() {
+		List<byte[]> expected = render(jsonSchemaService);
+		for (long seed = 1; seed <= 3; seed++) {
+			JsonSchemaService shuffled = new JsonSchemaService(config, propertyCollector,
+					new ShufflingBuilder(config, typeMappingService, new Random(seed)), missingTypeCollector);
+			List<byte[]> actual = render(shuffled);
+			for (int i = 0; i < expected.size(); i++) {
+				assertArrayEquals(expected.get(i), actual.get(i), "seed " + seed);
+			}
+		}
+	}
+
+	private static List<byte[]> render(JsonSchemaService service) {
+		List<byte[]> documents = new ArrayList<>();
+		for (SchemaFormat format : FORMATS) {
+			documents.add(service.getSchemaBytes(format, true));
+			documents.add(service.getSchemaBytes(format, false));
+		}
+		assertEquals(FORMATS.size() * 2, documents.size());
+		return documents;
+	}
+
+	/**
+	 * Builds from the metadata and included paths in a random order.
+	 */
+	private static final class ShufflingBuilder extends JsonSchemaBuilder {
+
+		private final Random random;
+
+		ShufflingBuilder(JsonConfigSchemaConfig config, TypeMappingService typeMappingService, Random random) {
+			super(config, typeMappingService);
+			this.random = random;
+		}
+
+		@Override
+		public JsonSchemaRoot buildSchema(Map<String, Property> meta, List<String> included) {
+			List<String> names = new ArrayList<>(meta.keySet());
+			Collections.shuffle(names, random);
+			Map<String, Property> shuffledMeta = new LinkedHashMap<>();
+			names.forEach((name) -> shuffledMeta.put(name, meta.get(name)));
+			List<String> shuffledIncluded = new ArrayList<>(included);
+			Collections.shuffle(shuffledIncluded, random);
+			return super.buildSchema(shuffledMeta, shuffledIncluded);
+		}
+
+	}
+
+}
@@ -0,0 +1,71 @@
+package org.alexmond.sample.test;
+
+import com.networknt.schema.Error;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaRegistry;
+import com.networknt.schema.dialect.Dialects;
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.yaml.YAMLMapper;
+
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "json-config-schema.compact-definitions=true")
+@Slf4j
+class CompactDefinitionsJsonSchemaTests {
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Test
+	void definitionsUsePatterns() {
+		JsonNode defs = JsonMapper.builder().build().readTree(jsonSchemaService.generateFullSchemaJson()).get("$defs");
+
+		JsonNode locale = defs.get("java.util.Locale");
+		assertNull(locale.get("enum"));
+		Pattern localePattern = Pattern.compile(locale.get("pattern").asString());
+		for (Locale available : Locale.getAvailableLocales()) {
+			assertTrue(localePattern.matcher(available.toString()).matches(), available.toString());
+			assertTrue(localePattern.matcher(available.toLanguageTag()).matches(), available.toLanguageTag());
+		}
+
+		JsonNode charset = defs.get("java.nio.charset.Charset");
+		assertNull(charset.get("enum"));
+		Pattern charsetPattern = Pattern.compile(charset.get("pattern").asString());
+		for (Charset available : Charset.availableCharsets().values()) {
+			assertTrue(charsetPattern.matcher(available.name()).matches(), available.name());
+		}
+
+		JsonNode loggerLevel = defs.get("loggerLevel");
+		assertNull(loggerLevel.get("enum"));
+		assertTrue(Pattern.matches(loggerLevel.get("pattern").asString(), "Warn"));
+	}
+
+	@Test
+	void compactSchemaValidatesSampleYaml() throws Exception {
+		String schemaJson = jsonSchemaService.generateFullSchemaJson();
+		log.info("Compact definitions schema size: {} bytes", schemaJson.length());
+		SchemaRegistry schemaRegistry = SchemaRegistry.withDialect(Dialects.getDraft202012());
+		Schema schema = schemaRegistry.getSchema(schemaJson);
+		assertNotNull(schema);
+		List<Error> errors = schema.validate(YAMLMapper.builder().build().readTree(Paths.get("test.yaml").toFile()));
+		errors.forEach((error) -> log.error("YAML validation error: {}", error));
+		assertTrue(errors.isEmpty(), "Sample YAML should validate against the compact schema");
+	}
+
+}
@@ -0,0 +1,31 @@
+package org.alexmond.sample.test;
+
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.yaml.YAMLMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "json-config-schema.fast-yaml-writer=true")
+class FastYamlWriterTests {
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Test
+	void yamlReadsBackLikeTheYamlMapperOutput() {
+		YAMLMapper yaml = YAMLMapper.builder().build();
+		CompactSchemaRoot schema = jsonSchemaService.getCompactSchema();
+		JsonNode expected = yaml.readTree(SchemaFormat.YAML.render(schema, true));
+		assertEquals(expected, yaml.readTree(jsonSchemaService.generateFullSchemaYaml()));
+		assertEquals(expected, yaml.readTree(jsonSchemaService.getSchemaBytes(SchemaFormat.YAML, false)));
+	}
+
+}
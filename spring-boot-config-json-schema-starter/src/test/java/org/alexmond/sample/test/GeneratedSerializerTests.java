@@ -0,0 +1,91 @@
+package org.alexmond.sample.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaProperties;
+import org.alexmond.config.json.schema.jsonschemamodel.JsonSchemaRoot;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.yaml.YAMLMapper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the generated schema serializers produce the same bytes as Jackson's bean
+ * serializer for the full schema. The timing comparison only runs when requested, e.g.
+ * {@code mvn test -Dschema.benchmark=true -Dtest=GeneratedSerializerTests}.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@Slf4j
+class GeneratedSerializerTests {
+
+	private static final int WARMUP = 200;
+
+	private static final int ITERATIONS = 1000;
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> M beanSerialized(B builder) {
+		return builder.addMixIn(JsonSchemaProperties.class, BeanSerialized.class)
+			.addMixIn(JsonSchemaRoot.class, BeanSerialized.class)
+			.build();
+	}
+
+	@Test
+	void fullSchemaMatchesTheBeanSerializer() {
+		JsonSchemaRoot schema = jsonSchemaService.materializeSchema();
+		assertFalse(schema.getProperties().isEmpty());
+
+		JsonMapper json = JsonMapper.builder().build();
+		JsonMapper beanJson = beanSerialized(JsonMapper.builder());
+		assertArrayEquals(beanJson.writeValueAsBytes(schema), json.writeValueAsBytes(schema));
+		assertArrayEquals(beanJson.writerWithDefaultPrettyPrinter().writeValueAsBytes(schema),
+				json.writerWithDefaultPrettyPrinter().writeValueAsBytes(schema));
+		assertArrayEquals(beanSerialized(YAMLMapper.builder()).writeValueAsBytes(schema),
+				YAMLMapper.builder().build().writeValueAsBytes(schema));
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "schema.benchmark", matches = "true")
+	void compareWithTheBeanSerializer() {
+		JsonSchemaRoot schema = jsonSchemaService.materializeSchema();
+		ObjectWriter generated = JsonMapper.builder().build().writer();
+		ObjectWriter bean = beanSerialized(JsonMapper.builder()).writer();
+		log.info("Bean serializer: {} us per document", measure(bean, schema));
+		log.info("Generated serializer: {} us per document", measure(generated, schema));
+	}
+
+	private static long measure(ObjectWriter writer, JsonSchemaRoot schema) {
+		for (int i = 0; i < WARMUP; i++) {
+			writer.writeValueAsBytes(schema);
+		}
+		long start = System.nanoTime();
+		long size = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			size += writer.writeValueAsBytes(schema).length;
+		}
+		assertTrue(size > 0);
+		return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ITERATIONS;
+	}
+
+	@JsonSerialize(using = ValueSerializer.None.class)
+	abstract static class BeanSerialized {
+
+	}
+
+}
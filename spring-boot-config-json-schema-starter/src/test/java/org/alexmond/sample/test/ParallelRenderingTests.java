@@ -0,0 +1,34 @@
+package org.alexmond.sample.test;
+
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "json-config-schema.parallel-render-threshold=1")
+class ParallelRenderingTests {
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Test
+	void parallelRenderingMatchesSequentialRendering() {
+		CompactSchemaRoot schema = jsonSchemaService.getCompactSchema();
+		assertEquals(new String(SchemaFormat.JSON.render(schema, true), StandardCharsets.UTF_8),
+				jsonSchemaService.generateFullSchemaJson());
+		assertArrayEquals(SchemaFormat.JSON.render(schema, false),
+				jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, false));
+		assertArrayEquals(SchemaFormat.YAML.render(schema, true),
+				jsonSchemaService.getSchemaBytes(SchemaFormat.YAML, true));
+	}
+
+}
@@ -0,0 +1,123 @@
+package org.alexmond.sample.test;
+
+import org.alexmond.config.json.schema.ReactiveConfigSchemaStarter;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.ReactiveSchemaService;
+import org.alexmond.config.json.schema.service.RenderedSchema;
+import org.alexmond.config.json.schema.service.SchemaEncoding;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class ReactiveSchemaServiceTests {
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Test
+	void streamsChunksOnlyAsRequested() throws Exception {
+		Scheduler scheduler = Schedulers.newSingle("reactive-schema-test");
+		try {
+			ReactiveSchemaService service = new ReactiveSchemaService(jsonSchemaService, scheduler, 1024);
+			RecordingSubscriber subscriber = new RecordingSubscriber();
+			service.getSchemaChunks(SchemaFormat.YAML, true, null, DefaultDataBufferFactory.sharedInstance)
+				.subscribe(subscriber);
+
+			subscriber.request(2);
+			subscriber.awaitChunks(2);
+			assertEquals(2, subscriber.chunks.size());
+			assertEquals(1024, subscriber.chunks.get(0).readableByteCount());
+
+			subscriber.request(Long.MAX_VALUE);
+			assertTrue(subscriber.completed.get(10, TimeUnit.SECONDS));
+			ByteArrayOutputStream document = new ByteArrayOutputStream();
+			for (DataBuffer chunk : subscriber.chunks) {
+				byte[] bytes = new byte[chunk.readableByteCount()];
+				chunk.read(bytes);
+				document.write(bytes);
+			}
+			assertArrayEquals(jsonSchemaService.getSchemaBytes(SchemaFormat.YAML, true), document.toByteArray());
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+	@Test
+	void servesCachedRenderingsWithoutTheScheduler() {
+		RenderedSchema rendered = jsonSchemaService.getRenderedSchema(SchemaFormat.JSON, true, SchemaEncoding.GZIP);
+		ReactiveSchemaService service = new ReactiveSchemaService(jsonSchemaService, Schedulers.fromExecutor((task) -> {
+			throw new IllegalStateException("Cached renderings must not be offloaded");
+		}), 8192);
+
+		assertEquals(rendered.getETag(), service.getRenderedSchema(SchemaFormat.JSON, true, "gzip").block().getETag());
+		assertArrayEquals(jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, true),
+				service.getSchemaBytes(SchemaFormat.JSON, true).block());
+	}
+
+	@Test
+	void reactiveApiRequiresWebFlux() {
+		new ReactiveWebApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(ReactiveConfigSchemaStarter.class))
+			.run((context) -> assertTrue(context.getBeansOfType(ReactiveSchemaService.class).isEmpty()));
+	}
+
+	private static final class RecordingSubscriber extends BaseSubscriber<DataBuffer> {
+
+		private final List<DataBuffer> chunks = new ArrayList<>();
+
+		private final CompletableFuture<Boolean> completed = new CompletableFuture<>();
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			// requested explicitly by the test
+		}
+
+		@Override
+		protected synchronized void hookOnNext(DataBuffer value) {
+			chunks.add(value);
+			notifyAll();
+		}
+
+		@Override
+		protected void hookOnError(Throwable throwable) {
+			completed.completeExceptionally(throwable);
+		}
+
+		@Override
+		protected void hookOnComplete() {
+			completed.complete(true);
+		}
+
+		synchronized void awaitChunks(int count) throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (chunks.size() < count && System.nanoTime() < deadline) {
+				wait(100);
+			}
+		}
+
+	}
+
+}
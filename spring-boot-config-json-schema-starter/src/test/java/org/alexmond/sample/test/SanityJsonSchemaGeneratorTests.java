@@ -69,6 +69,13 @@ class SanityJsonSchemaGeneratorTests {
 					entry.getValue().size(), entry.getKey(), entry.getValue()));
 	}
 
+	@Test
+	void compactSchemaSerializesLikeSchemaTree() {
+		var writer = JsonMapper.builder().build().writerWithDefaultPrettyPrinter();
+		assertEquals(writer.writeValueAsString(jsonSchemaService.materializeSchema()),
+				writer.writeValueAsString(jsonSchemaService.getCompactSchema()));
+	}
+
 	private Map<String, List<String>> findDuplicateNodes(JsonNode node) {
 		Map<String, List<String>> duplicates = new HashMap<>();
 		traverseNode(node, "", duplicates);
@@ -94,4 +101,13 @@ class SanityJsonSchemaGeneratorTests {
 		}
 	}
 
+	@Test
+	void transientFieldsOfConfigurationTypesAreDocumented() throws Exception {
+		JsonNode schema = JsonMapper.builder().build().readTree(jsonSchemaService.generateFullSchemaJson());
+		JsonNode mapValue = schema
+			.at("/properties/sample/properties/map-object-sample/additionalProperties/properties");
+		assertTrue(mapValue.has("config-map-note"), mapValue.toString());
+		assertFalse(schema.toString().contains("\"presence\""));
+	}
+
 }
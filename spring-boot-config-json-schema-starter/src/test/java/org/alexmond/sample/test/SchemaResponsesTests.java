@@ -0,0 +1,69 @@
+package org.alexmond.sample.test;
+
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.RenderedSchema;
+import org.alexmond.config.json.schema.service.SchemaEncoding;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.alexmond.config.json.schema.web.SchemaResponses;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class SchemaResponsesTests {
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Test
+	void servesRenderedSchemaWithItsHeaders() throws Exception {
+		RenderedSchema rendered = jsonSchemaService.getRenderedSchemaForAcceptEncoding(SchemaFormat.JSON, true, "gzip");
+		ResponseEntity<StreamingResponseBody> response = SchemaResponses.serve(rendered, null);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		HttpHeaders headers = response.getHeaders();
+		assertEquals(rendered.getETag(), headers.getETag());
+		assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(rendered.getContentLength(), headers.getContentLength());
+		assertEquals("no-cache", headers.getCacheControl());
+		assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), headers.getVary());
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		response.getBody().writeTo(body);
+		assertArrayEquals(rendered.getInputStream().readAllBytes(), body.toByteArray());
+	}
+
+	@Test
+	void answersRevalidationWithNotModified() {
+		RenderedSchema rendered = jsonSchemaService.getRenderedSchema(SchemaFormat.YAML, true, SchemaEncoding.IDENTITY);
+		ResponseEntity<StreamingResponseBody> response = SchemaResponses.serveImmutable(rendered, rendered.getETag());
+
+		assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+		assertEquals(rendered.getETag(), response.getHeaders().getETag());
+		assertEquals("max-age=31536000, public, immutable", response.getHeaders().getCacheControl());
+		assertNull(response.getBody());
+	}
+
+	@Test
+	void missingDocumentsAreNotFound() {
+		assertEquals(HttpStatus.NOT_FOUND, SchemaResponses.serve((RenderedSchema) null, null).getStatusCode());
+		assertEquals(HttpStatus.NOT_FOUND, SchemaResponses.serveImmutable(null, null).getStatusCode());
+		assertEquals(HttpStatus.NOT_FOUND,
+				SchemaResponses
+					.serve(jsonSchemaService.getStoredSchema(SchemaFormat.JSON, true, SchemaEncoding.IDENTITY), null)
+					.getStatusCode());
+	}
+
+}
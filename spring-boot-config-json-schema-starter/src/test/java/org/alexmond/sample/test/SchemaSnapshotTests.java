@@ -0,0 +1,358 @@
+package org.alexmond.sample.test;
+
+import org.alexmond.config.json.schema.config.JsonConfigSchemaConfig;
+import org.alexmond.config.json.schema.jsonschemamodel.CompactSchemaRoot;
+import org.alexmond.config.json.schema.jsonschemamodel.SchemaShards;
+import org.alexmond.config.json.schema.jsonschemamodel.SchemaSnapshot;
+import org.alexmond.config.json.schema.jsonschemamodel.ViewSpec;
+import org.alexmond.config.json.schema.service.ConfigurationPropertyCollector;
+import org.alexmond.config.json.schema.service.JsonSchemaBuilder;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.MissingTypeCollector;
+import org.alexmond.config.json.schema.service.RenderedSchema;
+import org.alexmond.config.json.schema.service.SchemaEncoding;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.alexmond.config.json.schema.service.SchemaOptions;
+import org.alexmond.config.json.schema.service.SchemaSizeReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class SchemaSnapshotTests {
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Autowired
+	private JsonConfigSchemaConfig config;
+
+	@Autowired
+	private ConfigurationPropertyCollector propertyCollector;
+
+	@Autowired
+	private JsonSchemaBuilder schemaBuilder;
+
+	@Autowired
+	private MissingTypeCollector missingTypeCollector;
+
+	@Test
+	void snapshotIsStableUntilRefreshed() {
+		SchemaSnapshot first = jsonSchemaService.getSnapshot();
+		assertSame(first, jsonSchemaService.getSnapshot());
+		assertSame(first.getSchema(), jsonSchemaService.getCompactSchema());
+
+		SchemaSnapshot second = jsonSchemaService.refresh();
+		assertNotSame(first, second);
+		assertEquals(first.getVersion() + 1, second.getVersion());
+		assertSame(second, jsonSchemaService.getSnapshot());
+
+		var mapper = JsonMapper.builder().build();
+		assertEquals(mapper.writeValueAsString(first.getSchema()), mapper.writeValueAsString(second.getSchema()));
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void mutatingMaterializedCopyDoesNotAffectSnapshot() {
+		String before = jsonSchemaService.generateFullSchemaJson();
+		jsonSchemaService.materializeSchema().getProperties().clear();
+		jsonSchemaService.getSchemaCache().getProperties().clear();
+		assertEquals(before, jsonSchemaService.generateFullSchemaJson());
+	}
+
+	@Test
+	void readersSeeCompleteSnapshotsDuringRefresh() throws Exception {
+		var mapper = JsonMapper.builder().build();
+		String expected = mapper.writeValueAsString(jsonSchemaService.getCompactSchema());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> reads = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				reads.add(executor.submit(() -> mapper.writeValueAsString(jsonSchemaService.getCompactSchema())));
+			}
+			jsonSchemaService.refresh();
+			for (Future<String> read : reads) {
+				assertEquals(expected, read.get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void renderedBytesMatchStringsAndAreCopied() throws Exception {
+		byte[] json = jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, true);
+		assertEquals(jsonSchemaService.generateFullSchemaJson(), new String(json, StandardCharsets.UTF_8));
+		assertEquals(jsonSchemaService.generateFullSchemaYaml(),
+				new String(jsonSchemaService.getSchemaBytes(SchemaFormat.YAML, true), StandardCharsets.UTF_8));
+
+		json[0] = ' ';
+		assertArrayEquals(jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, true),
+				jsonSchemaService.generateFullSchemaJson().getBytes(StandardCharsets.UTF_8));
+
+		byte[] compact = jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, false);
+		assertTrue(compact.length < json.length);
+		var mapper = JsonMapper.builder().build();
+		assertEquals(mapper.readTree(jsonSchemaService.generateFullSchemaJson()), mapper.readTree(compact));
+		try (InputStream in = jsonSchemaService.getSchemaStream(SchemaFormat.JSON, false)) {
+			assertArrayEquals(compact, in.readAllBytes());
+		}
+	}
+
+	@Test
+	void writesRenderedSchemaToStreamsAndChannels() throws Exception {
+		ByteArrayOutputStream json = new ByteArrayOutputStream();
+		jsonSchemaService.writeSchema(json, SchemaFormat.JSON);
+		assertEquals(jsonSchemaService.generateFullSchemaJson(), json.toString(StandardCharsets.UTF_8));
+
+		ByteArrayOutputStream yaml = new ByteArrayOutputStream();
+		jsonSchemaService.writeSchema(Channels.newChannel(yaml), SchemaFormat.YAML, false);
+		assertArrayEquals(jsonSchemaService.getSchemaBytes(SchemaFormat.YAML, false), yaml.toByteArray());
+	}
+
+	@Test
+	void servesPrecompressedVariants() throws Exception {
+		RenderedSchema gzip = jsonSchemaService.getRenderedSchemaForAcceptEncoding(SchemaFormat.JSON, true,
+				"gzip, deflate");
+		assertEquals("gzip", gzip.getContentEncoding());
+		assertEquals("application/json", gzip.getContentType());
+		assertEquals(jsonSchemaService.getSnapshot().getVersion(), gzip.getVersion());
+		byte[] plain = jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, true);
+		assertTrue(gzip.getContentLength() * 4 < plain.length);
+		try (InputStream in = new GZIPInputStream(gzip.getInputStream())) {
+			assertArrayEquals(plain, in.readAllBytes());
+		}
+
+		RenderedSchema identity = jsonSchemaService.getRenderedSchemaForAcceptEncoding(SchemaFormat.YAML, true, null);
+		assertNull(identity.getContentEncoding());
+		assertEquals(jsonSchemaService.generateFullSchemaYaml(),
+				new String(identity.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void entityTagsAreDerivedFromContent() throws Exception {
+		RenderedSchema plain = jsonSchemaService.getRenderedSchemaForAcceptEncoding(SchemaFormat.JSON, true,
+				"identity");
+		String sha256 = HexFormat.of()
+			.formatHex(MessageDigest.getInstance("SHA-256")
+				.digest(jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, true)));
+		assertEquals(sha256, plain.getContentHash());
+		assertEquals("\"" + sha256 + "\"", plain.getETag());
+
+		RenderedSchema gzip = jsonSchemaService.getRenderedSchemaForAcceptEncoding(SchemaFormat.JSON, true, "gzip");
+		assertEquals(sha256, gzip.getContentHash());
+		assertEquals("\"" + sha256 + "-gzip\"", gzip.getETag());
+		assertTrue(gzip.isNotModified("\"other\", W/" + gzip.getETag()));
+		assertTrue(gzip.isNotModified("*"));
+		assertFalse(gzip.isNotModified(plain.getETag()));
+		assertFalse(gzip.isNotModified(null));
+
+		jsonSchemaService.refresh();
+		assertEquals(sha256,
+				jsonSchemaService.getRenderedSchemaForAcceptEncoding(SchemaFormat.JSON, true, "gzip").getContentHash());
+		assertEquals(sha256, jsonSchemaService.getRenderedSchema(sha256.toUpperCase(), SchemaFormat.JSON, true, "gzip")
+			.getContentHash());
+		assertNull(jsonSchemaService.getRenderedSchema("0".repeat(64), SchemaFormat.JSON, true, "gzip"));
+		assertNull(jsonSchemaService.getRenderedSchema(sha256, SchemaFormat.YAML, true, "gzip"));
+	}
+
+	@Test
+	void binaryRenderingsReadBackToTheSameSchema() {
+		var mapper = JsonMapper.builder().build();
+		byte[] json = jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, false);
+		byte[] cbor = jsonSchemaService.getSchemaBytes(SchemaFormat.CBOR, true);
+
+		assertArrayEquals(cbor, jsonSchemaService.getSchemaBytes(SchemaFormat.CBOR, false));
+		assertTrue(cbor.length < json.length);
+		assertEquals(mapper.readTree(json), mapper
+			.valueToTree(SchemaFormat.CBOR.read(jsonSchemaService.getSchemaStream(SchemaFormat.CBOR, false))));
+		assertEquals(mapper.readTree(json), mapper.valueToTree(SchemaFormat.JSON.read(json)));
+
+		byte[] smile = jsonSchemaService.getSchemaBytes(SchemaFormat.SMILE, true);
+		assertTrue(SchemaFormat.SMILE.isAvailable());
+		assertArrayEquals(smile, jsonSchemaService.getSchemaBytes(SchemaFormat.SMILE, false));
+		assertTrue(smile.length < json.length);
+		assertEquals(mapper.readTree(json), mapper
+			.valueToTree(SchemaFormat.SMILE.read(jsonSchemaService.getSchemaStream(SchemaFormat.SMILE, false))));
+	}
+
+	@Test
+	void shardsMatchTheMonolithicSchema() {
+		var mapper = JsonMapper.builder().build();
+		JsonNode schema = mapper.readTree(jsonSchemaService.generateFullSchemaJson());
+		SchemaShards shards = jsonSchemaService.getSchemaShards();
+
+		assertEquals(List.copyOf(schema.get("properties").propertyNames()), shards.getPrefixes());
+		for (String prefix : shards.getPrefixes()) {
+			RenderedSchema shard = jsonSchemaService.getRenderedShard(SchemaShards.documentName(prefix),
+					SchemaFormat.JSON, false, null);
+			String node = mapper.readTree(shard.getInputStream()).get("properties").get(prefix).toString();
+			assertEquals(schema.get("properties").get(prefix).toString(), node.replace("\"_defs.json#/", "\"#/"));
+			assertEquals("application/json", shard.getContentType());
+		}
+
+		JsonNode defs = mapper
+			.readTree(jsonSchemaService.getRenderedShard(SchemaShards.DEFINITIONS, SchemaFormat.JSON, false, null)
+				.getInputStream());
+		assertEquals(schema.get("$defs"), defs.get("$defs"));
+		assertNull(defs.get("$id"));
+
+		JsonNode index = mapper
+			.readTree(jsonSchemaService.getRenderedShard(SchemaShards.INDEX, SchemaFormat.JSON, false, null)
+				.getInputStream());
+		assertEquals("logging.json#/properties/logging", index.get("properties").get("logging").get("$ref").asString());
+		assertEquals(schema.get("additionalProperties"), index.get("additionalProperties"));
+		assertNull(jsonSchemaService.getRenderedShard("no-such-prefix", SchemaFormat.JSON, false, null));
+	}
+
+	@Test
+	void unchangedShardsKeepTheirEntityTags() {
+		RenderedSchema before = jsonSchemaService.getRenderedShard("logging", SchemaFormat.JSON, true, "gzip");
+		assertSame(before, jsonSchemaService.getRenderedShard("logging", SchemaFormat.JSON, true, "gzip"));
+		assertEquals("gzip", before.getContentEncoding());
+
+		jsonSchemaService.refresh();
+		RenderedSchema after = jsonSchemaService.getRenderedShard("logging", SchemaFormat.JSON, true, "gzip");
+		assertNotSame(before, after);
+		assertEquals(before.getETag(), after.getETag());
+		assertTrue(after.isNotModified(before.getETag()));
+	}
+
+	@Test
+	void filteredViewsArePrunedAndCached() {
+		ViewSpec spec = ViewSpec.builder().excludePrefixes(List.of("logging")).build();
+		CompactSchemaRoot view = jsonSchemaService.getView(spec);
+		assertFalse(view.getProperties().containsKey("logging"));
+		assertFalse(view.getDefinitions().containsKey("loggerLevel"));
+		assertSame(view, jsonSchemaService.getView(ViewSpec.builder().excludePrefixes(List.of("logging.")).build()));
+
+		RenderedSchema rendered = jsonSchemaService.getRenderedView(spec, SchemaFormat.JSON, true, null);
+		assertSame(rendered, jsonSchemaService.getRenderedView(spec, SchemaFormat.JSON, true, null));
+		assertEquals(JsonMapper.builder().build().writeValueAsString(view),
+				JsonMapper.builder().build().readTree(rendered.getInputStream()).toString());
+		assertEquals(jsonSchemaService.getRenderedSchema(SchemaFormat.JSON, true, SchemaEncoding.IDENTITY).getETag(),
+				jsonSchemaService.getRenderedView(ViewSpec.ALL, SchemaFormat.JSON, true, null).getETag());
+	}
+
+	@Test
+	void leanSchemaIsCachedAndReportsItsSize() throws Exception {
+		CompactSchemaRoot lean = jsonSchemaService.getLeanSchema();
+		assertSame(lean, jsonSchemaService.getView(ViewSpec.builder().lean(true).build()));
+		RenderedSchema rendered = jsonSchemaService.getRenderedLeanSchema(SchemaFormat.JSON, true, null);
+		assertSame(rendered, jsonSchemaService.getRenderedLeanSchema(SchemaFormat.JSON, true, null));
+		assertFalse(new String(rendered.getInputStream().readAllBytes(), StandardCharsets.UTF_8)
+			.contains("\"description\" : \""));
+
+		SchemaSizeReport report = jsonSchemaService.getSizeReport(ViewSpec.LEAN, SchemaFormat.JSON, true);
+		assertEquals(rendered.getContentLength(), report.getViewLength());
+		assertEquals(jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, true).length, report.getFullLength());
+		assertTrue(report.getSavedLength() > 0);
+		assertTrue(report.getReduction() > 0 && report.getReduction() < 1);
+	}
+
+	@Test
+	void optionVariantsAreDerivedFromOneBuild() {
+		CompactSchemaRoot schema = jsonSchemaService.getCompactSchema();
+		assertSame(schema, jsonSchemaService.getVariant(SchemaOptions.builder().build()));
+		assertSame(schema, jsonSchemaService.getVariant(SchemaOptions.builder().enableDefinitionRefs(true).build()));
+
+		SchemaOptions anchors = SchemaOptions.builder().enableAnchorRefs(true).build();
+		CompactSchemaRoot anchored = jsonSchemaService.getVariant(anchors);
+		assertSame(anchored, jsonSchemaService.getVariant(anchors));
+		anchored.getDefinitions().forEach((name, node) -> assertNull(node.getAnchor(), name));
+		List<String> references = new ArrayList<>();
+		JsonNode tree = JsonMapper.builder().build().valueToTree(anchored);
+		collectReferences(tree.get("properties"), references);
+		assertTrue(references.stream().anyMatch((ref) -> ref.startsWith("#") && !ref.startsWith("#/")));
+		assertTrue(references.stream()
+			.noneMatch((ref) -> ref.startsWith("#/$defs/")
+					&& schema.getDefinitions().get(ref.substring("#/$defs/".length())).getAnchor() != null));
+
+		CompactSchemaRoot closed = jsonSchemaService
+			.getVariant(SchemaOptions.builder().allowAdditionalProperties(false).build());
+		assertEquals(false, closed.getAdditionalProperties());
+		assertSame(schema.getProperties(), closed.getProperties());
+
+		CompactSchemaRoot plain = jsonSchemaService.getVariant(SchemaOptions.builder().useOpenapi(false).build());
+		assertNotSame(schema, plain);
+		assertSame(plain, jsonSchemaService.getVariant(SchemaOptions.builder().useOpenapi(false).build()));
+
+		RenderedSchema rendered = jsonSchemaService.getRenderedVariant(anchors, SchemaFormat.JSON, true, null);
+		assertSame(rendered, jsonSchemaService.getRenderedVariant(anchors, SchemaFormat.JSON, true, null));
+		assertEquals(jsonSchemaService.getRenderedSchema(SchemaFormat.JSON, true, SchemaEncoding.IDENTITY).getETag(),
+				jsonSchemaService.getRenderedVariant(SchemaOptions.builder().build(), SchemaFormat.JSON, true, null)
+					.getETag());
+	}
+
+	@Test
+	void definitionRefsDoNotSplitAnchorVariants() {
+		SchemaOptions withDefinitions = SchemaOptions.builder()
+			.enableAnchorRefs(true)
+			.enableDefinitionRefs(true)
+			.build();
+		SchemaOptions withoutDefinitions = SchemaOptions.builder()
+			.enableAnchorRefs(true)
+			.enableDefinitionRefs(false)
+			.build();
+
+		assertEquals(withDefinitions.resolve(config), withoutDefinitions.resolve(config));
+		assertSame(jsonSchemaService.getVariant(withDefinitions), jsonSchemaService.getVariant(withoutDefinitions));
+		assertSame(jsonSchemaService.getRenderedVariant(withDefinitions, SchemaFormat.JSON, true, null),
+				jsonSchemaService.getRenderedVariant(withoutDefinitions, SchemaFormat.JSON, true, null));
+	}
+
+	@Test
+	void derivedVariantsMatchSchemasBuiltWithTheSameOptions() {
+		JsonMapper mapper = JsonMapper.builder().build();
+		for (SchemaOptions options : List.of(SchemaOptions.builder().enableAnchorRefs(true).build(),
+				SchemaOptions.builder().enableDefinitionRefs(false).build(),
+				SchemaOptions.builder().enableAnchorRefs(true).allowAdditionalProperties(false).build())) {
+			SchemaOptions resolved = options.resolve(config);
+			JsonConfigSchemaConfig built = new JsonConfigSchemaConfig();
+			BeanUtils.copyProperties(config, built);
+			built.setEnableAnchorRefs(resolved.getEnableAnchorRefs());
+			built.setEnableDefinitionRefs(resolved.getEnableDefinitionRefs());
+			built.setAllowAdditionalProperties(resolved.getAllowAdditionalProperties());
+			JsonSchemaService builtService = new JsonSchemaService(built, propertyCollector,
+					schemaBuilder.withConfig(built), missingTypeCollector);
+
+			assertEquals(mapper.valueToTree(builtService.getCompactSchema()),
+					mapper.valueToTree(jsonSchemaService.getVariant(options)), options.toString());
+		}
+	}
+
+	private static void collectReferences(JsonNode node, List<String> references) {
+		if (node.isObject() && node.has("$ref")) {
+			references.add(node.get("$ref").asString());
+		}
+		node.forEach((child) -> collectReferences(child, references));
+	}
+
+}
@@ -43,7 +43,7 @@ class SchemaToAsciiDocTests {
 
 	@Test
 	void generateJsonSchema() throws Exception {
-		JsonSchemaRoot jsonConfigSchema = jsonSchemaService.getSchemaCache();
+		JsonSchemaRoot jsonConfigSchema = jsonSchemaService.materializeSchema();
 		jsonConfigSchema.getProperties().forEach(this::processNodeToAsciiDoc);
 		renderPropertyDoc();
 	}
@@ -0,0 +1,107 @@
+package org.alexmond.sample.test;
+
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.RenderedSchema;
+import org.alexmond.config.json.schema.service.SchemaEncoding;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.alexmond.config.json.schema.service.StoredSchema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class StoredSchemaTests {
+
+	@TempDir
+	static Path renderDirectory;
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@DynamicPropertySource
+	static void renderDirectory(DynamicPropertyRegistry registry) {
+		registry.add("json-config-schema.render-directory", renderDirectory::toString);
+	}
+
+	private static byte[] contentOf(RenderedSchema rendered) throws Exception {
+		try (InputStream in = rendered.getInputStream()) {
+			return in.readAllBytes();
+		}
+	}
+
+	@Test
+	void servesRenderingsFromContentAddressedFiles() throws Exception {
+		RenderedSchema rendered = jsonSchemaService.getRenderedSchema(SchemaFormat.JSON, true, SchemaEncoding.GZIP);
+		StoredSchema stored = jsonSchemaService.getStoredSchemaForAcceptEncoding(SchemaFormat.JSON, true,
+				"gzip, deflate");
+		assertSame(stored, jsonSchemaService.getStoredSchema(SchemaFormat.JSON, true, SchemaEncoding.GZIP));
+
+		assertEquals(renderDirectory, stored.getPath().getParent());
+		assertEquals("config-schema-" + ProcessHandle.current().pid() + "-" + rendered.getContentHash() + ".json.gzip",
+				stored.getPath().getFileName().toString());
+		assertEquals(rendered.getETag(), stored.getETag());
+		assertEquals("gzip", stored.getContentEncoding());
+		assertEquals(rendered.getContentLength(), stored.getContentLength());
+		assertTrue(stored.getResource().isFile());
+
+		byte[] content = contentOf(rendered);
+		assertArrayEquals(content, Files.readAllBytes(stored.getPath()));
+		ByteBuffer mapped = stored.getBuffer();
+		assertTrue(mapped.isReadOnly());
+		byte[] mappedContent = new byte[mapped.remaining()];
+		mapped.get(mappedContent);
+		assertArrayEquals(content, mappedContent);
+		assertEquals(content.length, stored.getBuffer().remaining());
+		ByteArrayOutputStream transferred = new ByteArrayOutputStream();
+		stored.transferTo(Channels.newChannel(transferred));
+		assertArrayEquals(content, transferred.toByteArray());
+	}
+
+	@Test
+	void storedRenderingsAreServedFromTheirFiles() throws Exception {
+		StoredSchema stored = jsonSchemaService.getStoredSchema(SchemaFormat.JSON, false, SchemaEncoding.DEFLATE);
+		StoredSchema plain = jsonSchemaService.getStoredSchema(SchemaFormat.JSON, false, SchemaEncoding.IDENTITY);
+		assertEquals(stored.getContentHash(), plain.getContentHash());
+
+		RenderedSchema rendered = jsonSchemaService.getRenderedSchema(SchemaFormat.JSON, false, SchemaEncoding.DEFLATE);
+		assertArrayEquals(Files.readAllBytes(stored.getPath()), contentOf(rendered));
+		assertArrayEquals(Files.readAllBytes(plain.getPath()),
+				jsonSchemaService.getSchemaBytes(SchemaFormat.JSON, false));
+	}
+
+	@Test
+	void rebuildsReuseFilesOfUnchangedDocuments() throws Exception {
+		StoredSchema before = jsonSchemaService.getStoredSchema(SchemaFormat.YAML, true, SchemaEncoding.IDENTITY);
+		jsonSchemaService.refresh();
+		StoredSchema after = jsonSchemaService.getStoredSchema(SchemaFormat.YAML, true, SchemaEncoding.IDENTITY);
+
+		assertNotSame(before, after);
+		assertEquals(before.getVersion() + 1, after.getVersion());
+		assertEquals(before.getPath(), after.getPath());
+		assertTrue(Files.isRegularFile(after.getPath()));
+		try (Stream<Path> files = Files.list(renderDirectory)) {
+			assertFalse(files.anyMatch((file) -> file.getFileName().toString().endsWith(".tmp")));
+		}
+	}
+
+}
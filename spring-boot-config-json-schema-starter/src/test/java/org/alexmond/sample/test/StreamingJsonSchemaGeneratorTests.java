@@ -0,0 +1,70 @@
+package org.alexmond.sample.test;
+
+import com.networknt.schema.Error;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaRegistry;
+import com.networknt.schema.dialect.Dialects;
+import lombok.extern.slf4j.Slf4j;
+import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.yaml.YAMLMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@Slf4j
+class StreamingJsonSchemaGeneratorTests {
+
+	@Autowired
+	private JsonSchemaService jsonSchemaService;
+
+	@Test
+	void streamedSchemaMatchesTreeSchema() throws Exception {
+		var out = new ByteArrayOutputStream();
+		jsonSchemaService.streamFullSchemaJson(out);
+		String streamed = out.toString(StandardCharsets.UTF_8);
+
+		var jsonMapper = JsonMapper.builder().build();
+		JsonNode streamedNode = jsonMapper.readTree(streamed);
+		JsonNode treeNode = jsonMapper.readTree(jsonSchemaService.generateFullSchemaJson());
+
+		assertEquals(new TreeSet<>(treeNode.get("properties").propertyNames()),
+				new TreeSet<>(streamedNode.get("properties").propertyNames()),
+				"Streamed schema should contain the same top-level properties");
+		assertEquals(new TreeSet<>(treeNode.get("$defs").propertyNames()),
+				new TreeSet<>(streamedNode.get("$defs").propertyNames()),
+				"Streamed schema should contain the same definitions");
+		assertEquals(treeNode.get("additionalProperties"), streamedNode.get("additionalProperties"));
+	}
+
+	@Test
+	void streamedSchemaValidates() throws Exception {
+		var out = new ByteArrayOutputStream();
+		jsonSchemaService.streamFullSchemaJson(out);
+		String streamed = out.toString(StandardCharsets.UTF_8);
+
+		SchemaRegistry schemaRegistry = SchemaRegistry.withDialect(Dialects.getDraft202012());
+		Schema schema = schemaRegistry.getSchema(streamed);
+		List<Error> errors = schema.validate(JsonMapper.builder().build().readTree(streamed));
+		errors.forEach(error -> log.error("Schema validation error: {}", error));
+		assertTrue(errors.isEmpty(), "Streamed schema should be a valid 2020-12 schema");
+
+		errors = schema.validate(YAMLMapper.builder().build().readTree(Paths.get("test.yaml").toFile()));
+		errors.forEach(error -> log.error("YAML validation error: {}", error));
+		assertTrue(errors.isEmpty(), "Sample YAML should validate against the streamed schema");
+	}
+
+}
@@ -14,4 +14,7 @@ public class ConfigMapObject {
 	@Schema(description = "Second nested configuration property", example = "123")
 	private Integer configMap2 = 123;
 
+	@Schema(description = "Transient nested property, documented like any other field")
+	private transient String configMapNote;
+
 }
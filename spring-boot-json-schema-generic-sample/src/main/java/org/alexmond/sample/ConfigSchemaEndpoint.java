@@ -3,8 +3,11 @@ package org.alexmond.sample;
 
 import lombok.RequiredArgsConstructor;
 import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.SchemaFormat;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 @SuppressWarnings("unused")
@@ -15,9 +18,9 @@ public class ConfigSchemaEndpoint {
 
 	private final JsonSchemaService jsonSchemaService;
 
-	@ReadOperation
-	public String schema() {
-		return jsonSchemaService.generateFullSchemaJson();
+	@ReadOperation(produces = "application/json")
+	public Resource schema() {
+		return new InputStreamResource(jsonSchemaService.getSchemaStream(SchemaFormat.JSON, true));
 	}
 
 }
@@ -1,10 +1,24 @@
 package org.alexmond.sample;
 
 import lombok.extern.slf4j.Slf4j;
+import org.alexmond.config.json.schema.jsonschemamodel.ViewSpec;
 import org.alexmond.config.json.schema.service.JsonSchemaService;
+import org.alexmond.config.json.schema.service.SchemaFormat;
+import org.alexmond.config.json.schema.service.SchemaOptions;
+import org.alexmond.config.json.schema.service.SchemaSizeReport;
+import org.alexmond.config.json.schema.service.StoredSchema;
+import org.alexmond.config.json.schema.web.SchemaResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @Slf4j
@@ -14,13 +28,108 @@ public class GenerateJsonSchema {
 	private JsonSchemaService jsonSchemaService;
 
 	@GetMapping("/config-schema")
-	public String getConfigSchema() {
-		return jsonSchemaService.generateFullSchemaJson();
+	public ResponseEntity<StreamingResponseBody> getConfigSchema(
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		StoredSchema stored = jsonSchemaService.getStoredSchemaForAcceptEncoding(SchemaFormat.JSON, true,
+				acceptEncoding);
+		if (stored != null) {
+			return SchemaResponses.serve(stored, ifNoneMatch);
+		}
+		return SchemaResponses.serve(
+				jsonSchemaService.getRenderedSchemaForAcceptEncoding(SchemaFormat.JSON, true, acceptEncoding),
+				ifNoneMatch);
 	}
 
 	@GetMapping("/config-schema.yaml")
-	public String getConfigSchemaYaml() {
-		return jsonSchemaService.generateFullSchemaYaml();
+	public ResponseEntity<StreamingResponseBody> getConfigSchemaYaml(
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return SchemaResponses.serve(
+				jsonSchemaService.getRenderedSchemaForAcceptEncoding(SchemaFormat.YAML, true, acceptEncoding),
+				ifNoneMatch);
+	}
+
+	@GetMapping("/config-schema.cbor")
+	public ResponseEntity<StreamingResponseBody> getConfigSchemaCbor(
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return SchemaResponses.serve(
+				jsonSchemaService.getRenderedSchemaForAcceptEncoding(SchemaFormat.CBOR, false, acceptEncoding),
+				ifNoneMatch);
+	}
+
+	@GetMapping("/config-schema/{hash}.json")
+	public ResponseEntity<StreamingResponseBody> getConfigSchemaByHash(@PathVariable String hash,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return SchemaResponses.serveImmutable(
+				jsonSchemaService.getRenderedSchema(hash, SchemaFormat.JSON, true, acceptEncoding), ifNoneMatch);
+	}
+
+	@GetMapping("/config-schema/{hash}.yaml")
+	public ResponseEntity<StreamingResponseBody> getConfigSchemaYamlByHash(@PathVariable String hash,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return SchemaResponses.serveImmutable(
+				jsonSchemaService.getRenderedSchema(hash, SchemaFormat.YAML, true, acceptEncoding), ifNoneMatch);
+	}
+
+	@GetMapping("/config-schema/view")
+	public ResponseEntity<StreamingResponseBody> getConfigSchemaView(
+			@RequestParam(required = false) List<String> include, @RequestParam(required = false) List<String> exclude,
+			@RequestParam(defaultValue = "false") boolean excludeDeprecated,
+			@RequestParam(defaultValue = "0") int maxDepth, @RequestParam(defaultValue = "false") boolean lean,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		ViewSpec spec = ViewSpec.builder()
+			.includePrefixes(include)
+			.excludePrefixes(exclude)
+			.excludeDeprecated(excludeDeprecated)
+			.maxDepth(maxDepth)
+			.lean(lean)
+			.build();
+		return SchemaResponses.serve(jsonSchemaService.getRenderedView(spec, SchemaFormat.JSON, true, acceptEncoding),
+				ifNoneMatch);
+	}
+
+	@GetMapping("/config-schema/lean")
+	public ResponseEntity<StreamingResponseBody> getLeanConfigSchema(
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return SchemaResponses.serve(jsonSchemaService.getRenderedLeanSchema(SchemaFormat.JSON, true, acceptEncoding),
+				ifNoneMatch);
+	}
+
+	@GetMapping("/config-schema/lean/report")
+	public SchemaSizeReport getLeanConfigSchemaReport() {
+		return jsonSchemaService.getSizeReport(ViewSpec.LEAN, SchemaFormat.JSON, true);
+	}
+
+	@GetMapping("/config-schema/variant")
+	public ResponseEntity<StreamingResponseBody> getConfigSchemaVariant(
+			@RequestParam(required = false) Boolean anchorRefs, @RequestParam(required = false) Boolean definitionRefs,
+			@RequestParam(required = false) Boolean additionalProperties,
+			@RequestParam(required = false) Boolean openapi, @RequestParam(required = false) Boolean validation,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		SchemaOptions options = SchemaOptions.builder()
+			.enableAnchorRefs(anchorRefs)
+			.enableDefinitionRefs(definitionRefs)
+			.allowAdditionalProperties(additionalProperties)
+			.useOpenapi(openapi)
+			.useValidation(validation)
+			.build();
+		return SchemaResponses
+			.serve(jsonSchemaService.getRenderedVariant(options, SchemaFormat.JSON, true, acceptEncoding), ifNoneMatch);
+	}
+
+	@GetMapping("/config-schema/shards/{name}.json")
+	public ResponseEntity<StreamingResponseBody> getConfigSchemaShard(@PathVariable String name,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return SchemaResponses.serve(jsonSchemaService.getRenderedShard(name, SchemaFormat.JSON, true, acceptEncoding),
+				ifNoneMatch);
 	}
 
-}
\ No newline at end of file
+}